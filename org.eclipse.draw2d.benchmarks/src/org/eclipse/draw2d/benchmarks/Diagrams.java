@@ -0,0 +1,140 @@
+/*******************************************************************************
+ * Copyright (c) 2026 agent and others.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0.
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     agent - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.draw2d.benchmarks;
+
+import java.util.Random;
+
+import org.eclipse.draw2d.Figure;
+import org.eclipse.draw2d.FlowLayout;
+import org.eclipse.draw2d.IFigure;
+import org.eclipse.draw2d.RectangleFigure;
+import org.eclipse.draw2d.XYLayout;
+import org.eclipse.draw2d.geometry.Dimension;
+import org.eclipse.draw2d.geometry.Rectangle;
+import org.eclipse.draw2d.graph.DirectedGraph;
+import org.eclipse.draw2d.graph.Edge;
+import org.eclipse.draw2d.graph.Node;
+
+/**
+ * Creates the synthetic diagrams used by the benchmarks. All diagrams are
+ * created from a fixed seed, so every run measures the same structure.
+ */
+final class Diagrams {
+
+	/**
+	 * The number of leaf figures in each container of a diagram.
+	 */
+	static final int CONTAINER_SIZE = 10;
+
+	static final int CONTAINER_WIDTH = 120;
+	static final int CONTAINER_HEIGHT = 60;
+	static final int GAP = 20;
+
+	private static final long SEED = 42;
+
+	private Diagrams() {
+	}
+
+	/**
+	 * Creates a diagram with the given number of figures. The root uses an
+	 * {@link XYLayout} to place containers in a grid, and each container uses a
+	 * {@link FlowLayout} to arrange its {@link #CONTAINER_SIZE} leaves.
+	 *
+	 * @param figures the total number of figures
+	 * @param root    the figure to use as root
+	 * @return the root figure
+	 */
+	static <T extends IFigure> T createDiagram(int figures, T root) {
+		int containers = Math.max(1, figures / (CONTAINER_SIZE + 1));
+		int columns = (int) Math.ceil(Math.sqrt(containers));
+		int rows = (containers + columns - 1) / columns;
+		root.setLayoutManager(new XYLayout());
+		root.setBounds(new Rectangle(0, 0, columns * (CONTAINER_WIDTH + GAP), rows * (CONTAINER_HEIGHT + GAP)));
+		for (int i = 0; i < containers; i++) {
+			IFigure container = new Figure();
+			container.setLayoutManager(new FlowLayout());
+			for (int j = 0; j < CONTAINER_SIZE; j++) {
+				IFigure leaf = new RectangleFigure();
+				leaf.setPreferredSize(new Dimension(16, 16));
+				container.add(leaf);
+			}
+			Rectangle constraint = new Rectangle((i % columns) * (CONTAINER_WIDTH + GAP),
+					(i / columns) * (CONTAINER_HEIGHT + GAP), CONTAINER_WIDTH, CONTAINER_HEIGHT);
+			root.add(container, constraint);
+		}
+		root.validate();
+		return root;
+	}
+
+	/**
+	 * Creates a layered directed graph with the given number of nodes. Each node
+	 * has up to two outgoing edges to nodes of later ranks.
+	 *
+	 * @param nodes the number of nodes
+	 * @return the graph
+	 */
+	@SuppressWarnings("nls")
+	static DirectedGraph createGraph(int nodes) {
+		Random random = new Random(SEED);
+		DirectedGraph graph = new DirectedGraph();
+		for (int i = 0; i < nodes; i++) {
+			Node node = new Node("n" + i);
+			node.width = 40 + random.nextInt(40);
+			node.height = 30;
+			graph.nodes.add(node);
+		}
+		for (int i = 0; i < nodes - 1; i++) {
+			int span = Math.min(nodes - i - 1, 20);
+			for (int j = 0; j < 2; j++) {
+				Node target = graph.nodes.getNode(i + 1 + random.nextInt(span));
+				graph.edges.add(new Edge(graph.nodes.getNode(i), target));
+			}
+		}
+		return graph;
+	}
+
+	/**
+	 * Creates random non-overlapping obstacles on a grid.
+	 *
+	 * @param count the number of obstacles
+	 * @return the obstacles
+	 */
+	static Rectangle[] createObstacles(int count) {
+		Random random = new Random(SEED);
+		int columns = (int) Math.ceil(Math.sqrt(count));
+		Rectangle[] obstacles = new Rectangle[count];
+		for (int i = 0; i < count; i++) {
+			obstacles[i] = new Rectangle((i % columns) * 100 + random.nextInt(30), (i / columns) * 100 + random.nextInt(30),
+					30 + random.nextInt(30), 30 + random.nextInt(30));
+		}
+		return obstacles;
+	}
+
+	/**
+	 * Creates random rectangles within a square area which grows with the count.
+	 *
+	 * @param count the number of rectangles
+	 * @return the rectangles
+	 */
+	static Rectangle[] createRectangles(int count) {
+		Random random = new Random(SEED);
+		int extent = (int) Math.sqrt(count) * 50;
+		Rectangle[] rectangles = new Rectangle[count];
+		for (int i = 0; i < count; i++) {
+			rectangles[i] = new Rectangle(random.nextInt(extent), random.nextInt(extent), 10 + random.nextInt(90),
+					10 + random.nextInt(90));
+		}
+		return rectangles;
+	}
+
+}
@@ -0,0 +1,98 @@
+/*******************************************************************************
+ * Copyright (c) 2026 agent and others.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0.
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     agent - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.draw2d.benchmarks;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import org.eclipse.draw2d.Figure;
+import org.eclipse.draw2d.IFigure;
+
+/**
+ * Measures validation and hit-testing of diagrams. These benchmarks do not
+ * require a display.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class FigureBenchmark {
+
+	private static final int POINTS = 256;
+
+	@Param({ "1000", "10000", "100000" })
+	public int figures;
+
+	private IFigure root;
+	private final int[] xs = new int[POINTS];
+	private final int[] ys = new int[POINTS];
+
+	@Setup
+	public void setUp() {
+		root = Diagrams.createDiagram(figures, new Figure());
+		Random random = new Random(POINTS);
+		for (int i = 0; i < POINTS; i++) {
+			xs[i] = random.nextInt(root.getBounds().width);
+			ys[i] = random.nextInt(root.getBounds().height);
+		}
+	}
+
+	/**
+	 * Lays out the whole diagram.
+	 */
+	@Benchmark
+	public IFigure validate() {
+		root.invalidateTree();
+		root.validate();
+		return root;
+	}
+
+	/**
+	 * Finds the figures at {@link #POINTS} random locations.
+	 */
+	@Benchmark
+	@OperationsPerInvocation(POINTS)
+	public void findFigureAt(Blackhole blackhole) {
+		for (int i = 0; i < POINTS; i++) {
+			blackhole.consume(root.findFigureAt(xs[i], ys[i]));
+		}
+	}
+
+	/**
+	 * Finds the mouse event targets at {@link #POINTS} random locations.
+	 */
+	@Benchmark
+	@OperationsPerInvocation(POINTS)
+	public void findMouseEventTargetAt(Blackhole blackhole) {
+		for (int i = 0; i < POINTS; i++) {
+			blackhole.consume(root.findMouseEventTargetAt(xs[i], ys[i]));
+		}
+	}
+
+}
@@ -0,0 +1,126 @@
+/*******************************************************************************
+ * Copyright (c) 2026 agent and others.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0.
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     agent - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.draw2d.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import org.eclipse.draw2d.geometry.Point;
+import org.eclipse.draw2d.geometry.PointList;
+import org.eclipse.draw2d.geometry.Rectangle;
+
+/**
+ * Measures the geometry operations which dominate damage tracking, clipping and
+ * connection painting.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class GeometryBenchmark {
+
+	@Param({ "1000", "10000", "100000" })
+	public int figures;
+
+	private Rectangle[] rectangles;
+	private PointList points;
+	private Point first;
+
+	@Setup
+	public void setUp() {
+		rectangles = Diagrams.createRectangles(figures);
+		points = new PointList(figures);
+		for (Rectangle rectangle : rectangles) {
+			points.addPoint(rectangle.x, rectangle.y);
+		}
+		first = points.getFirstPoint();
+	}
+
+	/**
+	 * Unions all rectangles, as done when merging damage.
+	 */
+	@Benchmark
+	public Rectangle union() {
+		Rectangle union = new Rectangle(rectangles[0]);
+		for (Rectangle rectangle : rectangles) {
+			union.union(rectangle);
+		}
+		return union;
+	}
+
+	/**
+	 * Tests each rectangle against its successor for intersection.
+	 */
+	@Benchmark
+	public int intersects() {
+		int count = 0;
+		for (int i = 1; i < rectangles.length; i++) {
+			if (rectangles[i - 1].intersects(rectangles[i])) {
+				count++;
+			}
+		}
+		return count;
+	}
+
+	/**
+	 * Intersects copies of the rectangles with a clip, as done when painting.
+	 */
+	@Benchmark
+	public int intersect() {
+		Rectangle clip = new Rectangle(0, 0, 1024, 768);
+		Rectangle scratch = new Rectangle();
+		int area = 0;
+		for (Rectangle rectangle : rectangles) {
+			scratch.setBounds(rectangle).intersect(clip);
+			area += scratch.width * scratch.height;
+		}
+		return area;
+	}
+
+	/**
+	 * Translates and scales a point through every rectangle, as done when
+	 * translating coordinates through a figure hierarchy.
+	 */
+	@Benchmark
+	public Point translate() {
+		Point point = new Point(17, 23);
+		for (Rectangle rectangle : rectangles) {
+			point.translate(rectangle.x & 7, rectangle.y & 7).scale(0.5);
+		}
+		return point;
+	}
+
+	/**
+	 * Computes the bounds of a point list. Setting a point discards the cached
+	 * bounds.
+	 */
+	@Benchmark
+	public Rectangle pointListBounds() {
+		points.setPoint(first, 0);
+		return points.getBounds();
+	}
+
+}
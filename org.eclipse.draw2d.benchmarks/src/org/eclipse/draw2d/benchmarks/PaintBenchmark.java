@@ -0,0 +1,161 @@
+/*******************************************************************************
+ * Copyright (c) 2026 agent and others.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0.
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     agent - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.draw2d.benchmarks;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.eclipse.swt.graphics.GC;
+import org.eclipse.swt.graphics.Image;
+import org.eclipse.swt.widgets.Display;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import org.eclipse.draw2d.ColorConstants;
+import org.eclipse.draw2d.DeferredUpdateManager;
+import org.eclipse.draw2d.Figure;
+import org.eclipse.draw2d.Graphics;
+import org.eclipse.draw2d.GraphicsSource;
+import org.eclipse.draw2d.IFigure;
+import org.eclipse.draw2d.SWTGraphics;
+import org.eclipse.draw2d.UpdateManager;
+import org.eclipse.draw2d.geometry.Rectangle;
+
+/**
+ * Measures painting a diagram into an offscreen image, both directly and
+ * through a {@link DeferredUpdateManager}. These benchmarks require a display;
+ * on a headless machine they are run under Xvfb. The display is created by the
+ * benchmark thread, so the benchmarks must run with a single thread.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PaintBenchmark {
+
+	private static final int WIDTH = 1024;
+	private static final int HEIGHT = 768;
+
+	/**
+	 * The number of containers which are repainted for each update.
+	 */
+	private static final int DAMAGED_CONTAINERS = 16;
+
+	@Param({ "1000", "10000", "100000" })
+	public int figures;
+
+	private Display display;
+	private boolean ownsDisplay;
+	private Image image;
+	private GC gc;
+	private BenchmarkUpdateManager updateManager;
+	private IFigure root;
+
+	@Setup
+	public void setUp() {
+		display = Display.getCurrent();
+		if (display == null) {
+			display = new Display();
+			ownsDisplay = true;
+		}
+		image = new Image(display, WIDTH, HEIGHT);
+		gc = new GC(image);
+		updateManager = new BenchmarkUpdateManager();
+		root = Diagrams.createDiagram(figures, new Figure() {
+			@Override
+			public UpdateManager getUpdateManager() {
+				return updateManager;
+			}
+		});
+		root.setOpaque(true);
+		root.setBackgroundColor(ColorConstants.white);
+		root.setForegroundColor(ColorConstants.black);
+		root.setFont(display.getSystemFont());
+		updateManager.setRoot(root);
+		updateManager.setGraphicsSource(new GraphicsSource() {
+			@Override
+			public Graphics getGraphics(Rectangle region) {
+				SWTGraphics graphics = new SWTGraphics(gc);
+				graphics.clipRect(region);
+				return graphics;
+			}
+
+			@Override
+			public void flushGraphics(Rectangle region) {
+				// the image is not shown
+			}
+		});
+		updateManager.performUpdate();
+	}
+
+	@TearDown
+	public void tearDown() {
+		gc.dispose();
+		image.dispose();
+		if (ownsDisplay) {
+			display.dispose();
+		}
+	}
+
+	/**
+	 * Paints the visible part of the diagram.
+	 */
+	@Benchmark
+	public Image paint() {
+		SWTGraphics graphics = new SWTGraphics(gc);
+		graphics.clipRect(new Rectangle(0, 0, WIDTH, HEIGHT));
+		root.paint(graphics);
+		graphics.dispose();
+		return image;
+	}
+
+	/**
+	 * Repaints {@link #DAMAGED_CONTAINERS} containers spread across the diagram
+	 * and revalidates one of them.
+	 */
+	@Benchmark
+	public Image performUpdate() {
+		List<? extends IFigure> containers = root.getChildren();
+		int step = Math.max(1, containers.size() / DAMAGED_CONTAINERS);
+		for (int i = 0; i < containers.size(); i += step) {
+			containers.get(i).repaint();
+		}
+		containers.get(0).revalidate();
+		updateManager.performUpdate();
+		return image;
+	}
+
+	/**
+	 * Performs updates synchronously instead of posting them to the display.
+	 */
+	private static final class BenchmarkUpdateManager extends DeferredUpdateManager {
+		@Override
+		protected void sendUpdateRequest() {
+			// updates are performed by the benchmark
+		}
+	}
+
+}
@@ -0,0 +1,77 @@
+/*******************************************************************************
+ * Copyright (c) 2026 agent and others.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0.
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     agent - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.draw2d.benchmarks;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import org.eclipse.draw2d.geometry.Point;
+import org.eclipse.draw2d.geometry.Rectangle;
+import org.eclipse.draw2d.graph.Path;
+import org.eclipse.draw2d.graph.ShortestPathRouter;
+
+/**
+ * Measures routing connections around obstacles. Routing grows quadratically
+ * with the number of obstacles, so the diagrams are smaller than those of the
+ * figure benchmarks.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+@Fork(1)
+public class RoutingBenchmark {
+
+	@Param({ "100", "1000" })
+	public int obstacles;
+
+	private ShortestPathRouter router;
+
+	/**
+	 * Creates a new router for every invocation, since the router only solves
+	 * paths again which are affected by changes.
+	 */
+	@Setup(Level.Invocation)
+	public void setUp() {
+		Rectangle[] rectangles = Diagrams.createObstacles(obstacles);
+		router = new ShortestPathRouter();
+		for (Rectangle rectangle : rectangles) {
+			router.addObstacle(rectangle);
+		}
+		for (int i = 0; i + 1 < rectangles.length; i += 10) {
+			Point start = rectangles[i].getCenter();
+			Point end = rectangles[rectangles.length - 1 - i].getCenter();
+			router.addPath(new Path(start, end));
+		}
+	}
+
+	@Benchmark
+	public List<Path> solve() {
+		return router.solve();
+	}
+
+}
@@ -18,6 +18,8 @@ import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertTrue;
 
 import java.lang.reflect.Field;
+import java.util.Arrays;
+import java.util.Comparator;
 import java.util.List;
 
 import org.eclipse.draw2d.graph.DirectedGraph;
@@ -92,6 +94,147 @@ public class DirectedGraphLayoutTest {
 		assertEquals(getRank(n3), 0);
 	}
 
+	@Test
+	public void test_arrayRankAssignment() {
+		layout.setArrayRankAssignmentEnabled(true);
+		layout.visit(g);
+
+		assertEquals(getRank(n1), 1);
+		assertEquals(getRank(n2), 2);
+		assertEquals(getRank(n3), 0);
+	}
+
+	@Test
+	public void test_arrayRankAssignmentForest() {
+		Node[] chain = createNodes(4);
+		Node[] pair = createNodes(2);
+		Node heavy = new Node();
+		EdgeList edges = new EdgeList();
+		for (int i = 0; i < 3; i++) {
+			edges.add(new Edge(chain[i], chain[i + 1]));
+		}
+		Edge edge = new Edge(heavy, chain[3]);
+		edge.weight = 5;
+		edges.add(edge);
+		edges.add(new Edge(pair[0], pair[1]));
+
+		DirectedGraph graph = new DirectedGraph();
+		graph.nodes.addAll(List.of(chain));
+		graph.nodes.add(heavy);
+		graph.nodes.addAll(List.of(pair));
+		graph.edges = edges;
+		layout.setArrayRankAssignmentEnabled(true);
+		assertTrue(layout.isArrayRankAssignmentEnabled());
+		layout.visit(graph);
+
+		for (int i = 0; i < 4; i++) {
+			assertEquals(i, getRank(chain[i]));
+		}
+		// the heavy edge is tight and each component starts at rank 0
+		assertEquals(2, getRank(heavy));
+		assertEquals(0, getRank(pair[0]));
+		assertEquals(1, getRank(pair[1]));
+	}
+
+	@Test
+	public void test_relayout() {
+		layout.visit(g);
+		layout.visit(g);
+
+		assertFalse(e1.isFeedback());
+		assertTrue(e2.isFeedback());
+		assertFalse(e3.isFeedback());
+		assertEquals(getRank(n1), 1);
+		assertEquals(getRank(n2), 2);
+		assertEquals(getRank(n3), 0);
+	}
+
+	@Test
+	public void test_incrementalLayout() {
+		Node root = new Node();
+		Node[] children = createNodes(3);
+		DirectedGraph graph = new DirectedGraph();
+		graph.nodes.add(root);
+		graph.nodes.addAll(List.of(children));
+		for (Node child : children) {
+			graph.edges.add(new Edge(root, child));
+		}
+		layout.setIncremental(true);
+		assertTrue(layout.isIncremental());
+		layout.visit(graph);
+		Node[] order = children.clone();
+		Arrays.sort(order, Comparator.comparingInt(node -> node.x));
+
+		Node parent = new Node();
+		Node child = new Node();
+		graph.nodes.add(parent);
+		graph.nodes.add(child);
+		graph.edges.add(new Edge(parent, root));
+		graph.edges.add(new Edge(order[1], child));
+		// forces a previous node down
+		graph.edges.add(new Edge(order[0], order[2]));
+		layout.visit(graph);
+
+		assertEquals(0, getRank(parent));
+		assertEquals(1, getRank(root));
+		assertEquals(2, getRank(order[0]));
+		assertEquals(2, getRank(order[1]));
+		assertEquals(3, getRank(order[2]));
+		assertEquals(3, getRank(child));
+		assertTrue(order[0].x < order[1].x);
+
+		// removing a node must not leave its rank empty
+		List.copyOf(root.incoming).forEach(graph::removeEdge);
+		List.copyOf(root.outgoing).forEach(graph::removeEdge);
+		graph.removeNode(root);
+		layout.visit(graph);
+
+		assertEquals(0, getRank(parent));
+		assertEquals(1, getRank(order[0]));
+		assertEquals(1, getRank(order[1]));
+		assertEquals(2, getRank(order[2]));
+		assertEquals(2, getRank(child));
+		assertTrue(order[0].x < order[1].x);
+	}
+
+	@Test
+	public void test_minimizeCrossings() {
+		Node[] top = createNodes(4);
+		Node[] middle = createNodes(4);
+		Node[] bottom = createNodes(4);
+		EdgeList edges = new EdgeList();
+		for (int i = 0; i < 4; i++) {
+			// each rank reverses the order of the previous one
+			edges.add(new Edge(top[i], middle[3 - i]));
+			edges.add(new Edge(middle[i], bottom[3 - i]));
+		}
+		edges.add(new Edge(top[0], middle[2]));
+		edges.add(new Edge(middle[1], bottom[0]));
+
+		DirectedGraph graph = new DirectedGraph();
+		graph.nodes.addAll(List.of(top));
+		graph.nodes.addAll(List.of(middle));
+		graph.nodes.addAll(List.of(bottom));
+		graph.edges = edges;
+		layout.visit(graph);
+
+		for (Edge e : edges) {
+			for (Edge f : edges) {
+				if (e.source.y == f.source.y && e.source.x < f.source.x) {
+					assertTrue(e + " crosses " + f, e.target.x <= f.target.x);
+				}
+			}
+		}
+	}
+
+	private static Node[] createNodes(int count) {
+		Node[] nodes = new Node[count];
+		for (int i = 0; i < count; i++) {
+			nodes[i] = new Node();
+		}
+		return nodes;
+	}
+
 	private static final int getRank(Node n) {
 		try {
 			Field f = Node.class.getDeclaredField("rank");
@@ -0,0 +1,407 @@
+/*******************************************************************************
+ * Copyright (c) 2026 agent and others.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0.
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     agent - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.draw2d.test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BooleanSupplier;
+
+import org.eclipse.swt.widgets.Display;
+
+import org.eclipse.draw2d.AbstractLayout;
+import org.eclipse.draw2d.DeferredUpdateManager;
+import org.eclipse.draw2d.Figure;
+import org.eclipse.draw2d.FrameRateUpdateScheduler;
+import org.eclipse.draw2d.Graphics;
+import org.eclipse.draw2d.IFigure;
+import org.eclipse.draw2d.UpdateListener;
+import org.eclipse.draw2d.UpdateManager;
+import org.eclipse.draw2d.UpdateProfile;
+import org.eclipse.draw2d.UpdateProfileListener;
+import org.eclipse.draw2d.UpdateScheduler;
+import org.eclipse.draw2d.geometry.Dimension;
+import org.eclipse.draw2d.geometry.Rectangle;
+import org.eclipse.draw2d.test.utils.TestGraphics;
+
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+public class DeferredUpdateManagerTest extends Assert {
+
+	private TestUpdateManager updateManager;
+	private IFigure root;
+
+	@Before
+	public void setUp() {
+		updateManager = new TestUpdateManager();
+		root = new Figure() {
+			@Override
+			public UpdateManager getUpdateManager() {
+				return updateManager;
+			}
+		};
+		root.setBounds(new Rectangle(0, 0, 20000, 20000));
+		updateManager.setRoot(root);
+		flush();
+	}
+
+	private IFigure addChild(Rectangle bounds) {
+		IFigure child = new Figure();
+		child.setBounds(bounds);
+		root.add(child);
+		return child;
+	}
+
+	private void flush() {
+		updateManager.performUpdate();
+		updateManager.painted.clear();
+	}
+
+	@Test
+	public void testSingleDamageRegionByDefault() {
+		updateManager.addDirtyRegion(root, 0, 0, 10, 10);
+		updateManager.addDirtyRegion(root, 19990, 19990, 10, 10);
+		updateManager.performUpdate();
+
+		assertEquals(1, updateManager.painted.size());
+		assertEquals(new Rectangle(0, 0, 20000, 20000), updateManager.painted.get(0));
+	}
+
+	@Test
+	public void testDisjointDamageRegions() {
+		updateManager.setMaxDamageRegions(4);
+		IFigure child = addChild(new Rectangle(19990, 19990, 10, 10));
+		flush();
+		updateManager.addDirtyRegion(root, 0, 0, 10, 10);
+		updateManager.addDirtyRegion(child, child.getBounds());
+		updateManager.performUpdate();
+
+		assertEquals(2, updateManager.painted.size());
+		assertTrue(updateManager.painted.contains(new Rectangle(0, 0, 10, 10)));
+		assertTrue(updateManager.painted.contains(new Rectangle(19990, 19990, 10, 10)));
+	}
+
+	@Test
+	public void testAdjacentDamageRegionsAreMerged() {
+		updateManager.setMaxDamageRegions(4);
+		IFigure child = addChild(new Rectangle(10, 0, 10, 10));
+		flush();
+		updateManager.addDirtyRegion(root, 0, 0, 10, 10);
+		updateManager.addDirtyRegion(child, child.getBounds());
+		updateManager.performUpdate();
+
+		assertEquals(1, updateManager.painted.size());
+		assertEquals(new Rectangle(0, 0, 20, 10), updateManager.painted.get(0));
+	}
+
+	@Test
+	public void testDamageRegionLimit() {
+		updateManager.setMaxDamageRegions(2);
+		for (int i = 0; i < 3; i++) {
+			addChild(new Rectangle(i * 1000, 0, 10, 10));
+		}
+		flush();
+		root.getChildren().forEach(IFigure::repaint);
+		updateManager.performUpdate();
+
+		assertEquals(2, updateManager.painted.size());
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void testInvalidDamageRegionLimit() {
+		updateManager.setMaxDamageRegions(0);
+	}
+
+	@Test
+	public void testInvalidFigureQueuedOnce() {
+		LayoutCounter layout = new LayoutCounter();
+		root.setLayoutManager(layout);
+		updateManager.addInvalidFigure(root);
+		updateManager.addInvalidFigure(root);
+		root.invalidate();
+		updateManager.performValidation();
+
+		assertEquals(1, layout.count);
+	}
+
+	@Test
+	public void testDescendantValidatedAfterAncestor() {
+		IFigure child = new Figure();
+		child.setLayoutManager(new LayoutCounter());
+		IFigure grandChild = new Figure() {
+			@Override
+			public boolean isValidationRoot() {
+				return true;
+			}
+		};
+		LayoutCounter grandChildLayout = new LayoutCounter();
+		grandChild.setLayoutManager(grandChildLayout);
+		child.add(grandChild);
+		root.setLayoutManager(new LayoutCounter());
+		root.add(child);
+		updateManager.performValidation();
+		grandChildLayout.count = 0;
+
+		// the grand child is queued first, but resized by the layout of its parent
+		grandChild.revalidate();
+		child.revalidate();
+		updateManager.performValidation();
+
+		assertEquals(1, grandChildLayout.count);
+	}
+
+	@Test
+	public void testUpdateScheduler() {
+		List<Runnable> scheduled = new ArrayList<>();
+		int[] notification = new int[2];
+		DeferredUpdateManager manager = new DeferredUpdateManager();
+		manager.setRoot(root);
+		manager.setUpdateScheduler(new UpdateScheduler() {
+			@Override
+			public void scheduleUpdate(Runnable update) {
+				scheduled.add(update);
+			}
+
+			@Override
+			public int getDroppedFrames() {
+				return 2;
+			}
+		});
+		manager.addUpdateListener(new UpdateListener() {
+			@Override
+			public void notifyPainting(Rectangle damage, Map<IFigure, Rectangle> dirtyRegions) {
+			}
+
+			@Override
+			public void notifyValidating() {
+			}
+
+			@Override
+			public void notifyUpdatePerformed(int mergedRequests, int droppedFrames) {
+				notification[0] = mergedRequests;
+				notification[1] = droppedFrames;
+			}
+		});
+		for (int i = 0; i < 4; i++) {
+			manager.addDirtyRegion(root, i * 10, 0, 10, 10);
+		}
+
+		assertEquals(1, scheduled.size());
+		scheduled.get(0).run();
+		assertArrayEquals(new int[] { 3, 2 }, notification);
+
+		manager.addDirtyRegion(root, 0, 0, 10, 10);
+		assertEquals(2, scheduled.size());
+		// schedulers can keep state for each update manager
+		assertSame(scheduled.get(0), scheduled.get(1));
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void testInvalidFrameRate() {
+		new FrameRateUpdateScheduler(0);
+	}
+
+	@Test
+	public void testFrameRateLimit() {
+		UpdateCounter counter = new UpdateCounter();
+		DeferredUpdateManager manager = createScheduledManager(counter);
+		long end = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(500);
+		while (System.nanoTime() < end) {
+			manager.addDirtyRegion(root, 0, 0, 10, 10);
+			Display.getCurrent().readAndDispatch();
+		}
+
+		// one immediate frame and at most one for each elapsed frame interval
+		assertTrue(counter.updates >= 2);
+		assertTrue(counter.updates <= 6);
+	}
+
+	@Test
+	public void testDroppedFramesAreMergedRequests() {
+		UpdateCounter counter = new UpdateCounter();
+		DeferredUpdateManager manager = createScheduledManager(counter);
+		manager.addDirtyRegion(root, 0, 0, 10, 10);
+		runEventLoop(() -> counter.updates == 1);
+		assertEquals(0, counter.droppedFrames);
+
+		// the next frame is held back, so further requests are dropped frames
+		for (int i = 0; i < 3; i++) {
+			manager.addDirtyRegion(root, i * 10, 0, 10, 10);
+		}
+		runEventLoop(() -> counter.updates == 2);
+		assertEquals(2, counter.mergedRequests);
+		assertEquals(2, counter.droppedFrames);
+	}
+
+	@Test
+	public void testDirectUpdateDiscardsScheduledFrame() {
+		UpdateCounter counter = new UpdateCounter();
+		DeferredUpdateManager manager = createScheduledManager(counter);
+		manager.addDirtyRegion(root, 0, 0, 10, 10);
+		runEventLoop(() -> counter.updates == 1);
+		manager.addDirtyRegion(root, 0, 0, 10, 10);
+		manager.performUpdate();
+		assertEquals(2, counter.updates);
+
+		long end = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(300);
+		runEventLoop(() -> System.nanoTime() > end);
+		assertEquals(2, counter.updates);
+	}
+
+	private DeferredUpdateManager createScheduledManager(UpdateListener listener) {
+		Display.getDefault();
+		DeferredUpdateManager manager = new DeferredUpdateManager();
+		manager.setRoot(root);
+		manager.setUpdateScheduler(new FrameRateUpdateScheduler(10));
+		manager.addUpdateListener(listener);
+		return manager;
+	}
+
+	private static void runEventLoop(BooleanSupplier condition) {
+		Display display = Display.getCurrent();
+		long timeout = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+		while (!condition.getAsBoolean()) {
+			assertTrue("Timed out waiting for the event loop", System.nanoTime() < timeout); //$NON-NLS-1$
+			if (!display.readAndDispatch()) {
+				Thread.yield();
+			}
+		}
+	}
+
+	@Test
+	public void testUpdateProfile() {
+		List<UpdateProfile> profiles = new ArrayList<>();
+		UpdateProfileListener listener = profiles::add;
+		IFigure child = addChild(new Rectangle(0, 0, 10, 10));
+		flush();
+		updateManager.addProfileListener(listener);
+		root.invalidate();
+		child.revalidate();
+		updateManager.performUpdate();
+
+		assertEquals(1, profiles.size());
+		assertEquals(2, profiles.get(0).getValidatedFigures());
+		assertTrue(profiles.get(0).getValidationTime() >= 0);
+
+		updateManager.removeProfileListener(listener);
+		child.revalidate();
+		updateManager.performUpdate();
+		assertEquals(1, profiles.size());
+	}
+
+	@Test
+	public void testUpdateProfileIgnoresOtherUpdateManagers() {
+		TestUpdateManager otherManager = new TestUpdateManager();
+		IFigure otherRoot = new Figure() {
+			@Override
+			public UpdateManager getUpdateManager() {
+				return otherManager;
+			}
+		};
+		otherManager.setRoot(otherRoot);
+		LayoutCounter otherLayout = new LayoutCounter();
+		otherRoot.setLayoutManager(otherLayout);
+		otherRoot.add(new Figure());
+		// validates and paints the other root while this update manager is profiled
+		IFigure child = new Figure() {
+			@Override
+			public void validate() {
+				otherManager.performValidation();
+				super.validate();
+			}
+
+			@Override
+			protected void paintFigure(Graphics graphics) {
+				otherRoot.paint(new TestGraphics(new Rectangle(0, 0, 10, 10)));
+			}
+		};
+		List<UpdateProfile> profiles = new ArrayList<>();
+		updateManager.addProfileListener(profiles::add);
+		updateManager.paint = true;
+		root.add(child);
+		child.setBounds(new Rectangle(0, 0, 10, 10));
+		updateManager.performUpdate();
+
+		assertEquals(1, otherLayout.count);
+		assertEquals(1, profiles.size());
+		UpdateProfile profile = profiles.get(0);
+		assertEquals(2, profile.getValidatedFigures());
+		assertTrue(profile.getPaintTimes().containsKey(child.getClass()));
+		assertFalse(profile.getPaintTimes().containsKey(otherRoot.getClass()));
+	}
+
+	/**
+	 * Counts layouts and resizes all children on every layout.
+	 */
+	private static class LayoutCounter extends AbstractLayout {
+
+		private int count;
+
+		@Override
+		public void layout(IFigure container) {
+			count++;
+			container.getChildren().forEach(child -> child.setBounds(new Rectangle(0, 0, count, count)));
+		}
+
+		@Override
+		protected Dimension calculatePreferredSize(IFigure container, int wHint, int hHint) {
+			return new Dimension();
+		}
+	}
+
+	private static class UpdateCounter implements UpdateListener {
+		int updates;
+		int mergedRequests;
+		int droppedFrames;
+
+		@Override
+		public void notifyPainting(Rectangle damage, Map<IFigure, Rectangle> dirtyRegions) {
+		}
+
+		@Override
+		public void notifyValidating() {
+		}
+
+		@Override
+		public void notifyUpdatePerformed(int mergedRequests, int droppedFrames) {
+			updates++;
+			this.mergedRequests = mergedRequests;
+			this.droppedFrames = droppedFrames;
+		}
+	}
+
+	private static class TestUpdateManager extends DeferredUpdateManager {
+
+		private final List<Rectangle> painted = new ArrayList<>();
+		private boolean paint;
+
+		@Override
+		protected Graphics getGraphics(Rectangle region) {
+			painted.add(new Rectangle(region));
+			return paint ? new TestGraphics(region) : null;
+		}
+
+		@Override
+		protected void releaseGraphics(Graphics graphics) {
+			graphics.dispose();
+		}
+
+		@Override
+		protected void sendUpdateRequest() {
+			// updates are performed explicitly
+		}
+	}
+}
@@ -26,7 +26,9 @@ import org.junit.runners.Suite;
 @RunWith(Suite.class)
 @Suite.SuiteClasses({
 	FanRouterTest.class,
+	ManhattanConnectionRouterTest.class,
 	ShortestPathRoutingTest.class,
+	ShortestPathConnectionRouterTest.class,
 	XYLayoutTest.class,
 	TextFlowWrapTest.class,
 	LocalOptimizerTest.class,
@@ -59,7 +61,11 @@ import org.junit.runners.Suite;
 	LayerTest.class,
 	ShapeTest.class,
 	InsetsTest.class,
-	DirectedGraphLayoutTest.class
+	DirectedGraphLayoutTest.class,
+	DeferredUpdateManagerTest.class,
+	FigureChildIndexTest.class,
+	HitTestContextTest.class,
+	ViewportTest.class
 })
 public class Draw2dTestSuite {
 }
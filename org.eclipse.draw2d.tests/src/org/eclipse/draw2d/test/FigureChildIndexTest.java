@@ -0,0 +1,194 @@
+/*******************************************************************************
+ * Copyright (c) 2026 agent and others.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0.
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     agent - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.draw2d.test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import org.eclipse.draw2d.Figure;
+import org.eclipse.draw2d.FreeformLayer;
+import org.eclipse.draw2d.Graphics;
+import org.eclipse.draw2d.IFigure;
+import org.eclipse.draw2d.Layer;
+import org.eclipse.draw2d.MouseListener;
+import org.eclipse.draw2d.geometry.Point;
+import org.eclipse.draw2d.geometry.Rectangle;
+import org.eclipse.draw2d.test.utils.TestGraphics;
+
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+public class FigureChildIndexTest extends Assert {
+
+	private FreeformLayer layer;
+
+	@Before
+	public void setUp() {
+		layer = new FreeformLayer();
+		layer.setBounds(new Rectangle(-5000, -5000, 10000, 10000));
+		layer.setChildIndexEnabled(true);
+	}
+
+	private IFigure addChild(int x, int y, int w, int h) {
+		IFigure child = new Figure();
+		child.setBounds(new Rectangle(x, y, w, h));
+		layer.add(child);
+		return child;
+	}
+
+	@Test
+	public void testFindFigureAt() {
+		for (int i = 0; i < 100; i++) {
+			addChild(i * 40, i * 40, 30, 30);
+		}
+		IFigure negative = addChild(-1000, -1000, 30, 30);
+
+		assertSame(layer.getChildren().get(10), layer.findFigureAt(405, 405));
+		assertSame(negative, layer.findFigureAt(-990, -990));
+		assertNull(layer.findFigureAt(435, 435));
+		IFigure target = layer.getChildren().get(99);
+		target.addMouseListener(new MouseListener.Stub());
+		assertSame(target, layer.findMouseEventTargetAt(3970, 3970));
+		assertNull(layer.findMouseEventTargetAt(3930, 3930));
+	}
+
+	@Test
+	public void testZOrder() {
+		IFigure bottom = addChild(0, 0, 100, 100);
+		IFigure huge = addChild(-4000, -4000, 8000, 8000);
+		IFigure top = addChild(50, 50, 100, 100);
+
+		assertSame(top, layer.findFigureAt(75, 75));
+		assertSame(huge, layer.findFigureAt(25, 25));
+		layer.remove(huge);
+		assertSame(bottom, layer.findFigureAt(25, 25));
+		layer.add(huge, 0);
+		assertSame(bottom, layer.findFigureAt(25, 25));
+		layer.remove(top);
+		layer.add(top, 0);
+		assertSame(bottom, layer.findFigureAt(75, 75));
+	}
+
+	@Test
+	public void testChildMoved() {
+		IFigure child = addChild(0, 0, 10, 10);
+		child.setBounds(new Rectangle(1000, 1000, 10, 10));
+
+		assertNull(layer.findFigureAt(5, 5));
+		assertSame(child, layer.findFigureAt(1005, 1005));
+		child.setVisible(false);
+		assertNull(layer.findFigureAt(1005, 1005));
+	}
+
+	@Test
+	public void testManyChildrenMoved() {
+		Random random = new Random(0);
+		for (int i = 0; i < 300; i++) {
+			addChild(random.nextInt(8000) - 4000, random.nextInt(8000) - 4000, 20 + random.nextInt(300), 20);
+		}
+		// moving the children empties cells and shifts the remaining ones
+		for (int round = 0; round < 3; round++) {
+			for (IFigure child : layer.getChildren()) {
+				child.setLocation(new Point(random.nextInt(8000) - 4000, random.nextInt(8000) - 4000));
+			}
+			for (IFigure child : layer.getChildren()) {
+				Point center = child.getBounds().getCenter();
+				assertSame(findTopmostChild(center.x, center.y), layer.findFigureAt(center.x, center.y));
+				int x = random.nextInt(8000) - 4000;
+				int y = random.nextInt(8000) - 4000;
+				assertSame(findTopmostChild(x, y), layer.findFigureAt(x, y));
+			}
+		}
+	}
+
+	private IFigure findTopmostChild(int x, int y) {
+		List<? extends IFigure> children = layer.getChildren();
+		for (int i = children.size() - 1; i >= 0; i--) {
+			if (children.get(i).containsPoint(x, y)) {
+				return children.get(i);
+			}
+		}
+		return null;
+	}
+
+	@Test
+	public void testNestedIndexes() {
+		IFigure below = addChild(0, 0, 100, 100);
+		below.addMouseListener(new MouseListener.Stub());
+		Layer inner = new Layer();
+		inner.setBounds(new Rectangle(0, 0, 100, 100));
+		inner.setChildIndexEnabled(true);
+		layer.add(inner);
+		IFigure nested = new Figure();
+		nested.setBounds(new Rectangle(80, 80, 10, 10));
+		nested.addMouseListener(new MouseListener.Stub());
+		inner.add(nested);
+
+		assertSame(nested, layer.findFigureAt(85, 85));
+		assertSame(below, layer.findFigureAt(50, 50));
+		assertSame(nested, layer.findMouseEventTargetAt(85, 85));
+		assertSame(below, layer.findMouseEventTargetAt(50, 50));
+	}
+
+	@Test
+	public void testPaintChildren() {
+		List<IFigure> painted = new ArrayList<>();
+		IFigure bottom = addPaintedChild(0, 0, 60, 60, painted);
+		IFigure outside = addPaintedChild(500, 500, 10, 10, painted);
+		IFigure partial = addPaintedChild(-30, -30, 40, 40, painted);
+		IFigure hidden = addPaintedChild(10, 10, 10, 10, painted);
+		hidden.setVisible(false);
+		IFigure top = addPaintedChild(40, 40, 60, 60, painted);
+		IFigure huge = addPaintedChild(-4000, -4000, 8000, 8000, painted);
+		// touches the clip without intersecting it
+		addPaintedChild(100, 0, 10, 10, painted);
+
+		for (boolean enabled : new boolean[] { true, false }) {
+			layer.setChildIndexEnabled(enabled);
+			painted.clear();
+			layer.paint(new TestGraphics(new Rectangle(0, 0, 100, 100)));
+			assertEquals(List.of(bottom, partial, top, huge), painted);
+
+			painted.clear();
+			layer.paint(new TestGraphics(new Rectangle(495, 495, 300, 300)));
+			assertEquals(List.of(outside, huge), painted);
+		}
+	}
+
+	private IFigure addPaintedChild(int x, int y, int w, int h, List<IFigure> painted) {
+		IFigure child = new Figure() {
+			@Override
+			protected void paintFigure(Graphics graphics) {
+				painted.add(this);
+			}
+		};
+		child.setBounds(new Rectangle(x, y, w, h));
+		layer.add(child);
+		return child;
+	}
+
+	@Test
+	public void testEnableWithExistingChildren() {
+		layer.setChildIndexEnabled(false);
+		IFigure child = addChild(300, 300, 10, 10);
+		layer.setChildIndexEnabled(true);
+
+		assertTrue(layer.isChildIndexEnabled());
+		assertSame(child, layer.findFigureAt(305, 305));
+		layer.setChildIndexEnabled(false);
+		assertSame(child, layer.findFigureAt(305, 305));
+	}
+
+}
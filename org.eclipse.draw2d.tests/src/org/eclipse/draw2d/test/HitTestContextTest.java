@@ -0,0 +1,92 @@
+/*******************************************************************************
+ * Copyright (c) 2026 agent and others.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0.
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     agent - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.draw2d.test;
+
+import java.util.Collections;
+
+import org.eclipse.draw2d.Figure;
+import org.eclipse.draw2d.HitTestContext;
+import org.eclipse.draw2d.IFigure;
+import org.eclipse.draw2d.TreeSearch;
+import org.eclipse.draw2d.geometry.Rectangle;
+
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+public class HitTestContextTest extends Assert {
+
+	private IFigure root;
+	private IFigure container;
+	private IFigure child;
+
+	@Before
+	public void setUp() {
+		root = new Figure();
+		root.setBounds(new Rectangle(0, 0, 500, 500));
+		container = new Figure() {
+			@Override
+			protected boolean useLocalCoordinates() {
+				return true;
+			}
+		};
+		container.setBounds(new Rectangle(100, 100, 200, 200));
+		child = new Figure();
+		child.setBounds(new Rectangle(10, 10, 20, 20));
+		container.add(child);
+		root.add(container);
+	}
+
+	@Test
+	public void testFindFigureAt() {
+		HitTestContext context = new HitTestContext();
+		TreeSearch all = new TreeSearch() {
+			@Override
+			public boolean accept(IFigure figure) {
+				return true;
+			}
+
+			@Override
+			public boolean prune(IFigure figure) {
+				return false;
+			}
+		};
+
+		assertSame(child, context.findFigureAt(root, 115, 115, Collections.emptySet(), all));
+		assertSame(container, context.findFigureAt(root, 150, 150, Collections.emptySet(), all));
+		assertSame(container, context.findFigureAt(root, 115, 115, Collections.singleton(child), all));
+		assertSame(root, context.findFigureAt(root, 115, 115, Collections.singleton(container), all));
+		assertSame(child, root.findFigureAt(115, 115));
+	}
+
+	@Test
+	public void testDelegateSearch() {
+		HitTestContext context = new HitTestContext();
+		TreeSearch containersOnly = new TreeSearch() {
+			@Override
+			public boolean accept(IFigure figure) {
+				return !figure.getChildren().isEmpty();
+			}
+
+			@Override
+			public boolean prune(IFigure figure) {
+				return false;
+			}
+		};
+
+		assertSame(container, context.findFigureAt(root, 115, 115, Collections.emptySet(), containersOnly));
+		assertFalse(context.prune(child));
+		assertTrue(context.accept(child));
+	}
+
+}
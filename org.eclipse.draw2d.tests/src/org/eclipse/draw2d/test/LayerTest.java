@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2009 IBM Corporation and others.
+ * Copyright (c) 2009, 2026 IBM Corporation and others.
  *
  * This program and the accompanying materials are made available under the
  * terms of the Eclipse Public License 2.0 which is available at
@@ -12,9 +12,23 @@
  *******************************************************************************/
 package org.eclipse.draw2d.test;
 
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.eclipse.swt.graphics.Image;
+import org.eclipse.swt.widgets.Display;
+
+import org.eclipse.draw2d.DeferredUpdateManager;
 import org.eclipse.draw2d.Figure;
+import org.eclipse.draw2d.Graphics;
+import org.eclipse.draw2d.IFigure;
 import org.eclipse.draw2d.Layer;
+import org.eclipse.draw2d.UpdateManager;
+import org.eclipse.draw2d.geometry.Point;
 import org.eclipse.draw2d.geometry.Rectangle;
+import org.eclipse.draw2d.test.utils.TestGraphics;
 
 import org.junit.Assert;
 import org.junit.Test;
@@ -47,6 +61,147 @@ public class LayerTest extends Assert {
 		assertEquals(true, layer.containsPoint(60, 60));
 	}
 
+	@Test
+	public void testCachedLayerForwardsDamage() {
+		List<IFigure> dirtyFigures = new ArrayList<>();
+		DeferredUpdateManager updateManager = new DeferredUpdateManager() {
+			@Override
+			public synchronized void addDirtyRegion(IFigure figure, int x, int y, int w, int h) {
+				dirtyFigures.add(figure);
+			}
+
+			@Override
+			protected void sendUpdateRequest() {
+				// updates are not performed
+			}
+		};
+		Figure root = new Figure() {
+			@Override
+			public UpdateManager getUpdateManager() {
+				return updateManager;
+			}
+		};
+		Layer layer = new Layer();
+		root.add(layer);
+		layer.setCached(true);
+		Figure child = new Figure();
+		child.setBounds(new Rectangle(10, 10, 30, 30));
+		layer.add(child);
+		dirtyFigures.clear();
+
+		assertTrue(layer.isCached());
+		child.repaint();
+		assertEquals(List.of(child), dirtyFigures);
+		layer.setCached(false);
+		assertSame(updateManager, child.getUpdateManager());
+	}
+
+	@Test
+	public void testCachedLayerInvalidatesDamagedTile() {
+		Display.getDefault();
+		Map<IFigure, Integer> paints = new HashMap<>();
+		Layer layer = new Layer();
+		layer.setBounds(new Rectangle(0, 0, 1024, 1024));
+		layer.setCached(true);
+		IFigure[][] tiles = new IFigure[2][2];
+		for (int tx = 0; tx < 2; tx++) {
+			for (int ty = 0; ty < 2; ty++) {
+				// each child lies within a single tile
+				tiles[tx][ty] = addCountingChild(layer, new Rectangle(tx * 256 + 8, ty * 256 + 8, 240, 240), paints);
+			}
+		}
+
+		Map<Point, Image> images = new HashMap<>();
+		layer.paint(new ImageRecorder(new Rectangle(0, 0, 512, 512), images));
+		assertEquals(4, images.size());
+		for (IFigure child : layer.getChildren()) {
+			assertEquals(Integer.valueOf(1), paints.get(child));
+		}
+
+		// clean tiles are drawn without painting the children again
+		Map<Point, Image> repainted = new HashMap<>();
+		layer.paint(new ImageRecorder(new Rectangle(0, 0, 512, 512), repainted));
+		assertEquals(images, repainted);
+		for (IFigure child : layer.getChildren()) {
+			assertEquals(Integer.valueOf(1), paints.get(child));
+		}
+
+		// damage within one tile only discards that tile
+		tiles[1][0].repaint(266, 10, 20, 20);
+		Image damaged = images.get(new Point(256, 0));
+		assertTrue(damaged.isDisposed());
+		images.forEach((location, image) -> assertEquals(image == damaged, image.isDisposed()));
+		repainted.clear();
+		layer.paint(new ImageRecorder(new Rectangle(0, 0, 512, 512), repainted));
+		assertEquals(Integer.valueOf(2), paints.get(tiles[1][0]));
+		assertEquals(Integer.valueOf(1), paints.get(tiles[0][0]));
+		assertEquals(Integer.valueOf(1), paints.get(tiles[0][1]));
+		assertEquals(Integer.valueOf(1), paints.get(tiles[1][1]));
+		assertNotSame(damaged, repainted.get(new Point(256, 0)));
+		assertSame(images.get(new Point(0, 0)), repainted.get(new Point(0, 0)));
+
+		layer.setCached(false);
+		repainted.values().forEach(image -> assertTrue(image.isDisposed()));
+	}
+
+	@Test
+	public void testCachedLayerReleasesTiles() {
+		Display.getDefault();
+		Figure root = new Figure();
+		root.addNotify();
+		Layer layer = new Layer();
+		// more tiles than are kept in memory
+		layer.setBounds(new Rectangle(0, 0, 17 * 256, 16 * 256));
+		root.add(layer);
+		layer.setCached(true);
+		addCountingChild(layer, new Rectangle(0, 0, 10, 10), new HashMap<>());
+
+		List<Image> images = new ArrayList<>();
+		layer.paint(new TestGraphics(layer.getBounds()) {
+			@Override
+			public void drawImage(Image srcImage, int x1, int y1, int w1, int h1, int x2, int y2, int w2, int h2) {
+				images.add(srcImage);
+			}
+		});
+		assertEquals(17 * 16, images.size());
+		// the least recently used tiles are evicted
+		for (int i = 0; i < images.size(); i++) {
+			assertEquals(i < images.size() - 256, images.get(i).isDisposed());
+		}
+
+		root.remove(layer);
+		images.forEach(image -> assertTrue(image.isDisposed()));
+	}
+
+	private static IFigure addCountingChild(IFigure parent, Rectangle bounds, Map<IFigure, Integer> paints) {
+		IFigure child = new Figure() {
+			@Override
+			protected void paintFigure(Graphics graphics) {
+				paints.merge(this, Integer.valueOf(1), Integer::sum);
+			}
+		};
+		child.setBounds(bounds);
+		parent.add(child);
+		return child;
+	}
+
+	/**
+	 * Records the cached images drawn by a layer by their location.
+	 */
+	static class ImageRecorder extends TestGraphics {
+		private final Map<Point, Image> images;
+
+		ImageRecorder(Rectangle clip, Map<Point, Image> images) {
+			super(clip);
+			this.images = images;
+		}
+
+		@Override
+		public void drawImage(Image srcImage, int x1, int y1, int w1, int h1, int x2, int y2, int w2, int h2) {
+			images.put(new Point(x2, y2), srcImage);
+		}
+	}
+
 	public class MyLayer extends Layer {
 
 		@Override
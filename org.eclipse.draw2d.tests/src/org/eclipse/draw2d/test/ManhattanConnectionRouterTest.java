@@ -0,0 +1,158 @@
+/*******************************************************************************
+ * Copyright (c) 2026 agent and others.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0.
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     agent - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.draw2d.test;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertSame;
+
+import java.util.List;
+
+import org.eclipse.draw2d.Connection;
+import org.eclipse.draw2d.ConnectionLayer;
+import org.eclipse.draw2d.ManhattanConnectionRouter;
+import org.eclipse.draw2d.PolylineConnection;
+import org.eclipse.draw2d.RoutingListener;
+import org.eclipse.draw2d.XYAnchor;
+import org.eclipse.draw2d.geometry.Point;
+import org.eclipse.draw2d.geometry.PointList;
+
+import org.junit.Before;
+import org.junit.Test;
+
+public class ManhattanConnectionRouterTest {
+	private static final int[] ROUTE = { 0, 0, 0, 10, 100, 10, 100, 50 };
+
+	ManhattanConnectionRouter router;
+	Connection connection1;
+	Connection connection2;
+
+	@Before
+	public void setUp() {
+		connection1 = createConnection();
+		connection2 = createConnection();
+		router = new ManhattanConnectionRouter();
+	}
+
+	private static Connection createConnection() {
+		Connection connection = new PolylineConnection();
+		connection.setSourceAnchor(new XYAnchor(new Point(0, 0)));
+		connection.setTargetAnchor(new XYAnchor(new Point(100, 50)));
+		return connection;
+	}
+
+	/**
+	 * Connections between the same points must not share their middle segment.
+	 */
+	@Test
+	public void testReservedRows() {
+		router.route(connection1);
+		router.route(connection2);
+
+		assertArrayEquals(ROUTE, connection1.getPoints().toIntArray());
+		assertEquals(4, connection2.getPoints().size());
+		assertNotEquals(connection1.getPoints().getPoint(1).y, connection2.getPoints().getPoint(1).y);
+
+		router.remove(connection1);
+		router.invalidate(connection2);
+		router.route(connection2);
+		assertArrayEquals(ROUTE, connection2.getPoints().toIntArray());
+	}
+
+	/**
+	 * Routing a connection again writes the route into its existing point list.
+	 */
+	@Test
+	public void testRouteReusesPoints() {
+		router.route(connection1);
+		PointList points = connection1.getPoints();
+
+		router.invalidate(connection1);
+		router.route(connection1);
+		assertSame(points, connection1.getPoints());
+		assertArrayEquals(ROUTE, points.toIntArray());
+	}
+
+	/**
+	 * With the route cache enabled, an invalidated connection keeps its route
+	 * until its anchors move.
+	 */
+	@Test
+	public void testRouteCache() {
+		router.setRouteCacheEnabled(true);
+		router.route(connection1);
+		router.route(connection2);
+		int[] points2 = connection2.getPoints().toIntArray();
+
+		// the row of connection1 would now be available
+		router.remove(connection1);
+		router.invalidate(connection2);
+		router.route(connection2);
+		assertArrayEquals(points2, connection2.getPoints().toIntArray());
+
+		((XYAnchor) connection2.getTargetAnchor()).setLocation(new Point(100, 60));
+		router.invalidate(connection2);
+		router.route(connection2);
+		assertArrayEquals(new int[] { 0, 0, 0, 10, 100, 10, 100, 60 }, connection2.getPoints().toIntArray());
+	}
+
+	/**
+	 * Connections routed as a batch are not routed again until they are
+	 * invalidated.
+	 */
+	@Test
+	public void testRouteAll() {
+		router.routeAll(List.of(connection1, connection2));
+		int[] points1 = connection1.getPoints().toIntArray();
+		int[] points2 = connection2.getPoints().toIntArray();
+		assertArrayEquals(ROUTE, points1);
+
+		// the routes computed by routeAll() are kept
+		router.route(connection1);
+		router.route(connection2);
+		assertArrayEquals(points1, connection1.getPoints().toIntArray());
+		assertArrayEquals(points2, connection2.getPoints().toIntArray());
+
+		router.invalidate(connection1);
+		router.invalidate(connection2);
+		router.route(connection1);
+		router.route(connection2);
+		assertArrayEquals(points1, connection1.getPoints().toIntArray());
+		assertArrayEquals(points2, connection2.getPoints().toIntArray());
+	}
+
+	/**
+	 * Connections with routing listeners are not routed as a batch, so that the
+	 * listeners can take over their routing.
+	 */
+	@Test
+	public void testRouteAllSkipsRoutingListeners() {
+		((PolylineConnection) connection1).addRoutingListener(new RoutingListener.Stub() {
+			@Override
+			public boolean route(Connection connection) {
+				// e.g. an animation showing an intermediate route
+				return true;
+			}
+		});
+		ConnectionLayer layer = new ConnectionLayer();
+		layer.setConnectionRouter(router);
+		layer.add(connection1);
+		layer.add(connection2);
+		layer.validate();
+
+		// the listener has consumed the routing of connection1
+		assertEquals(2, connection1.getPoints().size());
+		assertArrayEquals(ROUTE, connection2.getPoints().toIntArray());
+	}
+}
@@ -0,0 +1,227 @@
+/*******************************************************************************
+ * Copyright (c) 2026 agent and others.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0.
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     agent - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.draw2d.test;
+
+import java.lang.reflect.Field;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+
+import org.eclipse.swt.layout.FillLayout;
+import org.eclipse.swt.widgets.Display;
+import org.eclipse.swt.widgets.Shell;
+
+import org.eclipse.draw2d.ChopboxAnchor;
+import org.eclipse.draw2d.Connection;
+import org.eclipse.draw2d.ConnectionLayer;
+import org.eclipse.draw2d.Figure;
+import org.eclipse.draw2d.FigureCanvas;
+import org.eclipse.draw2d.FreeformLayer;
+import org.eclipse.draw2d.FreeformLayout;
+import org.eclipse.draw2d.IFigure;
+import org.eclipse.draw2d.LayeredPane;
+import org.eclipse.draw2d.PolylineConnection;
+import org.eclipse.draw2d.RectangleFigure;
+import org.eclipse.draw2d.ShortestPathConnectionRouter;
+import org.eclipse.draw2d.StackLayout;
+import org.eclipse.draw2d.geometry.PointList;
+import org.eclipse.draw2d.geometry.Rectangle;
+import org.eclipse.draw2d.graph.ShortestPathRouter;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+public class ShortestPathConnectionRouterTest extends BaseTestCase {
+
+	private Shell shell;
+	private IFigure contents;
+	private IFigure obstacle;
+	private PolylineConnection conn;
+	private ShortestPathConnectionRouter router;
+
+	@Before
+	public void setUp() throws Exception {
+		shell = new Shell(Display.getDefault());
+		shell.setLayout(new FillLayout());
+		FigureCanvas fc = new FigureCanvas(shell);
+		fc.setSize(400, 200);
+
+		LayeredPane pane = new LayeredPane();
+		IFigure primary = new FreeformLayer();
+		primary.setLayoutManager(new FreeformLayout());
+		ConnectionLayer connections = new ConnectionLayer();
+		pane.add(primary);
+		pane.add(connections);
+
+		IFigure source = createNode(primary, new Rectangle(10, 60, 40, 40));
+		IFigure target = createNode(primary, new Rectangle(300, 60, 40, 40));
+		obstacle = createNode(primary, new Rectangle(150, 20, 40, 120));
+
+		router = new ShortestPathConnectionRouter(primary);
+		router.setExecutor(Runnable::run);
+		connections.setConnectionRouter(router);
+
+		conn = new PolylineConnection();
+		conn.setSourceAnchor(new ChopboxAnchor(source));
+		conn.setTargetAnchor(new ChopboxAnchor(target));
+		connections.add(conn);
+
+		contents = new Figure();
+		contents.setLayoutManager(new StackLayout());
+		contents.add(pane);
+		fc.setContents(contents);
+		shell.open();
+	}
+
+	@After
+	public void tearDown() throws Exception {
+		shell.dispose();
+	}
+
+	@Test
+	public void testBackgroundRouting() {
+		contents.getUpdateManager().performUpdate();
+		// straight placeholder until the result has been applied
+		assertEquals(2, conn.getPoints().size());
+
+		waitEventLoop(shell, 100);
+		contents.getUpdateManager().performUpdate();
+		assertTrue(conn.getPoints().size() > 2);
+		assertFalse(conn.getPoints().intersects(obstacle.getBounds()));
+	}
+
+	@Test
+	public void testObstacleMoved() {
+		contents.getUpdateManager().performUpdate();
+		waitEventLoop(shell, 100);
+		contents.getUpdateManager().performUpdate();
+		assertTrue(conn.getPoints().size() > 2);
+
+		// the route is kept while the new one is computed
+		obstacle.setBounds(new Rectangle(150, 150, 40, 40));
+		contents.getUpdateManager().performUpdate();
+		assertTrue(conn.getPoints().size() > 2);
+
+		waitEventLoop(shell, 100);
+		contents.getUpdateManager().performUpdate();
+		assertEquals(2, conn.getPoints().size());
+	}
+
+	@Test
+	public void testSynchronousRouting() {
+		router.setExecutor(null);
+		contents.getUpdateManager().performUpdate();
+		assertTrue(conn.getPoints().size() > 2);
+		assertFalse(conn.getPoints().intersects(obstacle.getBounds()));
+	}
+
+	@Test
+	public void testSpacingChanged() {
+		router.setExecutor(null);
+		router.setRouteCacheEnabled(true);
+		contents.getUpdateManager().performUpdate();
+		assertTrue(conn.getPoints().intersects(obstacle.getBounds().getExpanded(19, 19)));
+
+		router.setSpacing(20);
+		contents.getUpdateManager().performUpdate();
+		assertFalse(conn.getPoints().intersects(obstacle.getBounds().getExpanded(19, 19)));
+	}
+
+	@Test
+	public void testStaleResultDiscarded() {
+		Queue<Runnable> tasks = new ArrayDeque<>();
+		router.setExecutor(tasks::add);
+		contents.getUpdateManager().performUpdate();
+		assertEquals(1, tasks.size());
+		// the first problem is solved, but its result is not applied yet
+		tasks.remove().run();
+
+		obstacle.setBounds(new Rectangle(150, 150, 40, 40));
+		contents.getUpdateManager().performUpdate();
+		assertEquals(1, tasks.size());
+		tasks.remove().run();
+
+		List<PointList> applied = new ArrayList<>();
+		conn.addPropertyChangeListener(Connection.PROPERTY_POINTS, e -> applied.add((PointList) e.getNewValue()));
+		waitEventLoop(shell, 100);
+		contents.getUpdateManager().performUpdate();
+		// the route around the obstacle's old location is never applied
+		assertFalse(applied.isEmpty());
+		applied.forEach(points -> assertEquals(2, points.size()));
+		assertEquals(2, conn.getPoints().size());
+	}
+
+	@Test
+	public void testAlgorithmRebuiltWhenExecutorCleared() throws Exception {
+		contents.getUpdateManager().performUpdate();
+		waitEventLoop(shell, 100);
+		for (int i = 0; i < 10; i++) {
+			obstacle.setBounds(new Rectangle(150, 20 + i * 10, 40, 120));
+			contents.getUpdateManager().performUpdate();
+		}
+		// the synchronous algorithm does not accumulate changes
+		assertEquals(0, getChangedRegionCount());
+
+		router.setExecutor(null);
+		obstacle.setBounds(new Rectangle(150, 20, 40, 120));
+		contents.getUpdateManager().performUpdate();
+		assertTrue(conn.getPoints().size() > 2);
+		assertFalse(conn.getPoints().intersects(obstacle.getBounds()));
+	}
+
+	@Test
+	public void testRoutingWithoutDisplay() throws Exception {
+		IFigure pane = new Figure();
+		pane.setLayoutManager(new StackLayout());
+		IFigure primary = new FreeformLayer();
+		primary.setLayoutManager(new FreeformLayout());
+		ConnectionLayer connections = new ConnectionLayer();
+		pane.add(primary);
+		pane.add(connections);
+		IFigure source = createNode(primary, new Rectangle(10, 60, 40, 40));
+		IFigure target = createNode(primary, new Rectangle(300, 60, 40, 40));
+		IFigure wall = createNode(primary, new Rectangle(150, 20, 40, 120));
+		ShortestPathConnectionRouter headlessRouter = new ShortestPathConnectionRouter(primary);
+		headlessRouter.setExecutor(Runnable::run);
+		connections.setConnectionRouter(headlessRouter);
+		PolylineConnection headless = new PolylineConnection();
+		headless.setSourceAnchor(new ChopboxAnchor(source));
+		headless.setTargetAnchor(new ChopboxAnchor(target));
+		connections.add(headless);
+		pane.setBounds(new Rectangle(0, 0, 400, 200));
+
+		// there is no display to apply a background result on this thread
+		Thread thread = new Thread(pane::validate);
+		thread.start();
+		thread.join();
+		assertTrue(headless.getPoints().size() > 2);
+		assertFalse(headless.getPoints().intersects(wall.getBounds()));
+	}
+
+	private int getChangedRegionCount() throws ReflectiveOperationException {
+		Field algorithmField = ShortestPathConnectionRouter.class.getDeclaredField("algorithm"); //$NON-NLS-1$
+		algorithmField.setAccessible(true);
+		Field regionsField = ShortestPathRouter.class.getDeclaredField("changedRegions"); //$NON-NLS-1$
+		regionsField.setAccessible(true);
+		return ((List<?>) regionsField.get(algorithmField.get(router))).size();
+	}
+
+	private static IFigure createNode(IFigure parent, Rectangle bounds) {
+		IFigure node = new RectangleFigure();
+		parent.add(node, bounds);
+		return node;
+	}
+
+}
@@ -12,6 +12,11 @@
  *******************************************************************************/
 package org.eclipse.draw2d.test;
 
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+
 import org.eclipse.draw2d.geometry.Point;
 import org.eclipse.draw2d.geometry.PointList;
 import org.eclipse.draw2d.geometry.Rectangle;
@@ -676,4 +681,152 @@ public class ShortestPathRoutingTest extends Assert {
 		doTestTopRightIntersection();
 	}
 
+	@Test
+	public void testObstacleGrid() {
+		ShortestPathRouter router = new ShortestPathRouter();
+		List<Rectangle> obstacles = new ArrayList<>();
+		for (int i = 0; i < 20; i++) {
+			for (int j = 0; j < 20; j++) {
+				Rectangle obstacle = new Rectangle(i * 60 + (j % 3) * 5, j * 60 + (i % 3) * 5, 40, 40);
+				obstacles.add(obstacle);
+				router.addObstacle(obstacle);
+			}
+		}
+		Path path = new Path(new Point(-20, -20), new Point(1220, 1220));
+		router.addPath(path);
+		router.solve();
+
+		PointList points = path.getPoints();
+		assertEquals(new Point(-20, -20), points.getFirstPoint());
+		assertEquals(new Point(1220, 1220), points.getLastPoint());
+		double length = 0;
+		for (int i = 1; i < points.size(); i++) {
+			Point from = points.getPoint(i - 1);
+			Point to = points.getPoint(i);
+			length += from.getDistance(to);
+			int steps = (int) Math.ceil(from.getDistance(to));
+			for (int step = 0; step <= steps; step++) {
+				Point sample = new Point(from.x + (to.x - from.x) * step / Math.max(steps, 1),
+						from.y + (to.y - from.y) * step / Math.max(steps, 1));
+				for (Rectangle obstacle : obstacles) {
+					assertFalse(obstacle.getShrinked(1, 1).contains(sample));
+				}
+			}
+		}
+		assertTrue(length < 1240 * Math.sqrt(2) * 1.2);
+	}
+
+	@Test
+	public void testIncrementalRouting() {
+		ShortestPathRouter router = new ShortestPathRouter();
+		ShortestPathRouter incrementalRouter = new ShortestPathRouter();
+		incrementalRouter.setIncremental(true);
+		assertTrue(incrementalRouter.isIncremental());
+
+		Random random = new Random(0);
+		List<Rectangle> obstacles = new ArrayList<>();
+		for (int i = 0; i < 8; i++) {
+			for (int j = 0; j < 8; j++) {
+				Rectangle obstacle = new Rectangle(i * 120 + random.nextInt(30), j * 120 + random.nextInt(30), 60, 40);
+				obstacles.add(obstacle);
+				router.addObstacle(obstacle);
+				incrementalRouter.addObstacle(obstacle);
+			}
+		}
+		List<Path> paths = new ArrayList<>();
+		List<Path> incrementalPaths = new ArrayList<>();
+		for (int i = 0; i < obstacles.size(); i++) {
+			for (int j : new int[] { i + 1, i + 9, i + 17 }) {
+				if (j < obstacles.size()) {
+					Point start = obstacles.get(i).getCenter();
+					Point end = obstacles.get(j).getCenter();
+					paths.add(new Path(start, end));
+					incrementalPaths.add(new Path(start, end));
+					router.addPath(paths.get(paths.size() - 1));
+					incrementalRouter.addPath(incrementalPaths.get(incrementalPaths.size() - 1));
+				}
+			}
+		}
+
+		for (int step = 0; step < 50; step++) {
+			if (step > 0) {
+				int index = random.nextInt(obstacles.size());
+				Rectangle oldBounds = obstacles.get(index);
+				Rectangle newBounds = oldBounds.getTranslated(random.nextInt(41) - 20, random.nextInt(41) - 20);
+				router.updateObstacle(oldBounds, newBounds);
+				incrementalRouter.updateObstacle(oldBounds, newBounds);
+				obstacles.set(index, newBounds);
+				if (step % 10 == 0) {
+					int removed = random.nextInt(paths.size());
+					router.removePath(paths.remove(removed));
+					incrementalRouter.removePath(incrementalPaths.remove(removed));
+				}
+			}
+			router.solve();
+			incrementalRouter.solve();
+			for (int i = 0; i < paths.size(); i++) {
+				assertArrayEquals(paths.get(i).getPoints().toIntArray(), incrementalPaths.get(i).getPoints().toIntArray());
+			}
+		}
+	}
+
+	@Test
+	public void testParallelRouting() {
+		ShortestPathRouter router = new ShortestPathRouter();
+		ShortestPathRouter parallelRouter = new ShortestPathRouter();
+		ForkJoinPool pool = new ForkJoinPool(4);
+		parallelRouter.setForkJoinPool(pool);
+		assertSame(pool, parallelRouter.getForkJoinPool());
+
+		Random random = new Random(0);
+		List<Rectangle> obstacles = new ArrayList<>();
+		for (int i = 0; i < 8; i++) {
+			for (int j = 0; j < 8; j++) {
+				Rectangle obstacle = new Rectangle(i * 120 + random.nextInt(30), j * 120 + random.nextInt(30), 60, 40);
+				obstacles.add(obstacle);
+				router.addObstacle(obstacle);
+				parallelRouter.addObstacle(obstacle);
+			}
+		}
+		List<Path> paths = new ArrayList<>();
+		List<Path> parallelPaths = new ArrayList<>();
+		for (int i = 0; i < obstacles.size(); i++) {
+			for (int j : new int[] { i, i + 1, i + 9, i + 26 }) {
+				if (j < obstacles.size()) {
+					Point start = obstacles.get(i).getCenter();
+					Point end = obstacles.get(j).getCenter();
+					paths.add(new Path(start, end));
+					parallelPaths.add(new Path(start, end));
+					if (j == i + 26) {
+						PointList bendpoints = new PointList();
+						bendpoints.addPoint(start.getTranslated(0, 80));
+						paths.get(paths.size() - 1).setBendPoints(bendpoints);
+						parallelPaths.get(parallelPaths.size() - 1).setBendPoints(bendpoints.getCopy());
+					}
+					router.addPath(paths.get(paths.size() - 1));
+					parallelRouter.addPath(parallelPaths.get(parallelPaths.size() - 1));
+				}
+			}
+		}
+
+		for (int step = 0; step < 20; step++) {
+			// move several obstacles, so that enough paths are dirty to solve them in
+			// parallel
+			for (int k = 0; step > 0 && k < 8; k++) {
+				int index = random.nextInt(obstacles.size());
+				Rectangle oldBounds = obstacles.get(index);
+				Rectangle newBounds = oldBounds.getTranslated(random.nextInt(41) - 20, random.nextInt(41) - 20);
+				router.updateObstacle(oldBounds, newBounds);
+				parallelRouter.updateObstacle(oldBounds, newBounds);
+				obstacles.set(index, newBounds);
+			}
+			router.solve();
+			parallelRouter.solve();
+			for (int i = 0; i < paths.size(); i++) {
+				assertArrayEquals(paths.get(i).getPoints().toIntArray(), parallelPaths.get(i).getPoints().toIntArray());
+			}
+		}
+		pool.shutdown();
+	}
+
 }
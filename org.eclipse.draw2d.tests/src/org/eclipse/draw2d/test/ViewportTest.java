@@ -0,0 +1,173 @@
+/*******************************************************************************
+ * Copyright (c) 2026 agent and others.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0.
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     agent - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.draw2d.test;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+
+import org.eclipse.swt.graphics.Image;
+import org.eclipse.swt.widgets.Display;
+
+import org.eclipse.draw2d.Figure;
+import org.eclipse.draw2d.Graphics;
+import org.eclipse.draw2d.IFigure;
+import org.eclipse.draw2d.Viewport;
+import org.eclipse.draw2d.geometry.Dimension;
+import org.eclipse.draw2d.geometry.Point;
+import org.eclipse.draw2d.geometry.Rectangle;
+import org.eclipse.draw2d.test.utils.TestGraphics;
+
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+public class ViewportTest extends Assert {
+
+	private Display display;
+	private Figure root;
+	private Viewport viewport;
+	private final Map<IFigure, Integer> paints = new HashMap<>();
+	private final IFigure[] tiles = new IFigure[8];
+
+	@Before
+	public void setUp() {
+		display = Display.getDefault();
+		root = new Figure();
+		root.addNotify();
+		viewport = new Viewport(true);
+		viewport.setBounds(new Rectangle(0, 0, 256, 256));
+		Figure contents = new Figure();
+		contents.setPreferredSize(new Dimension(8 * 256, 256));
+		for (int i = 0; i < tiles.length; i++) {
+			// each child lies within a single tile
+			tiles[i] = new Figure() {
+				@Override
+				protected void paintFigure(Graphics graphics) {
+					paints.merge(this, Integer.valueOf(1), Integer::sum);
+				}
+			};
+			tiles[i].setBounds(new Rectangle(i * 256 + 8, 8, 240, 240));
+			contents.add(tiles[i]);
+		}
+		viewport.setContents(contents);
+		root.add(viewport);
+		viewport.setCached(true);
+		viewport.validate();
+	}
+
+	private Map<Point, Image> paint() {
+		Map<Point, Image> images = new HashMap<>();
+		viewport.paint(new TestGraphics(viewport.getBounds()) {
+			@Override
+			public void drawImage(Image srcImage, int x1, int y1, int w1, int h1, int x2, int y2, int w2, int h2) {
+				images.put(new Point(x2, y2), srcImage);
+			}
+		});
+		return images;
+	}
+
+	private int getPaints(int tile) {
+		return paints.getOrDefault(tiles[tile], Integer.valueOf(0)).intValue();
+	}
+
+	private void runEventLoop() {
+		long end = System.currentTimeMillis() + 500;
+		while (System.currentTimeMillis() < end) {
+			if (!display.readAndDispatch()) {
+				try {
+					Thread.sleep(10);
+				} catch (InterruptedException e) {
+					Thread.currentThread().interrupt();
+					return;
+				}
+			}
+		}
+	}
+
+	@Test
+	public void testScrollingBackReusesTiles() {
+		Image first = paint().get(new Point(0, 0));
+		assertEquals(1, getPaints(0));
+
+		viewport.setViewLocation(512, 0);
+		assertEquals(Set.of(new Point(512, 0)), paint().keySet());
+		assertEquals(1, getPaints(2));
+
+		viewport.setViewLocation(0, 0);
+		assertSame(first, paint().get(new Point(0, 0)));
+		assertFalse(first.isDisposed());
+		assertEquals(1, getPaints(0));
+	}
+
+	@Test
+	public void testDamageInvalidatesTiles() {
+		viewport.setViewLocation(512, 0);
+		Image visible = paint().get(new Point(512, 0));
+		viewport.setViewLocation(0, 0);
+		Image hidden = paint().get(new Point(0, 0));
+
+		// damage of the contents, in the coordinates of the contents
+		tiles[2].repaint();
+		assertTrue(visible.isDisposed());
+		assertFalse(hidden.isDisposed());
+		paint();
+		assertEquals(1, getPaints(0));
+		viewport.setViewLocation(512, 0);
+		visible = paint().get(new Point(512, 0));
+		assertEquals(2, getPaints(2));
+
+		// damage of the viewport, in the coordinates of its parent
+		viewport.repaint(10, 10, 20, 20);
+		assertTrue(visible.isDisposed());
+		assertFalse(hidden.isDisposed());
+	}
+
+	@Test
+	public void testPrefetch() {
+		paint();
+		viewport.setViewLocation(256, 0);
+		runEventLoop();
+		// the tile ahead of the scrolling direction is rendered without a paint
+		assertEquals(1, getPaints(2));
+		assertEquals(0, getPaints(1));
+	}
+
+	@Test
+	public void testNoPrefetchWhenNotCached() {
+		paint();
+		viewport.setViewLocation(256, 0);
+		viewport.setCached(false);
+		runEventLoop();
+		assertEquals(0, getPaints(2));
+
+		viewport.setViewLocation(512, 0);
+		runEventLoop();
+		assertEquals(0, getPaints(3));
+	}
+
+	@Test
+	public void testNoPrefetchWhenRemoved() {
+		Image tile = paint().get(new Point(0, 0));
+		viewport.setViewLocation(256, 0);
+		root.remove(viewport);
+		assertTrue(tile.isDisposed());
+		runEventLoop();
+		assertEquals(0, getPaints(2));
+
+		viewport.setViewLocation(512, 0);
+		runEventLoop();
+		assertEquals(0, getPaints(3));
+	}
+
+}
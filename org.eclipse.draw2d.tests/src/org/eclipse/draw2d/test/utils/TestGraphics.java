@@ -0,0 +1,252 @@
+/*******************************************************************************
+ * Copyright (c) 2026 agent and others.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0.
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     agent - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.draw2d.test.utils;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+
+import org.eclipse.swt.graphics.Color;
+import org.eclipse.swt.graphics.Font;
+import org.eclipse.swt.graphics.FontMetrics;
+import org.eclipse.swt.graphics.Image;
+
+import org.eclipse.draw2d.Graphics;
+import org.eclipse.draw2d.geometry.PointList;
+import org.eclipse.draw2d.geometry.Rectangle;
+
+/**
+ * Graphics which paints nothing and only keeps track of the clip and the
+ * translation, so that figures can be painted without a display.
+ */
+public class TestGraphics extends Graphics {
+
+	private record State(Rectangle clip, int dx, int dy) {
+	}
+
+	private final Deque<State> states = new ArrayDeque<>();
+	private Rectangle clip;
+	private int dx;
+	private int dy;
+
+	/**
+	 * Creates a new graphics with the given clip.
+	 *
+	 * @param clip the initial clip
+	 */
+	public TestGraphics(Rectangle clip) {
+		this.clip = clip.getCopy();
+	}
+
+	@Override
+	public void clipRect(Rectangle r) {
+		clip.intersect(r.getTranslated(dx, dy));
+	}
+
+	@Override
+	public Rectangle getClip(Rectangle rect) {
+		return rect.setBounds(clip).translate(-dx, -dy);
+	}
+
+	@Override
+	public void setClip(Rectangle r) {
+		clip = r.getTranslated(dx, dy);
+	}
+
+	@Override
+	public void translate(int x, int y) {
+		dx += x;
+		dy += y;
+	}
+
+	@Override
+	public void pushState() {
+		states.push(new State(clip.getCopy(), dx, dy));
+	}
+
+	@Override
+	public void popState() {
+		restoreState();
+		states.pop();
+	}
+
+	@Override
+	public void restoreState() {
+		State state = states.peek();
+		clip = state.clip().getCopy();
+		dx = state.dx();
+		dy = state.dy();
+	}
+
+	@Override
+	public void scale(double amount) {
+		throw new UnsupportedOperationException();
+	}
+
+	@Override
+	public void dispose() {
+		states.clear();
+	}
+
+	@Override
+	public void drawArc(int x, int y, int w, int h, int offset, int length) {
+	}
+
+	@Override
+	public void drawFocus(int x, int y, int w, int h) {
+	}
+
+	@Override
+	public void drawImage(Image srcImage, int x, int y) {
+	}
+
+	@Override
+	public void drawImage(Image srcImage, int x1, int y1, int w1, int h1, int x2, int y2, int w2, int h2) {
+	}
+
+	@Override
+	public void drawLine(int x1, int y1, int x2, int y2) {
+	}
+
+	@Override
+	public void drawOval(int x, int y, int w, int h) {
+	}
+
+	@Override
+	public void drawPolygon(PointList points) {
+	}
+
+	@Override
+	public void drawPolyline(PointList points) {
+	}
+
+	@Override
+	public void drawRectangle(int x, int y, int width, int height) {
+	}
+
+	@Override
+	public void drawRoundRectangle(Rectangle r, int arcWidth, int arcHeight) {
+	}
+
+	@Override
+	public void drawString(String s, int x, int y) {
+	}
+
+	@Override
+	public void drawText(String s, int x, int y) {
+	}
+
+	@Override
+	public void fillArc(int x, int y, int w, int h, int offset, int length) {
+	}
+
+	@Override
+	public void fillGradient(int x, int y, int w, int h, boolean vertical) {
+	}
+
+	@Override
+	public void fillOval(int x, int y, int w, int h) {
+	}
+
+	@Override
+	public void fillPolygon(PointList points) {
+	}
+
+	@Override
+	public void fillRectangle(int x, int y, int width, int height) {
+	}
+
+	@Override
+	public void fillRoundRectangle(Rectangle r, int arcWidth, int arcHeight) {
+	}
+
+	@Override
+	public void fillString(String s, int x, int y) {
+	}
+
+	@Override
+	public void fillText(String s, int x, int y) {
+	}
+
+	@Override
+	public Color getBackgroundColor() {
+		return null;
+	}
+
+	@Override
+	public Font getFont() {
+		return null;
+	}
+
+	@Override
+	public FontMetrics getFontMetrics() {
+		return null;
+	}
+
+	@Override
+	public Color getForegroundColor() {
+		return null;
+	}
+
+	@Override
+	public int getLineStyle() {
+		return LINE_SOLID;
+	}
+
+	@Override
+	public int getLineWidth() {
+		return 1;
+	}
+
+	@Override
+	public float getLineWidthFloat() {
+		return 1;
+	}
+
+	@Override
+	public boolean getXORMode() {
+		return false;
+	}
+
+	@Override
+	public void setBackgroundColor(Color rgb) {
+	}
+
+	@Override
+	public void setFont(Font f) {
+	}
+
+	@Override
+	public void setForegroundColor(Color rgb) {
+	}
+
+	@Override
+	public void setLineStyle(int style) {
+	}
+
+	@Override
+	public void setLineWidth(int width) {
+	}
+
+	@Override
+	public void setLineWidthFloat(float width) {
+	}
+
+	@Override
+	public void setLineMiterLimit(float miterLimit) {
+	}
+
+	@Override
+	public void setXORMode(boolean b) {
+	}
+
+}
@@ -12,17 +12,78 @@
  *******************************************************************************/
 package org.eclipse.draw2d;
 
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Objects;
+
 import org.eclipse.draw2d.geometry.Point;
 
 /**
  * Base class for implementing a connection router. This class provides stubs
  * for constraint usage, and some utility methods.
+ * <P>
+ * Subclasses may also use a cache of the geometry each connection has been
+ * routed with. A connection whose anchors, constraint and obstacles have not
+ * changed since it has last been routed keeps its points. See
+ * {@link #isRouteCached(Connection)}.
  */
 public abstract class AbstractRouter implements ConnectionRouter {
 
 	private static final Point START = new Point();
 	private static final Point END = new Point();
 
+	/**
+	 * The geometry a connection has been routed with.
+	 */
+	private static final class RouteKey {
+		int sourceX;
+		int sourceY;
+		int targetX;
+		int targetY;
+		int startX;
+		int startY;
+		int endX;
+		int endY;
+		Object constraint;
+		int version;
+	}
+
+	private Map<Connection, RouteKey> routeCache;
+	private int routeCacheVersion;
+
+	/**
+	 * Remembers the geometry the given connection has just been routed with, so
+	 * that {@link #isRouteCached(Connection)} answers <code>true</code> until it
+	 * changes. Does nothing if the route cache is disabled.
+	 *
+	 * @param connection the routed connection
+	 * @since 3.16
+	 */
+	protected void cacheRoute(Connection connection) {
+		if (routeCache == null || connection.getSourceAnchor() == null || connection.getTargetAnchor() == null) {
+			return;
+		}
+		RouteKey key = routeCache.computeIfAbsent(connection, conn -> new RouteKey());
+		Point source = connection.getSourceAnchor().getReferencePoint();
+		key.sourceX = source.x;
+		key.sourceY = source.y;
+		Point target = connection.getTargetAnchor().getReferencePoint();
+		key.targetX = target.x;
+		key.targetY = target.y;
+		Point start = getStartPoint(connection);
+		key.startX = start.x;
+		key.startY = start.y;
+		Point end = getEndPoint(connection);
+		key.endX = end.x;
+		key.endY = end.y;
+		Object constraint = getConstraint(connection);
+		// copy lists, as they may be modified in place before being set again
+		key.constraint = constraint instanceof Collection<?> c ? new ArrayList<>(c) : constraint;
+		key.version = routeCacheVersion;
+	}
+
 	/**
 	 * Returns the constraint for the given Connection.
 	 *
@@ -82,6 +143,67 @@ public abstract class AbstractRouter implements ConnectionRouter {
 	public void invalidate(Connection connection) {
 	}
 
+	/**
+	 * Discards all cached routes. Subclasses call this method whenever a change
+	 * other than the geometry of a connection itself may affect its route, such as
+	 * a change of the obstacles.
+	 *
+	 * @since 3.16
+	 */
+	protected void invalidateRouteCache() {
+		routeCacheVersion++;
+	}
+
+	/**
+	 * Returns whether the route cache is enabled.
+	 *
+	 * @return <code>true</code> if routes are cached
+	 * @see #setRouteCacheEnabled(boolean)
+	 * @since 3.16
+	 */
+	public boolean isRouteCacheEnabled() {
+		return routeCache != null;
+	}
+
+	/**
+	 * Returns whether the given connection still has the route it has been given
+	 * when {@link #cacheRoute(Connection)} has last been called for it. This is the
+	 * case if neither the reference points nor the locations of its anchors, nor
+	 * its constraint have changed, and if {@link #invalidateRouteCache()} has not
+	 * been called since. Subclasses may then leave the points of the connection as
+	 * they are. Always returns <code>false</code> if the route cache is disabled.
+	 *
+	 * @param connection the connection
+	 * @return <code>true</code> if the current route of the connection is valid
+	 * @since 3.16
+	 */
+	protected boolean isRouteCached(Connection connection) {
+		if (routeCache == null || connection.getSourceAnchor() == null || connection.getTargetAnchor() == null) {
+			return false;
+		}
+		RouteKey key = routeCache.get(connection);
+		if (key == null || key.version != routeCacheVersion) {
+			return false;
+		}
+		Point source = connection.getSourceAnchor().getReferencePoint();
+		if (key.sourceX != source.x || key.sourceY != source.y) {
+			return false;
+		}
+		Point target = connection.getTargetAnchor().getReferencePoint();
+		if (key.targetX != target.x || key.targetY != target.y) {
+			return false;
+		}
+		Point start = getStartPoint(connection);
+		if (key.startX != start.x || key.startY != start.y) {
+			return false;
+		}
+		Point end = getEndPoint(connection);
+		if (key.endX != end.x || key.endY != end.y) {
+			return false;
+		}
+		return Objects.equals(key.constraint, getConstraint(connection));
+	}
+
 	/**
 	 * Removes the given Connection from this routers list of Connections it is
 	 * responsible for.
@@ -91,6 +213,9 @@ public abstract class AbstractRouter implements ConnectionRouter {
 	 */
 	@Override
 	public void remove(Connection connection) {
+		if (routeCache != null) {
+			routeCache.remove(connection);
+		}
 	}
 
 	/**
@@ -104,4 +229,22 @@ public abstract class AbstractRouter implements ConnectionRouter {
 	public void setConstraint(Connection connection, Object constraint) {
 	}
 
+	/**
+	 * Sets whether routes are cached. Routers which support the cache leave the
+	 * points of a connection as they are when it is routed again, unless its
+	 * anchors, its constraint or the obstacles of the router have changed. This
+	 * avoids routing connections again which are merely revalidated, e.g. because
+	 * their constraint has been set to an equal value. The cache is disabled by
+	 * default.
+	 *
+	 * @param enabled <code>true</code> to cache routes
+	 * @since 3.16
+	 */
+	public void setRouteCacheEnabled(boolean enabled) {
+		if (enabled == isRouteCacheEnabled()) {
+			return;
+		}
+		routeCache = enabled ? new HashMap<>() : null;
+	}
+
 }
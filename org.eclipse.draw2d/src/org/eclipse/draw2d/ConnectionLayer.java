@@ -14,6 +14,9 @@
  *******************************************************************************/
 package org.eclipse.draw2d;
 
+import java.util.ArrayList;
+import java.util.List;
+
 import org.eclipse.swt.SWT;
 
 /**
@@ -29,6 +32,8 @@ public class ConnectionLayer extends FreeformLayer {
 	 */
 	protected ConnectionRouter connectionRouter;
 
+	private final List<Connection> invalidConnections = new ArrayList<>();
+
 	/**
 	 * Adds the given figure with the given contraint at the given index. If the
 	 * figure is a {@link Connection}, its {@link ConnectionRouter} is set.
@@ -113,4 +118,34 @@ public class ConnectionLayer extends FreeformLayer {
 		this.antialias = antialias;
 	}
 
+	/**
+	 * Passes the invalid connections using the router of this layer to
+	 * {@link ConnectionRouter#routeAll(java.util.Collection)} before validating
+	 * this layer. Connections with routing listeners are left to be routed through
+	 * their listeners.
+	 *
+	 * @see IFigure#validate()
+	 * @since 3.16
+	 */
+	@Override
+	public void validate() {
+		if (!isValid() && connectionRouter != null) {
+			for (IFigure child : getChildren()) {
+				if (child instanceof Connection conn && child instanceof Figure figure && !figure.isValid()
+						&& conn.getConnectionRouter() == connectionRouter
+						&& !(conn instanceof PolylineConnection polyline && polyline.hasRoutingListeners())) {
+					invalidConnections.add(conn);
+				}
+			}
+			if (!invalidConnections.isEmpty()) {
+				try {
+					connectionRouter.routeAll(invalidConnections);
+				} finally {
+					invalidConnections.clear();
+				}
+			}
+		}
+		super.validate();
+	}
+
 }
@@ -12,6 +12,8 @@
  *******************************************************************************/
 package org.eclipse.draw2d;
 
+import java.util.Collection;
+
 import org.eclipse.draw2d.geometry.Point;
 import org.eclipse.draw2d.geometry.PointList;
 
@@ -47,6 +49,20 @@ public interface ConnectionRouter {
 	 */
 	void route(Connection connection);
 
+	/**
+	 * Routes the given Connections as a batch. Called by a {@link ConnectionLayer}
+	 * for its invalid Connections using this router, before they are validated.
+	 * A router which routes the Connections in this method may skip routing them
+	 * again in {@link #route(Connection)} until they are invalidated. The default
+	 * implementation does nothing, so that each Connection is routed when it is
+	 * validated.
+	 *
+	 * @param connections the Connections to route
+	 * @since 3.16
+	 */
+	default void routeAll(Collection<? extends Connection> connections) {
+	}
+
 	/**
 	 * Removes the Connection from this router.
 	 *
@@ -13,9 +13,12 @@
 package org.eclipse.draw2d;
 
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.HashMap;
+import java.util.IdentityHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 
 import org.eclipse.swt.SWT;
 import org.eclipse.swt.SWTException;
@@ -43,17 +46,31 @@ public class DeferredUpdateManager extends UpdateManager {
 		 */
 		@Override
 		public void run() {
+			droppedFrames = scheduler != null ? scheduler.getDroppedFrames() : 0;
 			performUpdate();
 		}
 	}
 
+	/**
+	 * Two damage regions are merged if the area of their union does not exceed
+	 * the sum of their areas by more than this factor.
+	 */
+	private static final double MERGE_THRESHOLD = 1.25;
+
 	private Rectangle damage;
 	private Map<IFigure, Rectangle> dirtyRegions = new HashMap<>();
+	private int maxDamageRegions = 1;
 
 	private GraphicsSource graphicsSource;
 	private final List<IFigure> invalidFigures = new ArrayList<>();
+	private final Set<IFigure> pendingInvalidFigures = Collections.newSetFromMap(new IdentityHashMap<>());
 	private IFigure root;
 	private boolean updateQueued;
+	private UpdateScheduler scheduler;
+	private UpdateProfile activeProfile;
+	private final UpdateRequest scheduledUpdate = new UpdateRequest();
+	private int mergedRequests;
+	private int droppedFrames;
 
 	private boolean updating;
 	private boolean validating;
@@ -127,13 +144,87 @@ public class DeferredUpdateManager extends UpdateManager {
 	 */
 	@Override
 	public synchronized void addInvalidFigure(IFigure f) {
-		if (invalidFigures.contains(f)) {
+		if (!pendingInvalidFigures.add(f)) {
 			return;
 		}
 		queueWork();
 		invalidFigures.add(f);
 	}
 
+	/**
+	 * Adds the given damaged rectangle to the list of disjoint damage regions.
+	 * Regions which overlap the rectangle, or whose union with it is not much
+	 * larger than the sum of both, are merged into it. If the number of regions
+	 * exceeds the maximum afterwards, the two regions whose union wastes the least
+	 * area are merged.
+	 *
+	 * @param regions the current list of damage regions
+	 * @param rect    the damaged rectangle in root coordinates
+	 */
+	private void addDamageRegion(List<Rectangle> regions, Rectangle rect) {
+		Rectangle region = new Rectangle(rect);
+		boolean merged;
+		do {
+			merged = false;
+			for (int i = 0; i < regions.size(); i++) {
+				Rectangle other = regions.get(i);
+				if (region.intersects(other) || shouldMerge(region, other)) {
+					regions.remove(i);
+					region.union(other);
+					merged = true;
+					break;
+				}
+			}
+		} while (merged);
+		regions.add(region);
+
+		while (regions.size() > maxDamageRegions) {
+			int first = 0;
+			int second = 1;
+			long leastWaste = Long.MAX_VALUE;
+			for (int i = 0; i < regions.size(); i++) {
+				for (int j = i + 1; j < regions.size(); j++) {
+					long waste = getUnionWaste(regions.get(i), regions.get(j));
+					if (waste < leastWaste) {
+						leastWaste = waste;
+						first = i;
+						second = j;
+					}
+				}
+			}
+			Rectangle removed = regions.remove(second);
+			regions.get(first).union(removed);
+		}
+	}
+
+	private static long getArea(Rectangle r) {
+		return (long) r.width * r.height;
+	}
+
+	private static long getUnionWaste(Rectangle r1, Rectangle r2) {
+		int x = Math.min(r1.x, r2.x);
+		int y = Math.min(r1.y, r2.y);
+		long union = (long) (Math.max(r1.right(), r2.right()) - x) * (Math.max(r1.bottom(), r2.bottom()) - y);
+		return union - getArea(r1) - getArea(r2);
+	}
+
+	private static boolean shouldMerge(Rectangle r1, Rectangle r2) {
+		long sum = getArea(r1) + getArea(r2);
+		return getUnionWaste(r1, r2) + sum <= MERGE_THRESHOLD * sum;
+	}
+
+	/**
+	 * Returns the maximum number of disjoint regions that are repainted separately
+	 * during a single update.
+	 *
+	 * @return the maximum number of damage regions
+	 * @see #setMaxDamageRegions(int)
+	 * @since 3.16
+	 */
+	public int getMaxDamageRegions() {
+		return maxDamageRegions;
+	}
+
 	/**
 	 * Returns a Graphics object for the given region.
 	 *
@@ -153,20 +244,25 @@ public class DeferredUpdateManager extends UpdateManager {
 	@Override
 	protected void paint(GC gc) {
 		if (!validating) {
+			UpdateProfile profile = beginProfile();
 			SWTGraphics graphics = new SWTGraphics(gc);
+			Rectangle rect = graphics.getClip(new Rectangle());
 			if (!updating) {
 				/**
 				 * If a paint occurs not as part of an update, we should notify that the region
 				 * is being painted. Otherwise, notification already occurs in repairDamage().
 				 */
-				Rectangle rect = graphics.getClip(new Rectangle());
 				HashMap<IFigure, Rectangle> map = new HashMap<>();
 				map.put(root, rect);
 				firePainting(rect, map);
 			}
-			performValidation();
-			root.paint(graphics);
-			graphics.dispose();
+			try {
+				performValidation();
+				paintRoot(graphics, rect);
+			} finally {
+				graphics.dispose();
+				endProfile(profile);
+			}
 		} else {
 			/*
 			 * If figures are being validated then we can simply add a dirty region here and
@@ -190,10 +286,19 @@ public class DeferredUpdateManager extends UpdateManager {
 			return;
 		}
 		updating = true;
+		UpdateProfile profile = beginProfile();
 		try {
 			performValidation();
+			if (updateQueued && scheduler != null) {
+				scheduler.cancelUpdate(scheduledUpdate);
+			}
 			updateQueued = false;
 			repairDamage();
+			int merged = mergedRequests;
+			int dropped = droppedFrames;
+			mergedRequests = 0;
+			droppedFrames = 0;
+			fireUpdatePerformed(merged, dropped);
 			if (afterUpdate != null) {
 				RunnableChain chain = afterUpdate;
 				afterUpdate = null;
@@ -204,6 +309,26 @@ public class DeferredUpdateManager extends UpdateManager {
 			}
 		} finally {
 			updating = false;
+			endProfile(profile);
+		}
+	}
+
+	/**
+	 * Starts measuring an update if profile listeners are registered and no other
+	 * update is measured already.
+	 */
+	private UpdateProfile beginProfile() {
+		if (!isProfiling() || activeProfile != null) {
+			return null;
+		}
+		activeProfile = new UpdateProfile();
+		return activeProfile;
+	}
+
+	private void endProfile(UpdateProfile profile) {
+		if (profile != null) {
+			activeProfile = null;
+			fireProfiled(profile);
 		}
 	}
 
@@ -215,6 +340,10 @@ public class DeferredUpdateManager extends UpdateManager {
 		if (invalidFigures.isEmpty() || validating) {
 			return;
 		}
+		UpdateProfile profile = activeProfile;
+		long start = profile != null ? System.nanoTime() : 0;
+		UpdateProfile previousProfile = Figure.VALIDATION_PROFILE.get();
+		Figure.VALIDATION_PROFILE.set(profile);
 		try {
 			IFigure fig;
 			validating = true;
@@ -222,12 +351,41 @@ public class DeferredUpdateManager extends UpdateManager {
 			for (int i = 0; i < invalidFigures.size(); i++) {
 				fig = invalidFigures.get(i);
 				invalidFigures.set(i, null);
-				fig.validate();
+				pendingInvalidFigures.remove(fig);
+				if (hasPendingInvalidAncestor(fig)) {
+					/*
+					 * The ancestor validates this figure as part of its subtree, so the figure
+					 * is deferred until after the ancestor, when it usually is valid already.
+					 */
+					invalidFigures.add(fig);
+				} else {
+					fig.validate();
+				}
 			}
 		} finally {
 			invalidFigures.clear();
+			pendingInvalidFigures.clear();
 			validating = false;
+			Figure.VALIDATION_PROFILE.set(previousProfile);
+			if (profile != null) {
+				profile.addValidationTime(System.nanoTime() - start);
+			}
+		}
+	}
+
+	/**
+	 * Returns <code>true</code> if one of the ancestors of the given figure is
+	 * still waiting for validation and all figures in between are invalid.
+	 */
+	private boolean hasPendingInvalidAncestor(IFigure figure) {
+		IFigure ancestor = figure.getParent();
+		while (ancestor instanceof Figure f && !f.isValid()) {
+			if (pendingInvalidFigures.contains(ancestor)) {
+				return true;
+			}
+			ancestor = ancestor.getParent();
 		}
+		return false;
 	}
 
 	/**
@@ -244,21 +402,33 @@ public class DeferredUpdateManager extends UpdateManager {
 
 	/**
 	 * Posts an {@link UpdateRequest} using {@link Display#asyncExec(Runnable)}. If
-	 * work has already been queued, a new request is not needed.
+	 * work has already been queued, a new request is not needed and the request is
+	 * merged into the pending one.
 	 */
 	protected void queueWork() {
 		if (!updateQueued) {
 			sendUpdateRequest();
 			updateQueued = true;
+		} else {
+			mergedRequests++;
+			if (scheduler != null) {
+				scheduler.updateMerged(scheduledUpdate);
+			}
 		}
 	}
 
 	/**
-	 * Fires the <code>UpdateRequest</code> to the current display asynchronously.
+	 * Fires the <code>UpdateRequest</code> to the current display asynchronously,
+	 * or passes it to the update scheduler if one is set.
 	 *
+	 * @see #setUpdateScheduler(UpdateScheduler)
 	 * @since 3.2
 	 */
 	protected void sendUpdateRequest() {
+		if (scheduler != null) {
+			scheduler.scheduleUpdate(scheduledUpdate);
+			return;
+		}
 		Display display = Display.getCurrent();
 		if (display == null) {
 			throw new SWTException(SWT.ERROR_THREAD_INVALID_ACCESS);
@@ -282,6 +452,7 @@ public class DeferredUpdateManager extends UpdateManager {
 	 * regions.
 	 */
 	protected void repairDamage() {
+		List<Rectangle> regions = maxDamageRegions > 1 ? new ArrayList<>() : null;
 		dirtyRegions.forEach((figure, contribution) -> {
 			IFigure walker = figure.getParent();
 			// A figure can't paint beyond its own bounds
@@ -296,6 +467,9 @@ public class DeferredUpdateManager extends UpdateManager {
 			} else {
 				damage.union(contribution);
 			}
+			if (regions != null && !contribution.isEmpty()) {
+				addDamageRegion(regions, contribution);
+			}
 		});
 
 		if (!dirtyRegions.isEmpty()) {
@@ -305,15 +479,47 @@ public class DeferredUpdateManager extends UpdateManager {
 		}
 
 		if (damage != null && !damage.isEmpty()) {
-			Graphics graphics = getGraphics(damage);
-			if (graphics != null) {
-				root.paint(graphics);
-				releaseGraphics(graphics);
+			if (regions == null || regions.size() <= 1) {
+				repairRegion();
+			} else {
+				/*
+				 * releaseGraphics(Graphics) flushes the current damage, so it is set to
+				 * each of the regions in turn.
+				 */
+				for (Rectangle region : regions) {
+					damage = region;
+					repairRegion();
+				}
 			}
 		}
 		damage = null;
 	}
 
+	private void repairRegion() {
+		Graphics graphics = getGraphics(damage);
+		if (graphics != null) {
+			paintRoot(graphics, damage);
+			releaseGraphics(graphics);
+		}
+	}
+
+	private void paintRoot(Graphics graphics, Rectangle region) {
+		UpdateProfile profile = activeProfile;
+		graphics.profile = profile;
+		if (profile == null) {
+			root.paint(graphics);
+			return;
+		}
+		long start = System.nanoTime();
+		try {
+			root.paint(graphics);
+		} finally {
+			graphics.profile = null;
+		}
+		profile.addPaintTime(System.nanoTime() - start);
+		profile.addDamage(region);
+	}
+
 	/**
 	 * Adds the given runnable and queues an update if an update is not under
 	 * progress.
@@ -338,6 +544,25 @@ public class DeferredUpdateManager extends UpdateManager {
 		graphicsSource = gs;
 	}
 
+	/**
+	 * Sets the maximum number of disjoint regions that are repainted separately
+	 * during a single update. By default, all dirty regions are united into one
+	 * damaged rectangle. With a larger value, the dirty regions are kept as a set
+	 * of disjoint rectangles and the root figure is painted once per rectangle.
+	 * Rectangles are only merged if they overlap or if their union is not much
+	 * larger than their combined area. This avoids repainting the entire visible
+	 * area when small figures far apart from each other are damaged.
+	 *
+	 * @param count the maximum number of damage regions, at least 1
+	 * @since 3.16
+	 */
+	public void setMaxDamageRegions(int count) {
+		if (count < 1) {
+			throw new IllegalArgumentException("The number of damage regions must be positive"); //$NON-NLS-1$
+		}
+		maxDamageRegions = count;
+	}
+
 	/**
 	 * Sets the root figure.
 	 *
@@ -348,6 +573,20 @@ public class DeferredUpdateManager extends UpdateManager {
 		root = figure;
 	}
 
+	/**
+	 * Sets the scheduler which decides when queued updates are performed. By
+	 * default, an update is posted using {@link Display#asyncExec(Runnable)} as
+	 * soon as work is queued. A {@link FrameRateUpdateScheduler} may be used to
+	 * limit the number of updates per second under frequent changes.
+	 *
+	 * @param scheduler the update scheduler or <code>null</code> for the default
+	 *                  behavior
+	 * @since 3.16
+	 */
+	public void setUpdateScheduler(UpdateScheduler scheduler) {
+		this.scheduler = scheduler;
+	}
+
 	/**
 	 * Validates all invalid figures on the update queue and calls
 	 * {@link UpdateManager#fireValidating()} unless there are no invalid figures.
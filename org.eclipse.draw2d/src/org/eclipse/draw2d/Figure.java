@@ -41,7 +41,7 @@ import org.eclipse.draw2d.geometry.Translatable;
 public class Figure implements IFigure {
 
 	private static final Rectangle PRIVATE_RECT = new Rectangle();
-	private static final Point PRIVATE_POINT = new Point();
+	private static final int CHILD_INDEX_CELL_SIZE = 256;
 
 	private static final int FLAG_VALID = 1;
 	private static final int FLAG_OPAQUE = 1 << 1;
@@ -52,6 +52,13 @@ public class Figure implements IFigure {
 
 	static final int FLAG_REALIZED = 1 << 31;
 
+	/**
+	 * The profile of the validation in progress on the current thread. It is set
+	 * by the update manager for the duration of a profiled validation, so figures
+	 * need not look up their update manager to count themselves.
+	 */
+	static final ThreadLocal<UpdateProfile> VALIDATION_PROFILE = new ThreadLocal<>();
+
 	/**
 	 * The largest flag defined in this class. If subclasses define flags, they
 	 * should declare them as larger than this value and redefine MAX_FLAG to be
@@ -129,6 +136,7 @@ public class Figure implements IFigure {
 	protected IFigure toolTip;
 
 	private AncestorHelper ancestorHelper;
+	private FigureChildIndex childIndex;
 
 	/**
 	 * Calls {@link #add(IFigure, Object, int)} with -1 as the index.
@@ -170,6 +178,9 @@ public class Figure implements IFigure {
 			children.add(index, figure);
 		}
 		figure.setParent(this);
+		if (childIndex != null) {
+			childIndex.add(figure);
+		}
 
 		if (layoutManager != null) {
 			layoutManager.setConstraint(figure, constraint);
@@ -371,22 +382,35 @@ public class Figure implements IFigure {
 	 * @return The descendant Figure at (x,y)
 	 */
 	protected IFigure findDescendantAtExcluding(int x, int y, TreeSearch search) {
-		PRIVATE_POINT.setLocation(x, y);
-		translateFromParent(PRIVATE_POINT);
-		if (!getClientArea(Rectangle.SINGLETON).contains(PRIVATE_POINT)) {
+		HitTestContext context = HitTestContext.get(search);
+		Point pt = context.point.setLocation(x, y);
+		translateFromParent(pt);
+		x = pt.x;
+		y = pt.y;
+		if (!getClientArea(context.clientArea).contains(x, y)) {
 			return null;
 		}
 
-		x = PRIVATE_POINT.x;
-		y = PRIVATE_POINT.y;
-
-		for (IFigure fig : getChildrenRevIterable()) {
-			if (fig.isVisible()) {
-				fig = fig.findFigureAt(x, y, search);
-				if (fig != null) {
-					return fig;
+		FigureChildIndex index = childIndex;
+		List<IFigure> candidates = children;
+		if (index != null) {
+			candidates = context.acquireCandidates();
+			index.getChildrenAt(x, y, candidates);
+		}
+		try {
+			for (int i = candidates.size() - 1; i >= 0; i--) {
+				IFigure fig = candidates.get(i);
+				if (fig.isVisible()) {
+					fig = fig.findFigureAt(x, y, search);
+					if (fig != null) {
+						return fig;
+					}
 				}
 			}
+		} finally {
+			if (index != null) {
+				context.releaseCandidates();
+			}
 		}
 		// No descendants were found
 		return null;
@@ -476,20 +500,36 @@ public class Figure implements IFigure {
 	 * @return The deepest descendant for which isMouseEventTarget() returns true
 	 */
 	protected IFigure findMouseEventTargetInDescendantsAt(int x, int y) {
-		PRIVATE_POINT.setLocation(x, y);
-		translateFromParent(PRIVATE_POINT);
+		HitTestContext context = HitTestContext.get(null);
+		Point pt = context.point.setLocation(x, y);
+		translateFromParent(pt);
+		x = pt.x;
+		y = pt.y;
 
-		if (!getClientArea(Rectangle.SINGLETON).contains(PRIVATE_POINT)) {
+		if (!getClientArea(context.clientArea).contains(x, y)) {
 			return null;
 		}
 
-		for (IFigure fig : getChildrenRevIterable()) {
-			if (fig.isVisible() && fig.isEnabled() && fig.containsPoint(PRIVATE_POINT.x, PRIVATE_POINT.y)) {
-				fig = fig.findMouseEventTargetAt(PRIVATE_POINT.x, PRIVATE_POINT.y);
-				if (fig != null) {
-					return fig;
+		FigureChildIndex index = childIndex;
+		List<IFigure> candidates = children;
+		if (index != null) {
+			candidates = context.acquireCandidates();
+			index.getChildrenAt(x, y, candidates);
+		}
+		try {
+			for (int i = candidates.size() - 1; i >= 0; i--) {
+				IFigure fig = candidates.get(i);
+				if (fig.isVisible() && fig.isEnabled() && fig.containsPoint(x, y)) {
+					fig = fig.findMouseEventTargetAt(x, y);
+					if (fig != null) {
+						return fig;
+					}
 				}
 			}
+		} finally {
+			if (index != null) {
+				context.releaseCandidates();
+			}
 		}
 		return null;
 	}
@@ -1088,6 +1128,18 @@ public class Figure implements IFigure {
 		children.forEach(IFigure::invalidateTree);
 	}
 
+	/**
+	 * Returns <code>true</code> if a spatial index is maintained over the bounds
+	 * of this figure's children.
+	 *
+	 * @return whether the children are indexed
+	 * @see #setChildIndexEnabled(boolean)
+	 * @since 3.16
+	 */
+	public boolean isChildIndexEnabled() {
+		return childIndex != null;
+	}
+
 	/**
 	 * @see IFigure#isCoordinateSystem()
 	 */
@@ -1222,6 +1274,10 @@ public class Figure implements IFigure {
 			graphics.setFont(getLocalFont());
 		}
 
+		UpdateProfile profile = graphics.profile;
+		if (profile != null) {
+			profile.beginPaint();
+		}
 		graphics.pushState();
 		try {
 			paintFigure(graphics);
@@ -1230,6 +1286,9 @@ public class Figure implements IFigure {
 			paintBorder(graphics);
 		} finally {
 			graphics.popState();
+			if (profile != null) {
+				profile.endPaint(this);
+			}
 		}
 	}
 
@@ -1258,16 +1317,23 @@ public class Figure implements IFigure {
 	 * @since 2.0
 	 */
 	protected void paintChildren(Graphics graphics) {
+		if (clippingStrategy == null) {
+			// default clipping behaviour is to clip at bounds
+			Rectangle clip = graphics.getClip(new Rectangle());
+			Iterable<IFigure> candidates = childIndex != null ? childIndex.getChildrenIntersecting(clip) : children;
+			for (IFigure child : candidates) {
+				if (child.isVisible() && child.getBounds().intersects(clip)) {
+					graphics.clipRect(child.getBounds());
+					child.paint(graphics);
+					graphics.restoreState();
+				}
+			}
+			return;
+		}
 		for (IFigure child : children) {
 			if (child.isVisible()) {
 				// determine clipping areas for child
-				Rectangle[] clipping = null;
-				if (clippingStrategy != null) {
-					clipping = clippingStrategy.getClip(child);
-				} else {
-					// default clipping behaviour is to clip at bounds
-					clipping = new Rectangle[] { child.getBounds() };
-				}
+				Rectangle[] clipping = clippingStrategy.getClip(child);
 				// child may now paint inside the clipping areas
 				for (Rectangle element : clipping) {
 					if (element.intersects(graphics.getClip(Rectangle.SINGLETON))) {
@@ -1385,6 +1451,9 @@ public class Figure implements IFigure {
 		figure.erase();
 		figure.setParent(null);
 		children.remove(figure);
+		if (childIndex != null) {
+			childIndex.remove(figure);
+		}
 		revalidate();
 	}
 
@@ -1655,6 +1724,37 @@ public class Figure implements IFigure {
 		}
 	}
 
+	/**
+	 * Enables or disables a spatial index over the bounds of this figure's
+	 * children. When enabled, {@link #findFigureAt(int, int, TreeSearch)} and
+	 * {@link #findMouseEventTargetAt(int, int)} only visit the children whose
+	 * bounds contain the given point, instead of every child. Likewise, unless an
+	 * {@link IClippingStrategy} is set, {@link #paintChildren(Graphics)} only
+	 * paints the children intersecting the current clip. This is intended for
+	 * figures with a large number of children, such as the layers of a diagram.
+	 * The index is kept current as children are added, removed or moved, and the
+	 * children are still visited in z-order.
+	 * <P>
+	 * The index assumes that a child never contains or paints a point outside of
+	 * its bounds.
+	 * Children overriding {@link IFigure#containsPoint(int, int)} to claim points
+	 * beyond their bounds are not found at those points.
+	 *
+	 * @param enabled <code>true</code> to index the children
+	 * @since 3.16
+	 */
+	public void setChildIndexEnabled(boolean enabled) {
+		if (enabled == isChildIndexEnabled()) {
+			return;
+		}
+		if (enabled) {
+			childIndex = new FigureChildIndex(this, CHILD_INDEX_CELL_SIZE);
+		} else {
+			childIndex.dispose();
+			childIndex = null;
+		}
+	}
+
 	/**
 	 * Sets the direction of any {@link Orientable} children. Allowable values for
 	 * <code>dir</code> are found in {@link PositionConstants}.
@@ -2057,6 +2157,10 @@ public class Figure implements IFigure {
 			return;
 		}
 		setValid(true);
+		UpdateProfile profile = VALIDATION_PROFILE.get();
+		if (profile != null) {
+			profile.figureValidated();
+		}
 		layout();
 		children.forEach(IFigure::validate);
 	}
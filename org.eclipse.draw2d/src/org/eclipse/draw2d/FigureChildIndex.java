@@ -0,0 +1,198 @@
+/*******************************************************************************
+ * Copyright (c) 2026 agent and others.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0.
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     agent - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.draw2d;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.eclipse.draw2d.geometry.Rectangle;
+import org.eclipse.draw2d.internal.CellGrid;
+
+/**
+ * A uniform grid over the bounds of the children of a figure. The index is used
+ * to answer which children may contain a point or intersect a rectangle without
+ * visiting every child. Children are tracked using a {@link FigureListener}, so
+ * the index stays current when their bounds change. Results are always
+ * returned in z-order, i.e. in the order of the host's children.
+ * <P>
+ * Children which span more than {@link CellGrid#MAX_CELLS} grid cells are not
+ * stored in the grid, but are always considered a candidate.
+ */
+final class FigureChildIndex implements FigureListener {
+
+	private final IFigure host;
+	private final CellGrid<IFigure> cells;
+	private final Map<IFigure, Rectangle> cellRanges = new IdentityHashMap<>();
+	private final List<IFigure> oversized = new ArrayList<>();
+	private final Map<IFigure, Integer> zOrder = new IdentityHashMap<>();
+	private boolean zOrderValid;
+
+	private final Comparator<IFigure> zOrderComparator = (f1, f2) -> Integer.compare(zOrder.get(f1), zOrder.get(f2));
+
+	/**
+	 * Creates a new index for the children of the given figure.
+	 *
+	 * @param host     the figure whose children are indexed
+	 * @param cellSize the width and height of a grid cell
+	 */
+	FigureChildIndex(IFigure host, int cellSize) {
+		this.host = host;
+		cells = new CellGrid<>(cellSize);
+		host.getChildren().forEach(this::add);
+	}
+
+	/**
+	 * Adds the given child to the index.
+	 *
+	 * @param child the new child
+	 */
+	void add(IFigure child) {
+		child.addFigureListener(this);
+		insert(child);
+		zOrderValid = false;
+	}
+
+	/**
+	 * Removes all children from the index and stops listening to them.
+	 */
+	void dispose() {
+		cellRanges.keySet().forEach(child -> child.removeFigureListener(this));
+		cellRanges.clear();
+		cells.clear();
+		oversized.clear();
+		zOrder.clear();
+	}
+
+	/**
+	 * Collects the children whose bounds contain the given point into the given
+	 * list, bottommost child first.
+	 *
+	 * @param x      the x coordinate, relative to the host's children
+	 * @param y      the y coordinate, relative to the host's children
+	 * @param result the empty list which receives the candidate children in
+	 *               z-order
+	 */
+	void getChildrenAt(int x, int y, List<IFigure> result) {
+		List<IFigure> cell = cells.getCellAt(x, y);
+		if (cell != null) {
+			collect(cell, x, y, result);
+		}
+		collect(oversized, x, y, result);
+		sort(result);
+	}
+
+	/**
+	 * Returns the children whose bounds intersect the given rectangle, bottommost
+	 * child first.
+	 *
+	 * @param rect the rectangle, relative to the host's children
+	 * @return the candidate children in z-order
+	 */
+	List<IFigure> getChildrenIntersecting(Rectangle rect) {
+		List<IFigure> result = new ArrayList<>();
+		if (rect.isEmpty()) {
+			return result;
+		}
+		Map<IFigure, Boolean> visited = new IdentityHashMap<>();
+		cells.forEachCell(rect, cell -> collect(cell, rect, visited, result));
+		collect(oversized, rect, visited, result);
+		sort(result);
+		return result;
+	}
+
+	/**
+	 * Removes the given child from the index.
+	 *
+	 * @param child the removed child
+	 */
+	void remove(IFigure child) {
+		child.removeFigureListener(this);
+		delete(child);
+		zOrder.remove(child);
+		zOrderValid = false;
+	}
+
+	/**
+	 * Updates the cells of the moved child.
+	 *
+	 * @see FigureListener#figureMoved(IFigure)
+	 */
+	@Override
+	public void figureMoved(IFigure source) {
+		Rectangle range = cellRanges.get(source);
+		if (range != null && range.equals(cells.getCellRange(source.getBounds()))) {
+			return;
+		}
+		delete(source);
+		insert(source);
+	}
+
+	private static void collect(List<IFigure> cell, int x, int y, List<IFigure> result) {
+		for (int i = 0; i < cell.size(); i++) {
+			IFigure child = cell.get(i);
+			if (child.getBounds().contains(x, y)) {
+				result.add(child);
+			}
+		}
+	}
+
+	private static void collect(List<IFigure> cell, Rectangle rect, Map<IFigure, Boolean> visited,
+			List<IFigure> result) {
+		for (IFigure child : cell) {
+			if (child.getBounds().intersects(rect) && visited.put(child, Boolean.TRUE) == null) {
+				result.add(child);
+			}
+		}
+	}
+
+	private void delete(IFigure child) {
+		Rectangle range = cellRanges.remove(child);
+		if (range == null) {
+			return;
+		}
+		if (range.isEmpty()) {
+			oversized.remove(child);
+		} else {
+			cells.remove(child, range);
+		}
+	}
+
+	private void insert(IFigure child) {
+		Rectangle range = cells.getCellRange(child.getBounds());
+		cellRanges.put(child, range);
+		if (range.isEmpty()) {
+			oversized.add(child);
+		} else {
+			cells.add(child, range);
+		}
+	}
+
+	private void sort(List<IFigure> figures) {
+		if (figures.size() < 2) {
+			return;
+		}
+		if (!zOrderValid) {
+			zOrder.clear();
+			List<? extends IFigure> children = host.getChildren();
+			for (int i = 0; i < children.size(); i++) {
+				zOrder.put(children.get(i), Integer.valueOf(i));
+			}
+			zOrderValid = true;
+		}
+		figures.sort(zOrderComparator);
+	}
+
+}
@@ -0,0 +1,151 @@
+/*******************************************************************************
+ * Copyright (c) 2026 agent and others.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0.
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     agent - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.draw2d;
+
+import java.util.Map;
+import java.util.WeakHashMap;
+import java.util.concurrent.TimeUnit;
+
+import org.eclipse.swt.SWT;
+import org.eclipse.swt.SWTException;
+import org.eclipse.swt.widgets.Display;
+
+/**
+ * An {@link UpdateScheduler} which limits the number of updates per second.
+ * An update is run immediately if the previous update is at least one frame
+ * interval ago, and otherwise delayed using
+ * {@link Display#timerExec(int, Runnable)} until the next frame is due. All
+ * damage occurring in between is painted by that single update, and each
+ * request merged into it while it was held back is reported as a dropped frame.
+ * <P>
+ * The time of the previous update is kept for each update manager, so a
+ * scheduler may be shared by several update managers without them delaying each
+ * other.
+ *
+ * @since 3.16
+ */
+public class FrameRateUpdateScheduler implements UpdateScheduler {
+
+	/**
+	 * The scheduling state of a single update. It must not reference the update,
+	 * so that the update manager can still be collected.
+	 */
+	private static class FrameState {
+		boolean hasFrame;
+		long lastFrame;
+		boolean pending;
+		int generation;
+		long dueTime;
+		int droppedFrames;
+	}
+
+	private final long frameInterval;
+	private final Map<Runnable, FrameState> states = new WeakHashMap<>();
+	private int droppedFrames;
+
+	/**
+	 * Constructs a new scheduler which performs at most the given number of updates
+	 * per second.
+	 *
+	 * @param framesPerSecond the maximum frame rate
+	 */
+	public FrameRateUpdateScheduler(int framesPerSecond) {
+		if (framesPerSecond <= 0) {
+			throw new IllegalArgumentException("The frame rate must be positive"); //$NON-NLS-1$
+		}
+		frameInterval = TimeUnit.SECONDS.toNanos(1) / framesPerSecond;
+	}
+
+	/**
+	 * @see UpdateScheduler#cancelUpdate(Runnable)
+	 */
+	@Override
+	public void cancelUpdate(Runnable update) {
+		FrameState state = states.get(update);
+		if (state != null && state.pending) {
+			state.pending = false;
+			state.hasFrame = true;
+			state.lastFrame = System.nanoTime();
+		}
+	}
+
+	/**
+	 * @see UpdateScheduler#getDroppedFrames()
+	 */
+	@Override
+	public int getDroppedFrames() {
+		return droppedFrames;
+	}
+
+	/**
+	 * Returns the minimal time between two updates in nanoseconds.
+	 *
+	 * @return the frame interval
+	 */
+	public long getFrameInterval() {
+		return frameInterval;
+	}
+
+	private void runFrame(Runnable update, FrameState state, int generation) {
+		if (!state.pending || state.generation != generation) {
+			// superseded by a direct update or a newer request
+			return;
+		}
+		state.pending = false;
+		state.hasFrame = true;
+		state.lastFrame = System.nanoTime();
+		int previous = droppedFrames;
+		droppedFrames = state.droppedFrames;
+		try {
+			update.run();
+		} finally {
+			droppedFrames = previous;
+		}
+	}
+
+	/**
+	 * @see UpdateScheduler#scheduleUpdate(Runnable)
+	 */
+	@Override
+	public void scheduleUpdate(Runnable update) {
+		Display display = Display.getCurrent();
+		if (display == null) {
+			throw new SWTException(SWT.ERROR_THREAD_INVALID_ACCESS);
+		}
+		FrameState state = states.computeIfAbsent(update, key -> new FrameState());
+		long now = System.nanoTime();
+		state.dueTime = state.hasFrame ? Math.max(now, state.lastFrame + frameInterval) : now;
+		state.droppedFrames = 0;
+		state.pending = true;
+		int generation = ++state.generation;
+		Runnable frame = () -> runFrame(update, state, generation);
+		long delay = TimeUnit.NANOSECONDS.toMillis(state.dueTime - now + TimeUnit.MILLISECONDS.toNanos(1) - 1);
+		if (delay == 0) {
+			display.asyncExec(frame);
+		} else {
+			display.timerExec((int) delay, frame);
+		}
+	}
+
+	/**
+	 * @see UpdateScheduler#updateMerged(Runnable)
+	 */
+	@Override
+	public void updateMerged(Runnable update) {
+		FrameState state = states.get(update);
+		if (state != null && state.pending && System.nanoTime() < state.dueTime) {
+			state.droppedFrames++;
+		}
+	}
+
+}
@@ -66,6 +66,12 @@ public abstract class Graphics {
 	 */
 	public static final int LINE_SOLID = SWT.LINE_SOLID;
 
+	/**
+	 * The profile of the update this graphics paints for, or <code>null</code> if
+	 * the update is not profiled.
+	 */
+	UpdateProfile profile;
+
 	/**
 	 * Sets the clip region to the given rectangle. Anything outside this rectangle
 	 * will not be drawn.
@@ -0,0 +1,134 @@
+/*******************************************************************************
+ * Copyright (c) 2026 agent and others.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0.
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     agent - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.draw2d;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+
+import org.eclipse.draw2d.geometry.Point;
+import org.eclipse.draw2d.geometry.Rectangle;
+
+/**
+ * A reusable {@link TreeSearch} for hit-testing. The context excludes a
+ * collection of figures and delegates to another search. It also provides the
+ * scratch objects which {@link Figure} uses to translate coordinates and to
+ * collect the candidates of a child index while descending the figure
+ * hierarchy, so a context which is reused across events
+ * does not allocate any objects per hit-test.
+ * <P>
+ * A context must only be used by one thread at a time and must not be reused
+ * from within the search it delegates to.
+ *
+ * @since 3.16
+ */
+public final class HitTestContext implements TreeSearch {
+
+	/**
+	 * Scratch objects for hit-tests which are not performed with a context.
+	 */
+	private static final ThreadLocal<HitTestContext> LOCAL = ThreadLocal.withInitial(HitTestContext::new);
+
+	final Point point = new Point();
+	final Rectangle clientArea = new Rectangle();
+
+	/**
+	 * The candidate lists of the figures currently being searched, one for each
+	 * level of the hierarchy which uses a child index.
+	 */
+	private final List<List<IFigure>> candidates = new ArrayList<>();
+	private int depth;
+
+	private Collection<IFigure> exclusions = Collections.emptySet();
+	private TreeSearch search = Figure.IdentitySearch.INSTANCE;
+
+	/**
+	 * Constructs a new hit-test context.
+	 */
+	public HitTestContext() {
+	}
+
+	/**
+	 * Returns the context of the given search or a context local to the current
+	 * thread if the search is not a context.
+	 */
+	static HitTestContext get(TreeSearch search) {
+		if (search instanceof HitTestContext context) {
+			return context;
+		}
+		return LOCAL.get();
+	}
+
+	/**
+	 * Returns an empty list for the candidates of the figure which is searched
+	 * next. The lists are reused, so every call must be paired with a call to
+	 * {@link #releaseCandidates()} once the figure has been searched.
+	 */
+	List<IFigure> acquireCandidates() {
+		if (depth == candidates.size()) {
+			candidates.add(new ArrayList<>());
+		}
+		return candidates.get(depth++);
+	}
+
+	/**
+	 * Clears the list returned by the last call to {@link #acquireCandidates()}.
+	 */
+	void releaseCandidates() {
+		candidates.get(--depth).clear();
+	}
+
+	/**
+	 * Returns the descendant of the given figure at the given location which is
+	 * neither one of the excluded figures nor a descendant of one of them and
+	 * which is accepted by the given search.
+	 *
+	 * @param figure     the figure to search
+	 * @param x          the x coordinate, relative to the parent of the figure
+	 * @param y          the y coordinate, relative to the parent of the figure
+	 * @param exclusions the figures to exclude
+	 * @param search     the search to which the context delegates
+	 * @return the figure at the location or <code>null</code>
+	 */
+	public IFigure findFigureAt(IFigure figure, int x, int y, Collection<IFigure> exclusions, TreeSearch search) {
+		this.exclusions = exclusions;
+		this.search = search;
+		try {
+			return figure.findFigureAt(x, y, this);
+		} finally {
+			this.exclusions = Collections.emptySet();
+			this.search = Figure.IdentitySearch.INSTANCE;
+		}
+	}
+
+	/**
+	 * @see TreeSearch#accept(IFigure)
+	 */
+	@Override
+	public boolean accept(IFigure figure) {
+		return search.accept(figure);
+	}
+
+	/**
+	 * Returns <code>true</code> if the figure is excluded or pruned by the search
+	 * to which the context delegates.
+	 *
+	 * @see TreeSearch#prune(IFigure)
+	 */
+	@Override
+	public boolean prune(IFigure figure) {
+		return exclusions.contains(figure) || search.prune(figure);
+	}
+
+}
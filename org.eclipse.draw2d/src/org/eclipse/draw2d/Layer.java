@@ -20,6 +20,8 @@ import org.eclipse.draw2d.geometry.Point;
  */
 public class Layer extends Figure {
 
+	private TileCache tileCache;
+
 	/**
 	 * Overridden to implement transparent behavior.
 	 *
@@ -65,4 +67,89 @@ public class Layer extends Figure {
 		return f;
 	}
 
+	/**
+	 * Returns the update manager of the parent, or an update manager which tracks
+	 * the damage of the cached children if this layer is cached.
+	 *
+	 * @see #setCached(boolean)
+	 */
+	@Override
+	public UpdateManager getUpdateManager() {
+		if (tileCache != null) {
+			return tileCache.getUpdateManager();
+		}
+		return super.getUpdateManager();
+	}
+
+	/**
+	 * Returns <code>true</code> if the children of this layer are rendered into
+	 * cached images.
+	 *
+	 * @return whether this layer is cached
+	 * @see #setCached(boolean)
+	 * @since 3.16
+	 */
+	public boolean isCached() {
+		return tileCache != null;
+	}
+
+	/**
+	 * Paints the children from the cached images if this layer is cached.
+	 *
+	 * @see Figure#paintChildren(Graphics)
+	 */
+	@Override
+	protected void paintChildren(Graphics graphics) {
+		if (tileCache != null) {
+			tileCache.paint(graphics);
+		} else {
+			super.paintChildren(graphics);
+		}
+	}
+
+	/**
+	 * Disposes the cached images.
+	 *
+	 * @see Figure#removeNotify()
+	 */
+	@Override
+	public void removeNotify() {
+		if (tileCache != null) {
+			tileCache.dispose();
+		}
+		super.removeNotify();
+	}
+
+	/**
+	 * Sets whether the children of this layer are rendered into cached images. A
+	 * cached layer renders its children into image tiles when they are painted
+	 * for the first time, and draws these images on subsequent paints. A tile is
+	 * only rendered again once a descendant of this layer reports damage within
+	 * it. This is intended for layers whose content rarely changes, but which are
+	 * repainted often because of changes on other layers, for example the primary
+	 * layer of a diagram while handles or feedback are dragged above it.
+	 * <P>
+	 * A transparent layer is cached in images with an alpha channel. On platforms
+	 * which do not preserve the alpha channel when drawing into an image, only
+	 * opaque layers should be cached. The cache also assumes that the appearance of
+	 * the children does not depend on figures outside of this layer, so layers
+	 * using an {@link IClippingStrategy} based on other figures should not be
+	 * cached.
+	 *
+	 * @param cached <code>true</code> to cache the children of this layer
+	 * @since 3.16
+	 */
+	public void setCached(boolean cached) {
+		if (cached == isCached()) {
+			return;
+		}
+		if (cached) {
+			tileCache = new TileCache(this, super::paintChildren);
+		} else {
+			tileCache.dispose();
+			tileCache = null;
+		}
+		repaint();
+	}
+
 }
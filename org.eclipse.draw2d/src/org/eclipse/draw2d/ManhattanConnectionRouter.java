@@ -12,9 +12,9 @@
  *******************************************************************************/
 package org.eclipse.draw2d;
 
-import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
 import java.util.HashMap;
-import java.util.List;
 import java.util.Map;
 
 import org.eclipse.draw2d.geometry.Point;
@@ -25,16 +25,105 @@ import org.eclipse.draw2d.geometry.Rectangle;
 /**
  * Provides a {@link Connection} with an orthogonal route between the
  * Connection's source and target anchors.
+ * <P>
+ * The rows and columns reserved by the routed connections are kept in primitive
+ * hash sets, and the positions of a route are computed in reused buffers. The
+ * points of a connection are written into its existing point list, so that
+ * routing connections again does not allocate memory once the router has seen
+ * them.
+ * <P>
+ * If the route cache is enabled, a connection keeps its route and its reserved
+ * rows and columns until its anchors move, even if it is invalidated.
  */
 public final class ManhattanConnectionRouter extends AbstractRouter {
 
-	private final Map<Integer, Integer> rowsUsed = new HashMap<>();
-	private final Map<Integer, Integer> colsUsed = new HashMap<>();
+	/**
+	 * An open addressing hash set of ints using linear probing.
+	 */
+	private static final class IntHashSet {
+		private int[] keys = new int[16];
+		private boolean[] used = new boolean[16];
+		private int size;
+
+		boolean add(int key) {
+			int index = indexOf(key);
+			if (used[index]) {
+				return false;
+			}
+			keys[index] = key;
+			used[index] = true;
+			if (++size * 2 > keys.length) {
+				rehash(keys.length * 2);
+			}
+			return true;
+		}
+
+		private static int hash(int key) {
+			int h = key * 0x9E3779B9;
+			return h ^ (h >>> 16);
+		}
+
+		private int indexOf(int key) {
+			int mask = keys.length - 1;
+			int index = hash(key) & mask;
+			while (used[index] && keys[index] != key) {
+				index = (index + 1) & mask;
+			}
+			return index;
+		}
+
+		private void rehash(int capacity) {
+			int[] oldKeys = keys;
+			boolean[] oldUsed = used;
+			keys = new int[capacity];
+			used = new boolean[capacity];
+			for (int i = 0; i < oldKeys.length; i++) {
+				if (oldUsed[i]) {
+					int index = indexOf(oldKeys[i]);
+					keys[index] = oldKeys[i];
+					used[index] = true;
+				}
+			}
+		}
+
+		void remove(int key) {
+			int index = indexOf(key);
+			if (!used[index]) {
+				return;
+			}
+			used[index] = false;
+			size--;
+			// move following keys of the probe sequence into the gap
+			int mask = keys.length - 1;
+			int next = (index + 1) & mask;
+			while (used[next]) {
+				int home = hash(keys[next]) & mask;
+				if (((next - home) & mask) >= ((next - index) & mask)) {
+					keys[index] = keys[next];
+					used[index] = true;
+					used[next] = false;
+					index = next;
+				}
+				next = (next + 1) & mask;
+			}
+		}
+	}
+
+	private final IntHashSet rowsUsed = new IntHashSet();
+	private final IntHashSet colsUsed = new IntHashSet();
 	private final Map<Connection, ReservedInfo> reservedInfo = new HashMap<>();
 
-	private class ReservedInfo {
-		public List<Integer> reservedRows = new ArrayList<>(2);
-		public List<Integer> reservedCols = new ArrayList<>(2);
+	private static class ReservedInfo {
+		int[] reservedRows = new int[2];
+		int rowCount;
+		int[] reservedCols = new int[2];
+		int colCount;
+		/**
+		 * Whether the connection has been routed by
+		 * {@link ManhattanConnectionRouter#routeAll(Collection)} and does not need to
+		 * be routed again until it is invalidated.
+		 */
+		boolean routed;
 	}
 
 	private static final Ray UP = new Ray(0, -1);
@@ -42,11 +131,29 @@ public final class ManhattanConnectionRouter extends AbstractRouter {
 	private static final Ray LEFT = new Ray(-1, 0);
 	private static final Ray RIGHT = new Ray(1, 0);
 
+	/**
+	 * The maximum number of positions of a route, i.e. the number of segments.
+	 */
+	private static final int MAX_POSITIONS = 5;
+
+	private final int[] positions = new int[MAX_POSITIONS];
+	private final int[] pos = new int[MAX_POSITIONS + 2];
+	private final Rectangle ownerBounds = new Rectangle();
+
 	/**
 	 * @see ConnectionRouter#invalidate(Connection)
 	 */
 	@Override
 	public void invalidate(Connection connection) {
+		if (isRouteCacheEnabled()) {
+			// the rows and columns are released once the connection is routed again,
+			// unless its route is still valid
+			ReservedInfo info = reservedInfo.get(connection);
+			if (info != null) {
+				info.routed = false;
+			}
+			return;
+		}
 		removeReservedLines(connection);
 	}
 
@@ -65,20 +172,17 @@ public final class ManhattanConnectionRouter extends AbstractRouter {
 		if (r % 2 == 1) {
 			r--;
 		}
-		Integer i;
 		while (proximity < r) {
-			i = Integer.valueOf(r + proximity * direction);
-			if (!colsUsed.containsKey(i)) {
-				colsUsed.put(i, i);
+			int i = r + proximity * direction;
+			if (colsUsed.add(i)) {
 				reserveColumn(connection, i);
-				return i.intValue();
+				return i;
 			}
-			int j = i.intValue();
-			if (j <= min) {
-				return j + 2;
+			if (i <= min) {
+				return i + 2;
 			}
-			if (j >= max) {
-				return j - 2;
+			if (i >= max) {
+				return i - 2;
 			}
 			if (direction == 1) {
 				direction = -1;
@@ -127,16 +231,22 @@ public final class ManhattanConnectionRouter extends AbstractRouter {
 	}
 
 	protected Ray getEndDirection(Connection conn) {
-		ConnectionAnchor anchor = conn.getTargetAnchor();
-		Point p = getEndPoint(conn);
-		Rectangle rect;
-		if (anchor.getOwner() == null) {
-			rect = new Rectangle(p.x - 1, p.y - 1, 2, 2);
+		return getDirection(conn.getTargetAnchor(), getEndPoint(conn));
+	}
+
+	/**
+	 * Returns the direction of the given point, which is the location of the given
+	 * anchor, in relation to the owner of the anchor.
+	 */
+	private Ray getDirection(ConnectionAnchor anchor, Point p) {
+		IFigure owner = anchor.getOwner();
+		if (owner == null) {
+			ownerBounds.setBounds(p.x - 1, p.y - 1, 2, 2);
 		} else {
-			rect = conn.getTargetAnchor().getOwner().getBounds().getCopy();
-			conn.getTargetAnchor().getOwner().translateToAbsolute(rect);
+			ownerBounds.setBounds(owner.getBounds());
+			owner.translateToAbsolute(ownerBounds);
 		}
-		return getDirection(rect, p);
+		return getDirection(ownerBounds, p);
 	}
 
 	protected int getRowNear(Connection connection, int r, int n, int x) {
@@ -155,20 +265,17 @@ public final class ManhattanConnectionRouter extends AbstractRouter {
 		if (r % 2 == 1) {
 			r--;
 		}
-		Integer i;
 		while (proximity < r) {
-			i = Integer.valueOf(r + proximity * direction);
-			if (!rowsUsed.containsKey(i)) {
-				rowsUsed.put(i, i);
+			int i = r + proximity * direction;
+			if (rowsUsed.add(i)) {
 				reserveRow(connection, i);
-				return i.intValue();
+				return i;
 			}
-			int j = i.intValue();
-			if (j <= min) {
-				return j + 2;
+			if (i <= min) {
+				return i + 2;
 			}
-			if (j >= max) {
-				return j - 2;
+			if (i >= max) {
+				return i - 2;
 			}
 			if (direction == 1) {
 				direction = -1;
@@ -181,67 +288,72 @@ public final class ManhattanConnectionRouter extends AbstractRouter {
 	}
 
 	protected Ray getStartDirection(Connection conn) {
-		ConnectionAnchor anchor = conn.getSourceAnchor();
-		Point p = getStartPoint(conn);
-		Rectangle rect;
-		if (anchor.getOwner() == null) {
-			rect = new Rectangle(p.x - 1, p.y - 1, 2, 2);
-		} else {
-			rect = conn.getSourceAnchor().getOwner().getBounds().getCopy();
-			conn.getSourceAnchor().getOwner().translateToAbsolute(rect);
-		}
-		return getDirection(rect, p);
+		return getDirection(conn.getSourceAnchor(), getStartPoint(conn));
 	}
 
-	protected void processPositions(Ray start, Ray end, List<Integer> positions, boolean horizontal, Connection conn) {
+	/**
+	 * Sets the points of the given connection. The route starts at the given start
+	 * point and consists of segments which alternate between horizontal and
+	 * vertical. The first given positions are the coordinates of these segments.
+	 *
+	 * @param startX     the x coordinate of the start point
+	 * @param startY     the y coordinate of the start point
+	 * @param endX       the x coordinate of the end point
+	 * @param endY       the y coordinate of the end point
+	 * @param count      the number of positions
+	 * @param horizontal whether the first segment is horizontal
+	 * @param conn       the connection
+	 */
+	private void processPositions(int startX, int startY, int endX, int endY, int count, boolean horizontal,
+			Connection conn) {
 		removeReservedLines(conn);
 
-		int[] pos = new int[positions.size() + 2];
+		int length = count + 2;
 		if (horizontal) {
-			pos[0] = start.x;
+			pos[0] = startX;
 		} else {
-			pos[0] = start.y;
+			pos[0] = startY;
 		}
 		int i;
-		for (i = 0; i < positions.size(); i++) {
-			pos[i + 1] = positions.get(i).intValue();
+		for (i = 0; i < count; i++) {
+			pos[i + 1] = positions[i];
 		}
-		if (horizontal == (positions.size() % 2 == 1)) {
+		if (horizontal == (count % 2 == 1)) {
 			i++;
-			pos[i] = end.x;
+			pos[i] = endX;
 		} else {
 			i++;
-			pos[i] = end.y;
+			pos[i] = endY;
 		}
 
-		PointList points = new PointList();
-		points.addPoint(new Point(start.x, start.y));
-		Point p;
+		// reuse the point list of the connection, as BendpointConnectionRouter does
+		PointList points = conn.getPoints();
+		points.removeAllPoints();
+		points.addPoint(startX, startY);
 		boolean adjust;
-		for (i = 2; i < pos.length - 1; i++) {
+		for (i = 2; i < length - 1; i++) {
 			horizontal = !horizontal;
 			int prev = pos[i - 1];
 			int current = pos[i];
 
-			adjust = (i != pos.length - 2);
+			adjust = (i != length - 2);
 			if (horizontal) {
 				if (adjust) {
 					int min = pos[i - 2];
 					int max = pos[i + 2];
 					pos[i] = current = getRowNear(conn, current, min, max);
 				}
-				p = new Point(prev, current);
+				points.addPoint(prev, current);
 			} else {
 				if (adjust) {
 					int min = pos[i - 2];
 					int max = pos[i + 2];
 					pos[i] = current = getColumnNear(conn, current, min, max);
 				}
-				p = new Point(current, prev);
+				points.addPoint(current, prev);
 			}
-			points.addPoint(p);
 		}
-		points.addPoint(new Point(end.x, end.y));
+		points.addPoint(endX, endY);
 		conn.setPoints(points);
 	}
 
@@ -251,6 +363,8 @@ public final class ManhattanConnectionRouter extends AbstractRouter {
 	@Override
 	public void remove(Connection connection) {
 		removeReservedLines(connection);
+		reservedInfo.remove(connection);
+		super.remove(connection);
 	}
 
 	protected void removeReservedLines(Connection connection) {
@@ -259,23 +373,32 @@ public final class ManhattanConnectionRouter extends AbstractRouter {
 			return;
 		}
 
-		for (Object element : rInfo.reservedRows) {
-			rowsUsed.remove(element);
+		for (int i = 0; i < rInfo.rowCount; i++) {
+			rowsUsed.remove(rInfo.reservedRows[i]);
 		}
-		for (Object element : rInfo.reservedCols) {
-			colsUsed.remove(element);
+		for (int i = 0; i < rInfo.colCount; i++) {
+			colsUsed.remove(rInfo.reservedCols[i]);
 		}
-		reservedInfo.remove(connection);
+		// keep the info, so that routing the connection again does not allocate
+		rInfo.rowCount = 0;
+		rInfo.colCount = 0;
+		rInfo.routed = false;
 	}
 
-	protected void reserveColumn(Connection connection, Integer column) {
+	protected void reserveColumn(Connection connection, int column) {
 		ReservedInfo info = reservedInfo.computeIfAbsent(connection, dummy -> new ReservedInfo());
-		info.reservedCols.add(column);
+		if (info.colCount == info.reservedCols.length) {
+			info.reservedCols = Arrays.copyOf(info.reservedCols, info.colCount * 2);
+		}
+		info.reservedCols[info.colCount++] = column;
 	}
 
-	protected void reserveRow(Connection connection, Integer row) {
+	protected void reserveRow(Connection connection, int row) {
 		ReservedInfo info = reservedInfo.computeIfAbsent(connection, dummy -> new ReservedInfo());
-		info.reservedRows.add(row);
+		if (info.rowCount == info.reservedRows.length) {
+			info.reservedRows = Arrays.copyOf(info.reservedRows, info.rowCount * 2);
+		}
+		info.reservedRows[info.rowCount++] = row;
 	}
 
 	/**
@@ -286,98 +409,142 @@ public final class ManhattanConnectionRouter extends AbstractRouter {
 		if ((conn.getSourceAnchor() == null) || (conn.getTargetAnchor() == null)) {
 			return;
 		}
+		ReservedInfo info = reservedInfo.get(conn);
+		if (info != null && info.routed) {
+			// already routed by routeAll() since the connection has been invalidated
+			info.routed = false;
+			return;
+		}
+		if (isRouteCached(conn)) {
+			// keep the points and the reserved rows and columns
+			return;
+		}
+
 		int i;
 		Point startPoint = getStartPoint(conn);
 		conn.translateToRelative(startPoint);
+		int startX = startPoint.x;
+		int startY = startPoint.y;
 		Point endPoint = getEndPoint(conn);
 		conn.translateToRelative(endPoint);
+		int endX = endPoint.x;
+		int endY = endPoint.y;
 
-		Ray start = new Ray(startPoint);
-		Ray end = new Ray(endPoint);
-		Ray average = start.getAveraged(end);
+		int averageX = (startX + endX) / 2;
+		int averageY = (startY + endY) / 2;
 
-		Ray direction = new Ray(start, end);
+		int directionX = endX - startX;
+		int directionY = endY - startY;
 		Ray startNormal = getStartDirection(conn);
 		Ray endNormal = getEndDirection(conn);
 
-		List<Integer> positions = new ArrayList<>(5);
+		int startDot = startNormal.x * directionX + startNormal.y * directionY;
+		int endDot = endNormal.x * directionX + endNormal.y * directionY;
+		// the similarity of a normal with the point 10 pixels away along the normal
+		int startOffset = Math.abs(
+				startNormal.x * (startX + startNormal.x * 10) + startNormal.y * (startY + startNormal.y * 10));
+		int endOffset = Math
+				.abs(endNormal.x * (endX + endNormal.x * 10) + endNormal.y * (endY + endNormal.y * 10));
+
+		int count = 0;
 		boolean horizontal = startNormal.isHorizontal();
 		if (horizontal) {
-			positions.add(Integer.valueOf(start.y));
+			positions[count++] = startY;
 		} else {
-			positions.add(Integer.valueOf(start.x));
+			positions[count++] = startX;
 		}
 		horizontal = !horizontal;
 
 		if (startNormal.dotProduct(endNormal) == 0) {
-			if ((startNormal.dotProduct(direction) >= 0) && (endNormal.dotProduct(direction) <= 0)) {
+			if ((startDot >= 0) && (endDot <= 0)) {
 				// 0
 			} else {
 				// 2
-				if (startNormal.dotProduct(direction) < 0) {
-					i = startNormal.similarity(start.getAdded(startNormal.getScaled(10)));
+				if (startDot < 0) {
+					i = startOffset;
 				} else {
 					if (horizontal) {
-						i = average.y;
+						i = averageY;
 					} else {
-						i = average.x;
+						i = averageX;
 					}
 				}
-				positions.add(Integer.valueOf(i));
+				positions[count++] = i;
 				horizontal = !horizontal;
 
-				if (endNormal.dotProduct(direction) > 0) {
-					i = endNormal.similarity(end.getAdded(endNormal.getScaled(10)));
+				if (endDot > 0) {
+					i = endOffset;
 				} else {
 					if (horizontal) {
-						i = average.y;
+						i = averageY;
 					} else {
-						i = average.x;
+						i = averageX;
 					}
 				}
-				positions.add(Integer.valueOf(i));
+				positions[count++] = i;
 				horizontal = !horizontal;
 			}
 		} else {
 			if (startNormal.dotProduct(endNormal) > 0) {
 				// 1
-				if (startNormal.dotProduct(direction) >= 0) {
-					i = startNormal.similarity(start.getAdded(startNormal.getScaled(10)));
+				if (startDot >= 0) {
+					i = startOffset;
 				} else {
-					i = endNormal.similarity(end.getAdded(endNormal.getScaled(10)));
+					i = endOffset;
 				}
-				positions.add(Integer.valueOf(i));
+				positions[count++] = i;
 				horizontal = !horizontal;
 			} else {
 				// 3 or 1
-				if (startNormal.dotProduct(direction) < 0) {
-					i = startNormal.similarity(start.getAdded(startNormal.getScaled(10)));
-					positions.add(Integer.valueOf(i));
+				if (startDot < 0) {
+					positions[count++] = startOffset;
 					horizontal = !horizontal;
 				}
 
 				if (horizontal) {
-					i = average.y;
+					i = averageY;
 				} else {
-					i = average.x;
+					i = averageX;
 				}
-				positions.add(Integer.valueOf(i));
+				positions[count++] = i;
 				horizontal = !horizontal;
 
-				if (startNormal.dotProduct(direction) < 0) {
-					i = endNormal.similarity(end.getAdded(endNormal.getScaled(10)));
-					positions.add(Integer.valueOf(i));
+				if (startDot < 0) {
+					positions[count++] = endOffset;
 					horizontal = !horizontal;
 				}
 			}
 		}
 		if (horizontal) {
-			positions.add(Integer.valueOf(end.y));
+			positions[count++] = endY;
 		} else {
-			positions.add(Integer.valueOf(end.x));
+			positions[count++] = endX;
 		}
 
-		processPositions(start, end, positions, startNormal.isHorizontal(), conn);
+		processPositions(startX, startY, endX, endY, count, startNormal.isHorizontal(), conn);
+		cacheRoute(conn);
+	}
+
+	/**
+	 * Routes the given connections, in the given order. The connections are not
+	 * routed again by {@link #route(Connection)} until they are invalidated.
+	 *
+	 * @see ConnectionRouter#routeAll(Collection)
+	 * @since 3.16
+	 */
+	@Override
+	public void routeAll(Collection<? extends Connection> connections) {
+		for (Connection conn : connections) {
+			route(conn);
+			ReservedInfo info = reservedInfo.get(conn);
+			if (info == null && conn.getSourceAnchor() != null && conn.getTargetAnchor() != null) {
+				info = new ReservedInfo();
+				reservedInfo.put(conn, info);
+			}
+			if (info != null) {
+				info.routed = true;
+			}
+		}
 	}
 
 }
@@ -99,6 +99,14 @@ public class PolylineConnection extends Polyline implements Connection, AnchorLi
 		return bounds;
 	}
 
+	/**
+	 * Returns whether routing listeners have been added to this connection, which
+	 * must see every route of it.
+	 */
+	boolean hasRoutingListeners() {
+		return connectionRouter instanceof RoutingNotifier;
+	}
+
 	/**
 	 * Returns the <code>ConnectionRouter</code> used to layout this connection.
 	 * Will not return <code>null</code>.
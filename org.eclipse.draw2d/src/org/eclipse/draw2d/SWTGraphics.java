@@ -271,11 +271,18 @@ public class SWTGraphics extends Graphics {
 		init();
 	}
 
+	private void countGraphicsCall(int kind) {
+		if (profile != null) {
+			profile.countGraphicsCall(kind);
+		}
+	}
+
 	/**
 	 * If the background color has changed, this change will be pushed to the GC.
 	 * Also calls {@link #checkGC()}.
 	 */
 	protected final void checkFill() {
+		countGraphicsCall(UpdateProfile.FILL);
 		if (!currentState.bgColor.equals(appliedState.bgColor) && currentState.bgPattern == null) {
 			appliedState.bgColor = currentState.bgColor;
 			gc.setBackground(appliedState.bgColor);
@@ -305,6 +312,11 @@ public class SWTGraphics extends Graphics {
 	 * these changes will be pushed to the GC. Also calls {@link #checkGC()}.
 	 */
 	protected final void checkPaint() {
+		countGraphicsCall(UpdateProfile.DRAW);
+		applyPaint();
+	}
+
+	private void applyPaint() {
 		checkGC();
 		if (!currentState.fgColor.equals(appliedState.fgColor) && currentState.fgPattern == null) {
 			gc.setForeground(appliedState.fgColor = currentState.fgColor);
@@ -356,7 +368,12 @@ public class SWTGraphics extends Graphics {
 	 * {@link #checkPaint()} and {@link #checkFill()}.
 	 */
 	protected final void checkText() {
-		checkPaint();
+		countGraphicsCall(UpdateProfile.TEXT);
+		applyText();
+	}
+
+	private void applyText() {
+		applyPaint();
 		if (!appliedState.font.equals(currentState.font)) {
 			appliedState.font = currentState.font;
 			gc.setFont(appliedState.font);
@@ -415,6 +432,7 @@ public class SWTGraphics extends Graphics {
 	 */
 	@Override
 	public void drawImage(Image srcImage, int x, int y) {
+		countGraphicsCall(UpdateProfile.IMAGE);
 		checkGC();
 		gc.drawImage(srcImage, x + translateX, y + translateY);
 	}
@@ -424,6 +442,7 @@ public class SWTGraphics extends Graphics {
 	 */
 	@Override
 	public void drawImage(Image srcImage, int x1, int y1, int w1, int h1, int x2, int y2, int w2, int h2) {
+		countGraphicsCall(UpdateProfile.IMAGE);
 		checkGC();
 		gc.drawImage(srcImage, x1, y1, w1, h1, x2 + translateX, y2 + translateY, w2, h2);
 	}
@@ -723,7 +742,7 @@ public class SWTGraphics extends Graphics {
 	 */
 	@Override
 	public FontMetrics getFontMetrics() {
-		checkText();
+		applyText();
 		return gc.getFontMetrics();
 	}
 
@@ -166,6 +166,7 @@ public class ScaledGraphics extends Graphics {
 		graphics = g;
 		localFont = g.getFont();
 		localLineWidth = g.getLineWidthFloat();
+		profile = g.profile;
 	}
 
 	/** @see Graphics#clipRect(Rectangle) */
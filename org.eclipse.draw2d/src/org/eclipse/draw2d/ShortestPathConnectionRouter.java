@@ -12,6 +12,7 @@
  *******************************************************************************/
 package org.eclipse.draw2d;
 
+import java.util.ArrayList;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
@@ -19,6 +20,9 @@ import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.Executor;
+
+import org.eclipse.swt.widgets.Display;
 
 import org.eclipse.draw2d.geometry.Point;
 import org.eclipse.draw2d.geometry.PointList;
@@ -29,6 +33,19 @@ import org.eclipse.draw2d.graph.ShortestPathRouter;
 
 /**
  * Routes multiple connections around the children of a given container figure.
+ * <P>
+ * By default, connections are routed synchronously while they are validated.
+ * If an {@link #setExecutor(Executor) executor} is set, the obstacles and
+ * connection end points are copied into an immutable routing problem, which is
+ * solved by the executor. The router's own algorithm is not updated in the
+ * meantime and is rebuilt when the executor is cleared. The routed points are applied on the display thread
+ * after the next update. Results of problems which have been superseded by a
+ * newer one are discarded. Connections whose end points or bend points have
+ * changed are shown as straight lines until their route is available.
+ * <P>
+ * If the route cache is enabled, connections are not routed again when only
+ * connections whose anchors and bend points have not changed have been
+ * invalidated since the last solve.
  *
  * @author Whitney Sorenson
  * @author Randy Hudson
@@ -53,6 +70,94 @@ public final class ShortestPathConnectionRouter extends AbstractRouter {
 		}
 	}
 
+	/**
+	 * The end points and bend points of a connection, relative to the container.
+	 */
+	private static record PathInput(Point start, Point end, List<Point> bendpoints) {
+	}
+
+	/**
+	 * An immutable snapshot of the obstacles and connections to route.
+	 */
+	private static record RoutingProblem(long generation, int spacing, Map<IFigure, Rectangle> obstacles,
+			Map<Connection, PathInput> paths) {
+	}
+
+	/**
+	 * Solves routing problems in the background. The solver keeps its own
+	 * {@link ShortestPathRouter} and applies the differences between subsequent
+	 * problems to it, so that only the affected paths are routed again. It must
+	 * only be used by one thread at a time.
+	 */
+	private static final class BackgroundSolver {
+		private final ShortestPathRouter algorithm = new ShortestPathRouter();
+		private final Map<IFigure, Rectangle> obstacles = new HashMap<>();
+		private final Map<Connection, Path> paths = new HashMap<>();
+		private final Map<Connection, PathInput> inputs = new HashMap<>();
+
+		BackgroundSolver() {
+			algorithm.setIncremental(true);
+		}
+
+		Map<Connection, PointList> solve(RoutingProblem problem) {
+			if (problem.spacing() != algorithm.getSpacing()) {
+				algorithm.setSpacing(problem.spacing());
+			}
+
+			Iterator<Map.Entry<IFigure, Rectangle>> obstacleItr = obstacles.entrySet().iterator();
+			while (obstacleItr.hasNext()) {
+				Map.Entry<IFigure, Rectangle> entry = obstacleItr.next();
+				if (!problem.obstacles().containsKey(entry.getKey())) {
+					algorithm.removeObstacle(entry.getValue());
+					obstacleItr.remove();
+				}
+			}
+			problem.obstacles().forEach((figure, bounds) -> {
+				Rectangle oldBounds = obstacles.put(figure, bounds);
+				if (oldBounds == null) {
+					algorithm.addObstacle(bounds);
+				} else if (!oldBounds.equals(bounds)) {
+					algorithm.updateObstacle(oldBounds, bounds);
+				}
+			});
+
+			Iterator<Map.Entry<Connection, Path>> pathItr = paths.entrySet().iterator();
+			while (pathItr.hasNext()) {
+				Map.Entry<Connection, Path> entry = pathItr.next();
+				if (!problem.paths().containsKey(entry.getKey())) {
+					algorithm.removePath(entry.getValue());
+					inputs.remove(entry.getKey());
+					pathItr.remove();
+				}
+			}
+			problem.paths().forEach((conn, input) -> {
+				Path path = paths.computeIfAbsent(conn, c -> {
+					Path newPath = new Path(c);
+					algorithm.addPath(newPath);
+					return newPath;
+				});
+				PathInput oldInput = inputs.put(conn, input);
+				path.setStartPoint(input.start());
+				path.setEndPoint(input.end());
+				if (oldInput == null || !oldInput.bendpoints().equals(input.bendpoints())) {
+					if (input.bendpoints().isEmpty()) {
+						path.setBendPoints(null);
+					} else {
+						PointList bends = new PointList(input.bendpoints().size());
+						input.bendpoints().forEach(bends::addPoint);
+						path.setBendPoints(bends);
+					}
+				}
+			});
+
+			Map<Connection, PointList> result = new HashMap<>();
+			for (Path path : algorithm.solve()) {
+				result.put((Connection) path.data, path.getPoints().getCopy());
+			}
+			return result;
+		}
+	}
+
 	private final Map<Connection, List<Bendpoint>> constraintMap = new HashMap<>();
 	private Map<IFigure, Rectangle> figuresToBounds;
 	private Map<Connection, Path> connectionToPaths;
@@ -62,11 +167,19 @@ public final class ShortestPathConnectionRouter extends AbstractRouter {
 	private final Set<Connection> staleConnections = new HashSet<>();
 	private final LayoutListener listener = new LayoutTracker();
 
+	private Executor executor;
+	private long generation;
+	private Map<Connection, PathInput> submittedInputs = Collections.emptyMap();
+	private RoutingProblem pendingProblem;
+	private boolean solving;
+	private BackgroundSolver solver;
+
 	private final FigureListener figureListener = source -> {
 		Rectangle newBounds = source.getBounds().getCopy();
-		if (algorithm.updateObstacle(figuresToBounds.get(source), newBounds)) {
+		if (executor != null || algorithm.updateObstacle(figuresToBounds.get(source), newBounds)) {
 			queueSomeRouting();
 			isDirty = true;
+			invalidateRouteCache();
 		}
 
 		figuresToBounds.put(source, newBounds);
@@ -88,6 +201,36 @@ public final class ShortestPathConnectionRouter extends AbstractRouter {
 		this.container = container;
 	}
 
+	/**
+	 * Applies the result of a background solve, unless the problem has been
+	 * superseded in the meantime. Called on the display thread.
+	 */
+	private void applyResult(long resultGeneration, Map<Connection, PointList> result) {
+		if (resultGeneration != generation || connectionToPaths == null) {
+			return;
+		}
+		UpdateManager updateManager = container.getUpdateManager();
+		if (updateManager == null) {
+			return;
+		}
+		// apply after the next validation, so that the anchors are up to date
+		updateManager.runWithUpdate(() -> {
+			if (resultGeneration != generation || connectionToPaths == null) {
+				return;
+			}
+			ignoreInvalidate = true;
+			try {
+				result.forEach((conn, points) -> {
+					if (connectionToPaths.containsKey(conn)) {
+						setRoutedPoints(conn, points);
+					}
+				});
+			} finally {
+				ignoreInvalidate = false;
+			}
+		});
+	}
+
 	void addChild(IFigure child) {
 		if (connectionToPaths == null) {
 			return;
@@ -96,10 +239,13 @@ public final class ShortestPathConnectionRouter extends AbstractRouter {
 			return;
 		}
 		Rectangle bounds = child.getBounds().getCopy();
-		algorithm.addObstacle(bounds);
+		if (executor == null) {
+			algorithm.addObstacle(bounds);
+		}
 		figuresToBounds.put(child, bounds);
 		child.addFigureListener(figureListener);
 		isDirty = true;
+		invalidateRouteCache();
 	}
 
 	private void hookAll() {
@@ -135,6 +281,18 @@ public final class ShortestPathConnectionRouter extends AbstractRouter {
 		return constraintMap.get(connection);
 	}
 
+	/**
+	 * Returns the executor used to route connections in the background, or
+	 * <code>null</code> if connections are routed synchronously.
+	 *
+	 * @return the executor or <code>null</code>
+	 * @see #setExecutor(Executor)
+	 * @since 3.16
+	 */
+	public Executor getExecutor() {
+		return executor;
+	}
+
 	/**
 	 * Returns the default spacing maintained on either side of a connection. The
 	 * default value is 4.
@@ -179,7 +337,9 @@ public final class ShortestPathConnectionRouter extends AbstractRouter {
 			if (path == null) {
 				path = new Path(conn);
 				connectionToPaths.put(conn, path);
-				algorithm.addPath(path);
+				if (executor == null) {
+					algorithm.addPath(path);
+				}
 			}
 
 			List<Bendpoint> constraint = getConstraint(conn);
@@ -221,19 +381,46 @@ public final class ShortestPathConnectionRouter extends AbstractRouter {
 		}
 	}
 
+	/**
+	 * Replaces the algorithm by a new one which contains the current obstacles
+	 * and connections. The algorithm is not updated while an executor is set, so
+	 * it must be rebuilt before it is used to route synchronously.
+	 */
+	private void rebuildAlgorithm() {
+		ShortestPathRouter newAlgorithm = new ShortestPathRouter();
+		newAlgorithm.setSpacing(algorithm.getSpacing());
+		algorithm = newAlgorithm;
+		if (connectionToPaths == null) {
+			return;
+		}
+		figuresToBounds.values().forEach(algorithm::addObstacle);
+		connectionToPaths.replaceAll((conn, oldPath) -> {
+			Path path = new Path(conn);
+			path.setStartPoint(oldPath.getStartPoint());
+			path.setEndPoint(oldPath.getEndPoint());
+			path.setBendPoints(oldPath.getBendPoints());
+			algorithm.addPath(path);
+			return path;
+		});
+	}
+
 	/**
 	 * @see ConnectionRouter#remove(Connection)
 	 */
 	@Override
 	public void remove(Connection connection) {
+		super.remove(connection);
 		staleConnections.remove(connection);
 		constraintMap.remove(connection);
 		if (connectionToPaths == null) {
 			return;
 		}
 		Path path = connectionToPaths.remove(connection);
-		algorithm.removePath(path);
+		if (executor == null) {
+			algorithm.removePath(path);
+		}
 		isDirty = true;
+		invalidateRouteCache();
 		if (connectionToPaths.isEmpty()) {
 			unhookAll();
 			connectionToPaths = null;
@@ -249,11 +436,12 @@ public final class ShortestPathConnectionRouter extends AbstractRouter {
 			return;
 		}
 		Rectangle bounds = child.getBounds().getCopy();
-		boolean change = algorithm.removeObstacle(bounds);
+		boolean change = executor != null || algorithm.removeObstacle(bounds);
 		figuresToBounds.remove(child);
 		child.removeFigureListener(figureListener);
 		if (change) {
 			isDirty = true;
+			invalidateRouteCache();
 			queueSomeRouting();
 		}
 	}
@@ -264,33 +452,141 @@ public final class ShortestPathConnectionRouter extends AbstractRouter {
 	@Override
 	public void route(Connection conn) {
 		if (isDirty) {
+			if (!staleConnections.isEmpty() && staleConnections.stream().allMatch(this::isRouteCached)) {
+				// only connections whose geometry has not changed have been invalidated
+				staleConnections.clear();
+				isDirty = false;
+				return;
+			}
 			ignoreInvalidate = true;
 			processStaleConnections();
 			isDirty = false;
-			for (Path path : algorithm.solve()) {
-				Connection current = (Connection) path.data;
-				current.revalidate();
+			Display display = Display.getCurrent();
+			if (executor != null && display != null) {
+				scheduleRouting(display);
+			} else {
+				if (executor != null) {
+					// without a display the result could not be applied, so route synchronously
+					generation++;
+					rebuildAlgorithm();
+				}
+				for (Path path : algorithm.solve()) {
+					setRoutedPoints((Connection) path.data, path.getPoints().getCopy());
+				}
+			}
+			if (isRouteCacheEnabled() && connectionToPaths != null) {
+				connectionToPaths.keySet().forEach(this::cacheRoute);
+			}
+			ignoreInvalidate = false;
+		}
+	}
 
-				PointList points = path.getPoints().getCopy();
-				Point ref1 = new PrecisionPoint(points.getPoint(1));
-				Point ref2 = new PrecisionPoint(points.getPoint(points.size() - 2));
-				current.translateToAbsolute(ref1);
-				current.translateToAbsolute(ref2);
+	/**
+	 * Snapshots the current routing problem and passes it to the executor. Shows
+	 * the connections whose input has changed as straight lines in the meantime.
+	 */
+	private void scheduleRouting(Display display) {
+		Map<Connection, PathInput> inputs = new HashMap<>();
+		connectionToPaths.forEach((conn, path) -> {
+			List<Point> bendpoints = new ArrayList<>();
+			PointList bends = path.getBendPoints();
+			for (int i = 0; bends != null && i < bends.size(); i++) {
+				bendpoints.add(bends.getPoint(i));
+			}
+			inputs.put(conn, new PathInput(path.getStartPoint().getCopy(), path.getEndPoint().getCopy(),
+					Collections.unmodifiableList(bendpoints)));
+		});
+		RoutingProblem problem = new RoutingProblem(++generation, getSpacing(), Map.copyOf(figuresToBounds),
+				Collections.unmodifiableMap(inputs));
+
+		inputs.forEach((conn, input) -> {
+			if (!input.equals(submittedInputs.get(conn))) {
+				PointList points = new PointList(input.bendpoints().size() + 2);
+				Point start = getStartPoint(conn);
+				conn.translateToRelative(start);
+				points.addPoint(start);
+				input.bendpoints().forEach(points::addPoint);
+				Point end = getEndPoint(conn);
+				conn.translateToRelative(end);
+				points.addPoint(end);
+				conn.setPoints(points);
+			}
+		});
+		submittedInputs = inputs;
+
+		boolean start;
+		synchronized (this) {
+			pendingProblem = problem;
+			start = !solving;
+			solving = true;
+		}
+		if (start) {
+			executor.execute(() -> solvePendingProblems(display));
+		}
+	}
 
-				Point start = current.getSourceAnchor().getLocation(ref1).getCopy();
-				Point end = current.getTargetAnchor().getLocation(ref2).getCopy();
+	/**
+	 * Sets the given points, which are relative to the container, as the points of
+	 * the given connection. The first and last point are replaced by the locations
+	 * of the connection's anchors.
+	 */
+	private static void setRoutedPoints(Connection current, PointList points) {
+		current.revalidate();
+
+		Point ref1 = new PrecisionPoint(points.getPoint(1));
+		Point ref2 = new PrecisionPoint(points.getPoint(points.size() - 2));
+		current.translateToAbsolute(ref1);
+		current.translateToAbsolute(ref2);
+
+		Point start = current.getSourceAnchor().getLocation(ref1).getCopy();
+		Point end = current.getTargetAnchor().getLocation(ref2).getCopy();
 
-				current.translateToRelative(start);
-				current.translateToRelative(end);
-				points.setPoint(start, 0);
-				points.setPoint(end, points.size() - 1);
+		current.translateToRelative(start);
+		current.translateToRelative(end);
+		points.setPoint(start, 0);
+		points.setPoint(end, points.size() - 1);
+
+		current.setPoints(points);
+	}
 
-				current.setPoints(points);
+	/**
+	 * Solves the pending problems until no newer problem has been submitted. Runs
+	 * on the executor.
+	 */
+	private void solvePendingProblems(Display display) {
+		RoutingProblem problem;
+		while ((problem = takePendingProblem()) != null) {
+			Map<Connection, PointList> result;
+			try {
+				if (solver == null) {
+					solver = new BackgroundSolver();
+				}
+				result = solver.solve(problem);
+			} catch (RuntimeException e) {
+				synchronized (this) {
+					solver = null;
+					solving = false;
+				}
+				throw e;
+			}
+			long resultGeneration = problem.generation();
+			if (!display.isDisposed()) {
+				display.asyncExec(() -> applyResult(resultGeneration, result));
 			}
-			ignoreInvalidate = false;
 		}
 	}
 
+	/**
+	 * Returns and clears the pending problem. Clears the solving flag if there is
+	 * none.
+	 */
+	private synchronized RoutingProblem takePendingProblem() {
+		RoutingProblem problem = pendingProblem;
+		pendingProblem = null;
+		solving = problem != null;
+		return problem;
+	}
+
 	/**
 	 * @return All connection paths after routing dirty paths. Some of the paths
 	 *         that were not dirty may change as well, as a consequence of new
@@ -301,6 +597,9 @@ public final class ShortestPathConnectionRouter extends AbstractRouter {
 		if (isDirty) {
 			processStaleConnections();
 			isDirty = false;
+			if (executor != null) {
+				rebuildAlgorithm();
+			}
 			return algorithm.solve();
 
 		}
@@ -320,6 +619,36 @@ public final class ShortestPathConnectionRouter extends AbstractRouter {
 		isDirty = true;
 	}
 
+	/**
+	 * Sets the executor used to route connections in the background. If
+	 * <code>null</code>, which is the default, connections are routed
+	 * synchronously while they are validated. Problems are passed to the executor
+	 * one at a time, so a single executor may be shared by several routers.
+	 *
+	 * @param executor the executor or <code>null</code>
+	 * @since 3.16
+	 */
+	public void setExecutor(Executor executor) {
+		if (this.executor == executor) {
+			return;
+		}
+		this.executor = executor;
+		if (executor == null) {
+			rebuildAlgorithm();
+		} else {
+			// release the state of the synchronous routing
+			ShortestPathRouter idleAlgorithm = new ShortestPathRouter();
+			idleAlgorithm.setSpacing(algorithm.getSpacing());
+			algorithm = idleAlgorithm;
+		}
+		// invalidate results in flight and route all connections again
+		generation++;
+		submittedInputs = Collections.emptyMap();
+		isDirty = true;
+		invalidateRouteCache();
+		queueSomeRouting();
+	}
+
 	/**
 	 * Sets the default space that should be maintained on either side of a
 	 * connection. This causes the connections to be separated from each other and
@@ -329,7 +658,14 @@ public final class ShortestPathConnectionRouter extends AbstractRouter {
 	 * @since 3.2
 	 */
 	public void setSpacing(int spacing) {
+		if (algorithm.getSpacing() == spacing) {
+			return;
+		}
 		algorithm.setSpacing(spacing);
+		// the cached routes have been computed with the previous spacing
+		isDirty = true;
+		invalidateRouteCache();
+		queueSomeRouting();
 	}
 
 	/**
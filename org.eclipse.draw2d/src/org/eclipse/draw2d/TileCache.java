@@ -0,0 +1,374 @@
+/*******************************************************************************
+ * Copyright (c) 2026 agent and others.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0.
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     agent - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.draw2d;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+
+import org.eclipse.swt.SWT;
+import org.eclipse.swt.graphics.GC;
+import org.eclipse.swt.graphics.Image;
+import org.eclipse.swt.graphics.ImageData;
+import org.eclipse.swt.graphics.PaletteData;
+import org.eclipse.swt.widgets.Display;
+
+import org.eclipse.draw2d.geometry.Rectangle;
+
+/**
+ * Caches the rendered children of a figure in fixed-size image tiles. Tiles are
+ * rendered on demand and drawn on later paints until one of the figure's
+ * descendants reports damage within the tile. Damage is observed by handing out
+ * an update manager to the figure's descendants, which records all dirty
+ * regions before passing them to the real update manager.
+ * <P>
+ * Tiles are kept for a single scale at a time and the least recently used
+ * tiles are disposed once more than {@link #MAX_TILES} have been rendered.
+ * Tiles which are likely to become visible can be rendered ahead of time while
+ * the UI thread is idle.
+ *
+ * @see Layer#setCached(boolean)
+ * @see Viewport#setCached(boolean)
+ */
+final class TileCache {
+
+	/**
+	 * The width and height of a tile in the coordinates of the host's children.
+	 */
+	static final int TILE_SIZE = 256;
+
+	/**
+	 * The maximum number of tiles kept in memory.
+	 */
+	static final int MAX_TILES = 256;
+
+	/**
+	 * The delay in milliseconds before tiles are rendered ahead of time.
+	 */
+	private static final int PREFETCH_DELAY = 100;
+
+	private final IFigure host;
+	private final Consumer<Graphics> painter;
+	private final UpdateManager updateManager = new DamageTracker();
+	private double scale = 1.0;
+
+	private final List<Long> prefetchQueue = new ArrayList<>();
+	private boolean prefetchScheduled;
+	private boolean disposed;
+
+	private final Map<Long, Image> tiles = new LinkedHashMap<>(16, 0.75f, true) {
+		private static final long serialVersionUID = 1L;
+
+		@Override
+		protected boolean removeEldestEntry(Map.Entry<Long, Image> eldest) {
+			if (size() > MAX_TILES) {
+				eldest.getValue().dispose();
+				return true;
+			}
+			return false;
+		}
+	};
+
+	/**
+	 * Forwards all requests to the update manager of the host's parent and
+	 * discards the tiles affected by dirty regions.
+	 */
+	private class DamageTracker extends UpdateManager {
+
+		@Override
+		public void addDirtyRegion(IFigure figure, int x, int y, int w, int h) {
+			if (w != 0 && h != 0) {
+				Rectangle rect = new Rectangle(x, y, w, h);
+				if (figure == host) {
+					host.translateFromParent(rect);
+					invalidate(rect);
+				} else {
+					IFigure walker = figure.getParent();
+					while (walker != null && walker != host) {
+						walker.translateToParent(rect);
+						walker = walker.getParent();
+					}
+					if (walker == host) {
+						invalidate(rect);
+					}
+				}
+			}
+			getSuperior().addDirtyRegion(figure, x, y, w, h);
+		}
+
+		@Override
+		public void addInvalidFigure(IFigure figure) {
+			getSuperior().addInvalidFigure(figure);
+		}
+
+		@Override
+		public void addProfileListener(UpdateProfileListener listener) {
+			getSuperior().addProfileListener(listener);
+		}
+
+		@Override
+		public void addUpdateListener(UpdateListener listener) {
+			getSuperior().addUpdateListener(listener);
+		}
+
+		private UpdateManager getSuperior() {
+			IFigure parent = host.getParent();
+			if (parent == null) {
+				return Figure.NO_MANAGER;
+			}
+			return parent.getUpdateManager();
+		}
+
+		@Override
+		public void performUpdate() {
+			getSuperior().performUpdate();
+		}
+
+		@Override
+		public void performUpdate(Rectangle exposed) {
+			getSuperior().performUpdate(exposed);
+		}
+
+		@Override
+		public void performValidation() {
+			getSuperior().performValidation();
+		}
+
+		@Override
+		public void removeProfileListener(UpdateProfileListener listener) {
+			getSuperior().removeProfileListener(listener);
+		}
+
+		@Override
+		public void removeUpdateListener(UpdateListener listener) {
+			getSuperior().removeUpdateListener(listener);
+		}
+
+		@Override
+		public void runWithUpdate(Runnable run) {
+			getSuperior().runWithUpdate(run);
+		}
+
+		@Override
+		public void setGraphicsSource(GraphicsSource gs) {
+			// only the update manager of the root figure has a graphics source
+		}
+
+		@Override
+		public void setRoot(IFigure figure) {
+			// only the update manager of the root figure has a root
+		}
+	}
+
+	/**
+	 * Creates a new tile cache for the children of the given figure.
+	 *
+	 * @param host    the figure whose children are cached
+	 * @param painter paints the children of the host without using the cache
+	 */
+	TileCache(IFigure host, Consumer<Graphics> painter) {
+		this.host = host;
+		this.painter = painter;
+	}
+
+	private Image createTile(int size) {
+		Display display = Display.getCurrent();
+		if (host.isOpaque()) {
+			return new Image(display, size, size);
+		}
+		ImageData data = new ImageData(size, size, 24, new PaletteData(0xFF0000, 0xFF00, 0xFF));
+		data.alphaData = new byte[size * size];
+		return new Image(display, data);
+	}
+
+	/**
+	 * Disposes all tiles. No tiles are rendered ahead of time until the host is
+	 * painted again.
+	 */
+	void dispose() {
+		tiles.values().forEach(Image::dispose);
+		tiles.clear();
+		prefetchQueue.clear();
+		disposed = true;
+	}
+
+	/**
+	 * Returns the update manager to be used by the descendants of the host.
+	 *
+	 * @return the update manager tracking damage
+	 */
+	UpdateManager getUpdateManager() {
+		return updateManager;
+	}
+
+	/**
+	 * Disposes the tiles intersecting the given rectangle.
+	 *
+	 * @param rect the damaged rectangle in the coordinates of the host's children
+	 */
+	void invalidate(Rectangle rect) {
+		if (tiles.isEmpty()) {
+			return;
+		}
+		int x1 = Math.floorDiv(rect.x, TILE_SIZE);
+		int y1 = Math.floorDiv(rect.y, TILE_SIZE);
+		int x2 = Math.floorDiv(rect.right() - 1, TILE_SIZE);
+		int y2 = Math.floorDiv(rect.bottom() - 1, TILE_SIZE);
+		if ((long) (x2 - x1 + 1) * (y2 - y1 + 1) > tiles.size()) {
+			for (Iterator<Map.Entry<Long, Image>> iter = tiles.entrySet().iterator(); iter.hasNext();) {
+				Map.Entry<Long, Image> entry = iter.next();
+				long key = entry.getKey().longValue();
+				int tx = (int) (key >> 32);
+				int ty = (int) key;
+				if (tx >= x1 && tx <= x2 && ty >= y1 && ty <= y2) {
+					entry.getValue().dispose();
+					iter.remove();
+				}
+			}
+		} else {
+			for (int tx = x1; tx <= x2; tx++) {
+				for (int ty = y1; ty <= y2; ty++) {
+					Image tile = tiles.remove(key(tx, ty));
+					if (tile != null) {
+						tile.dispose();
+					}
+				}
+			}
+		}
+	}
+
+	private static Long key(int tx, int ty) {
+		return Long.valueOf(((long) tx << 32) | (ty & 0xFFFFFFFFL));
+	}
+
+	/**
+	 * Paints the host's children by drawing the tiles intersecting the clip of
+	 * the given graphics. Missing tiles are rendered first.
+	 *
+	 * @param graphics the graphics, in the coordinates of the host's children
+	 */
+	void paint(Graphics graphics) {
+		double absoluteScale = graphics.getAbsoluteScale();
+		if (absoluteScale != scale) {
+			dispose();
+			scale = absoluteScale;
+		}
+		disposed = false;
+		Rectangle clip = graphics.getClip(new Rectangle());
+		if (clip.isEmpty()) {
+			return;
+		}
+		int size = (int) Math.ceil(TILE_SIZE * scale);
+		int x1 = Math.floorDiv(clip.x, TILE_SIZE);
+		int y1 = Math.floorDiv(clip.y, TILE_SIZE);
+		int x2 = Math.floorDiv(clip.right() - 1, TILE_SIZE);
+		int y2 = Math.floorDiv(clip.bottom() - 1, TILE_SIZE);
+		for (int tx = x1; tx <= x2; tx++) {
+			for (int ty = y1; ty <= y2; ty++) {
+				Image tile = getTile(tx, ty, size, graphics.profile);
+				graphics.drawImage(tile, 0, 0, size, size, tx * TILE_SIZE, ty * TILE_SIZE, TILE_SIZE, TILE_SIZE);
+			}
+		}
+	}
+
+	/**
+	 * Schedules the rendering of the tiles which become visible next, if the
+	 * visible area keeps moving in the given direction. The tiles are rendered one
+	 * at a time once the UI thread is idle.
+	 *
+	 * @param visible the visible area in the coordinates of the host's children
+	 * @param dx      the horizontal direction of movement
+	 * @param dy      the vertical direction of movement
+	 */
+	void prefetch(Rectangle visible, int dx, int dy) {
+		Display display = Display.getCurrent();
+		if (display == null || disposed || !host.isShowing() || visible.isEmpty() || (dx == 0 && dy == 0)) {
+			return;
+		}
+		Rectangle ahead = visible.getTranslated(Integer.signum(dx) * TILE_SIZE, Integer.signum(dy) * TILE_SIZE);
+		prefetchQueue.clear();
+		int x1 = Math.floorDiv(ahead.x, TILE_SIZE);
+		int y1 = Math.floorDiv(ahead.y, TILE_SIZE);
+		int x2 = Math.floorDiv(ahead.right() - 1, TILE_SIZE);
+		int y2 = Math.floorDiv(ahead.bottom() - 1, TILE_SIZE);
+		for (int tx = x1; tx <= x2; tx++) {
+			for (int ty = y1; ty <= y2; ty++) {
+				Long key = key(tx, ty);
+				if (!tiles.containsKey(key)) {
+					prefetchQueue.add(key);
+				}
+			}
+		}
+		if (!prefetchQueue.isEmpty() && !prefetchScheduled) {
+			prefetchScheduled = true;
+			display.timerExec(PREFETCH_DELAY, this::prefetchNext);
+		}
+	}
+
+	private void prefetchNext() {
+		prefetchScheduled = false;
+		if (disposed || prefetchQueue.isEmpty() || !host.isShowing()) {
+			prefetchQueue.clear();
+			return;
+		}
+		long key = prefetchQueue.remove(0).longValue();
+		getTile((int) (key >> 32), (int) key, (int) Math.ceil(TILE_SIZE * scale), null);
+		if (!prefetchQueue.isEmpty()) {
+			prefetchScheduled = true;
+			Display.getCurrent().asyncExec(this::prefetchNext);
+		}
+	}
+
+	private Image getTile(int tx, int ty, int size, UpdateProfile profile) {
+		Long key = key(tx, ty);
+		Image tile = tiles.get(key);
+		if (tile == null) {
+			tile = createTile(size);
+			render(tile, size, tx, ty, profile);
+			tiles.put(key, tile);
+		}
+		return tile;
+	}
+
+	private void render(Image tile, int size, int tx, int ty, UpdateProfile profile) {
+		GC gc = new GC(tile, host.isMirrored() ? SWT.RIGHT_TO_LEFT : SWT.NONE);
+		SWTGraphics graphics = new SWTGraphics(gc);
+		graphics.profile = profile;
+		if (host.getBackgroundColor() != null) {
+			graphics.setBackgroundColor(host.getBackgroundColor());
+		}
+		if (host.isOpaque()) {
+			graphics.fillRectangle(0, 0, size, size);
+		}
+		graphics.translate((float) (-tx * TILE_SIZE * scale), (float) (-ty * TILE_SIZE * scale));
+		if (scale != 1.0) {
+			graphics.scale(scale);
+		}
+		graphics.clipRect(new Rectangle(tx * TILE_SIZE, ty * TILE_SIZE, TILE_SIZE, TILE_SIZE));
+		if (host.getForegroundColor() != null) {
+			graphics.setForegroundColor(host.getForegroundColor());
+		}
+		if (host.getFont() != null) {
+			graphics.setFont(host.getFont());
+		}
+		graphics.pushState();
+		painter.accept(graphics);
+		graphics.popState();
+		graphics.dispose();
+		gc.dispose();
+	}
+
+}
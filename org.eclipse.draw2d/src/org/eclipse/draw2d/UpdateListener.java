@@ -40,4 +40,18 @@ public interface UpdateListener {
 	 */
 	void notifyValidating();
 
+	/**
+	 * Notifies the listener that an update has been performed. Requests for
+	 * updates which arrive while an update is already pending are merged into the
+	 * pending update. If the update manager uses an {@link UpdateScheduler} which
+	 * limits the frame rate, the requests merged while the update was held back
+	 * are also reported as dropped frames.
+	 *
+	 * @param mergedRequests the number of update requests merged into this update
+	 * @param droppedFrames  the number of frames dropped before this update
+	 * @since 3.16
+	 */
+	default void notifyUpdatePerformed(int mergedRequests, int droppedFrames) {
+	}
+
 }
@@ -46,6 +46,7 @@ import org.eclipse.draw2d.geometry.Rectangle;
 public abstract class UpdateManager {
 
 	private final List<UpdateListener> listeners = new ArrayList<>();
+	private final List<UpdateProfileListener> profileListeners = new ArrayList<>();
 	private boolean disposed;
 
 	/**
@@ -86,6 +87,21 @@ public abstract class UpdateManager {
 	 */
 	public abstract void addInvalidFigure(IFigure figure);
 
+	/**
+	 * Adds the given listener to the list of listeners to be notified of the
+	 * measurements taken during each update. Update managers which support
+	 * profiling only take measurements while profile listeners are registered.
+	 *
+	 * @param listener the listener to add
+	 * @since 3.16
+	 */
+	public void addProfileListener(UpdateProfileListener listener) {
+		if (listener == null) {
+			throw new IllegalArgumentException();
+		}
+		profileListeners.add(listener);
+	}
+
 	/**
 	 * Adds the given listener to the list of listeners to be notified of painting
 	 * and validation.
@@ -117,6 +133,16 @@ public abstract class UpdateManager {
 		listeners.forEach(localListener -> localListener.notifyPainting(damage, dirtyRegions));
 	}
 
+	/**
+	 * Notifies profile listeners of the measurements taken during an update.
+	 *
+	 * @param profile the measurements of the update
+	 * @since 3.16
+	 */
+	protected void fireProfiled(UpdateProfile profile) {
+		profileListeners.forEach(localListener -> localListener.updateProfiled(profile));
+	}
+
 	/**
 	 * Notifies listeners that validation is about to occur.
 	 */
@@ -124,6 +150,17 @@ public abstract class UpdateManager {
 		listeners.forEach(UpdateListener::notifyValidating);
 	}
 
+	/**
+	 * Notifies listeners that an update has been performed.
+	 *
+	 * @param mergedRequests the number of update requests merged into the update
+	 * @param droppedFrames  the number of frames dropped before the update
+	 * @since 3.16
+	 */
+	protected void fireUpdatePerformed(int mergedRequests, int droppedFrames) {
+		listeners.forEach(localListener -> localListener.notifyUpdatePerformed(mergedRequests, droppedFrames));
+	}
+
 	/**
 	 * @return whether this update manager has been disposed.
 	 */
@@ -131,6 +168,17 @@ public abstract class UpdateManager {
 		return disposed;
 	}
 
+	/**
+	 * Returns <code>true</code> if profile listeners are registered, i.e. if
+	 * updates should be measured.
+	 *
+	 * @return whether updates are profiled
+	 * @since 3.16
+	 */
+	protected boolean isProfiling() {
+		return !profileListeners.isEmpty();
+	}
+
 	/**
 	 * Forces an update to occur. Update managers will perform updates
 	 * automatically, but may do so asynchronously. Calling this method forces a
@@ -159,6 +207,19 @@ public abstract class UpdateManager {
 	 */
 	public abstract void performUpdate(Rectangle exposed);
 
+	/**
+	 * Removes one occurrence of the given UpdateProfileListener by identity.
+	 *
+	 * @param listener the listener to remove
+	 * @since 3.16
+	 */
+	public void removeProfileListener(UpdateProfileListener listener) {
+		if (listener == null) {
+			throw new IllegalArgumentException();
+		}
+		profileListeners.remove(listener);
+	}
+
 	/**
 	 * Removes one occurrence of the given UpdateListener by identity.
 	 *
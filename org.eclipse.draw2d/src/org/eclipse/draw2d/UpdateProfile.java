@@ -0,0 +1,190 @@
+/*******************************************************************************
+ * Copyright (c) 2026 agent and others.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0.
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     agent - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.draw2d;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+
+import org.eclipse.draw2d.geometry.Rectangle;
+
+/**
+ * The measurements taken during a single update cycle of an
+ * {@link UpdateManager}. Profiles are only recorded while at least one
+ * {@link UpdateProfileListener} is registered with the update manager.
+ * <P>
+ * Paint times are recorded per figure class and exclude the time spent painting
+ * the children of a figure. Graphics calls are counted for the drawing
+ * operations of {@link SWTGraphics}.
+ *
+ * @see UpdateManager#addProfileListener(UpdateProfileListener)
+ * @since 3.16
+ */
+public final class UpdateProfile {
+
+	/**
+	 * Index of the count of line and outline drawing operations.
+	 */
+	public static final int DRAW = 0;
+
+	/**
+	 * Index of the count of fill operations.
+	 */
+	public static final int FILL = 1;
+
+	/**
+	 * Index of the count of text drawing operations.
+	 */
+	public static final int TEXT = 2;
+
+	/**
+	 * Index of the count of image drawing operations.
+	 */
+	public static final int IMAGE = 3;
+
+	private long validationTime;
+	private int validatedFigures;
+	private long paintTime;
+	private long damageArea;
+	private Rectangle damage;
+	private final int[] graphicsCalls = new int[4];
+	private final Map<Class<?>, long[]> paintTimes = new HashMap<>();
+
+	private long[] paintStack = new long[32];
+	private int paintDepth;
+
+	UpdateProfile() {
+	}
+
+	void countGraphicsCall(int kind) {
+		graphicsCalls[kind]++;
+	}
+
+	void addDamage(Rectangle region) {
+		damageArea += (long) region.width * region.height;
+		if (damage == null) {
+			damage = new Rectangle(region);
+		} else {
+			damage.union(region);
+		}
+	}
+
+	void addPaintTime(long time) {
+		paintTime += time;
+	}
+
+	void addValidationTime(long time) {
+		validationTime += time;
+	}
+
+	/**
+	 * Records the start of painting a figure. Each element on the stack consists
+	 * of the start time and the time spent painting children.
+	 */
+	void beginPaint() {
+		if (paintDepth * 2 + 2 > paintStack.length) {
+			long[] stack = new long[paintStack.length * 2];
+			System.arraycopy(paintStack, 0, stack, 0, paintStack.length);
+			paintStack = stack;
+		}
+		paintStack[paintDepth * 2] = System.nanoTime();
+		paintStack[paintDepth * 2 + 1] = 0;
+		paintDepth++;
+	}
+
+	void endPaint(IFigure figure) {
+		paintDepth--;
+		long elapsed = System.nanoTime() - paintStack[paintDepth * 2];
+		paintTimes.computeIfAbsent(figure.getClass(), c -> new long[1])[0] += elapsed
+				- paintStack[paintDepth * 2 + 1];
+		if (paintDepth > 0) {
+			paintStack[paintDepth * 2 - 1] += elapsed;
+		}
+	}
+
+	void figureValidated() {
+		validatedFigures++;
+	}
+
+	/**
+	 * Returns the union of all regions painted during the update or
+	 * <code>null</code> if nothing was painted.
+	 *
+	 * @return the damaged rectangle in root coordinates
+	 */
+	public Rectangle getDamage() {
+		return damage;
+	}
+
+	/**
+	 * Returns the total area of all regions painted during the update. Regions
+	 * which are painted more than once are counted each time.
+	 *
+	 * @return the damaged area in square pixels
+	 */
+	public long getDamageArea() {
+		return damageArea;
+	}
+
+	/**
+	 * Returns the number of operations of the given kind performed on an
+	 * {@link SWTGraphics} during the update.
+	 *
+	 * @param kind one of {@link #DRAW}, {@link #FILL}, {@link #TEXT} or
+	 *             {@link #IMAGE}
+	 * @return the number of graphics calls
+	 */
+	public int getGraphicsCalls(int kind) {
+		return graphicsCalls[kind];
+	}
+
+	/**
+	 * Returns the time spent painting during the update.
+	 *
+	 * @return the paint time in nanoseconds
+	 */
+	public long getPaintTime() {
+		return paintTime;
+	}
+
+	/**
+	 * Returns the time spent painting figures of each class, excluding the time
+	 * spent painting their children.
+	 *
+	 * @return a map of figure classes to paint times in nanoseconds
+	 */
+	public Map<Class<?>, Long> getPaintTimes() {
+		Map<Class<?>, Long> result = new HashMap<>();
+		paintTimes.forEach((type, time) -> result.put(type, Long.valueOf(time[0])));
+		return Collections.unmodifiableMap(result);
+	}
+
+	/**
+	 * Returns the number of figures which were validated during the update.
+	 *
+	 * @return the number of validated figures
+	 */
+	public int getValidatedFigures() {
+		return validatedFigures;
+	}
+
+	/**
+	 * Returns the time spent validating figures during the update.
+	 *
+	 * @return the validation time in nanoseconds
+	 */
+	public long getValidationTime() {
+		return validationTime;
+	}
+
+}
@@ -0,0 +1,142 @@
+/*******************************************************************************
+ * Copyright (c) 2026 agent and others.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0.
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     agent - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.draw2d;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import org.eclipse.swt.widgets.Display;
+
+import org.eclipse.draw2d.geometry.Rectangle;
+
+/**
+ * A label which displays the measurements of the most recent update of the
+ * update manager it is added to. The figure registers itself as an
+ * {@link UpdateProfileListener} while it is showing, so updates are only
+ * profiled while the overlay is part of a figure hierarchy.
+ * <P>
+ * The text is refreshed at most every {@link #REFRESH_DELAY} milliseconds.
+ * Updates which only repaint the figure itself are ignored, so the overlay does
+ * not report its own refreshes.
+ *
+ * @since 3.16
+ */
+public class UpdateProfileFigure extends Label implements UpdateProfileListener {
+
+	/**
+	 * The minimum time in milliseconds between two refreshes of the text.
+	 */
+	public static final int REFRESH_DELAY = 500;
+
+	private static final int TOP_FIGURE_CLASSES = 3;
+	private static final double NANOS_PER_MILLI = 1000000.0;
+
+	private UpdateManager manager;
+	private UpdateProfile profile;
+	private boolean refreshQueued;
+
+	/**
+	 * Constructs a new overlay figure.
+	 */
+	public UpdateProfileFigure() {
+		setLabelAlignment(PositionConstants.LEFT);
+		setOpaque(true);
+		setBorder(new MarginBorder(2));
+		setBackgroundColor(ColorConstants.tooltipBackground);
+		setForegroundColor(ColorConstants.tooltipForeground);
+	}
+
+	/**
+	 * @see IFigure#addNotify()
+	 */
+	@Override
+	public void addNotify() {
+		super.addNotify();
+		manager = getUpdateManager();
+		manager.addProfileListener(this);
+	}
+
+	/**
+	 * Returns the text which is displayed for the given profile.
+	 *
+	 * @param profile the profile to display
+	 * @return the formatted measurements
+	 */
+	protected String format(UpdateProfile profile) {
+		StringBuilder text = new StringBuilder();
+		text.append(String.format("validate: %d figures, %.2f ms%n", //$NON-NLS-1$
+				Integer.valueOf(profile.getValidatedFigures()), toMillis(profile.getValidationTime())));
+		text.append(String.format("paint: %.2f ms, %d px%n", //$NON-NLS-1$
+				toMillis(profile.getPaintTime()), Long.valueOf(profile.getDamageArea())));
+		text.append(String.format("draw: %d, fill: %d, text: %d, image: %d", //$NON-NLS-1$
+				Integer.valueOf(profile.getGraphicsCalls(UpdateProfile.DRAW)),
+				Integer.valueOf(profile.getGraphicsCalls(UpdateProfile.FILL)),
+				Integer.valueOf(profile.getGraphicsCalls(UpdateProfile.TEXT)),
+				Integer.valueOf(profile.getGraphicsCalls(UpdateProfile.IMAGE))));
+		List<Map.Entry<Class<?>, Long>> paintTimes = new ArrayList<>(profile.getPaintTimes().entrySet());
+		paintTimes.sort(Map.Entry.<Class<?>, Long>comparingByValue().reversed());
+		paintTimes.stream().limit(TOP_FIGURE_CLASSES)
+				.forEach(entry -> text.append(String.format("%n%s: %.2f ms", //$NON-NLS-1$
+						entry.getKey().getSimpleName(), toMillis(entry.getValue().longValue()))));
+		return text.toString();
+	}
+
+	private void refresh() {
+		refreshQueued = false;
+		if (profile != null && manager != null) {
+			setText(format(profile));
+		}
+	}
+
+	/**
+	 * @see IFigure#removeNotify()
+	 */
+	@Override
+	public void removeNotify() {
+		manager.removeProfileListener(this);
+		manager = null;
+		super.removeNotify();
+	}
+
+	private static Double toMillis(long nanos) {
+		return Double.valueOf(nanos / NANOS_PER_MILLI);
+	}
+
+	/**
+	 * Remembers the given profile and schedules a refresh of the text, unless only
+	 * this figure has been repainted.
+	 *
+	 * @see UpdateProfileListener#updateProfiled(UpdateProfile)
+	 */
+	@Override
+	public void updateProfiled(UpdateProfile profile) {
+		Rectangle damage = profile.getDamage();
+		if (damage != null) {
+			Rectangle bounds = getBounds().getCopy();
+			translateToAbsolute(bounds);
+			if (bounds.contains(damage)) {
+				return;
+			}
+		}
+		this.profile = profile;
+		if (!refreshQueued) {
+			Display display = Display.getCurrent();
+			if (display != null) {
+				refreshQueued = true;
+				display.timerExec(REFRESH_DELAY, this::refresh);
+			}
+		}
+	}
+
+}
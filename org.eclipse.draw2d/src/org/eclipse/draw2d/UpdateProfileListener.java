@@ -0,0 +1,32 @@
+/*******************************************************************************
+ * Copyright (c) 2026 agent and others.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0.
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     agent - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.draw2d;
+
+/**
+ * A listener which is notified of the measurements taken during each update
+ * cycle of an {@link UpdateManager}. Update managers only take measurements
+ * while profile listeners are registered.
+ *
+ * @see UpdateManager#addProfileListener(UpdateProfileListener)
+ * @since 3.16
+ */
+public interface UpdateProfileListener {
+
+	/**
+	 * Notifies the listener that an update cycle has been completed.
+	 *
+	 * @param profile the measurements of the update cycle
+	 */
+	void updateProfiled(UpdateProfile profile);
+
+}
@@ -0,0 +1,68 @@
+/*******************************************************************************
+ * Copyright (c) 2026 agent and others.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0.
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     agent - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.draw2d;
+
+/**
+ * Decides when the updates of a {@link DeferredUpdateManager} are performed.
+ * Once work has been queued, the update manager asks its scheduler to run an
+ * update. Any further damage and invalidation is merged into that update until
+ * it is performed, so a scheduler which delays updates reduces the number of
+ * updates.
+ *
+ * @see DeferredUpdateManager#setUpdateScheduler(UpdateScheduler)
+ * @see FrameRateUpdateScheduler
+ * @since 3.16
+ */
+public interface UpdateScheduler {
+
+	/**
+	 * Arranges for the given update to be run on the UI thread. This method is
+	 * called on the UI thread, at most once until the update has been run. An
+	 * update manager passes the same update each time, so a scheduler shared by
+	 * several update managers can keep state for each of them.
+	 *
+	 * @param update the update to run
+	 */
+	void scheduleUpdate(Runnable update);
+
+	/**
+	 * Notifies the scheduler that another update request has been merged into the
+	 * given update while it is pending.
+	 *
+	 * @param update the pending update
+	 */
+	default void updateMerged(Runnable update) {
+	}
+
+	/**
+	 * Notifies the scheduler that the given update has been performed directly,
+	 * before the scheduler ran it. The pending run is no longer needed and should
+	 * be discarded. The update may be scheduled again afterwards.
+	 *
+	 * @param update the update which has been performed
+	 */
+	default void cancelUpdate(Runnable update) {
+	}
+
+	/**
+	 * Returns the number of frames which have been dropped before the update
+	 * which is currently performed, because requests which would have been painted
+	 * in frames of their own were merged into it.
+	 *
+	 * @return the number of dropped frames
+	 */
+	default int getDroppedFrames() {
+		return 0;
+	}
+
+}
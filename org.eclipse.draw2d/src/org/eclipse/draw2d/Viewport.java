@@ -34,6 +34,7 @@ public class Viewport extends Figure implements PropertyChangeListener {
 	private boolean trackHeight = false;
 	private boolean ignoreScroll = false;
 	private RangeModel horiztonalRangeModel = null, verticalRangeModel = null;
+	private TileCache tileCache;
 
 	{
 		setLayoutManager(new ViewportLayout());
@@ -69,6 +70,20 @@ public class Viewport extends Figure implements PropertyChangeListener {
 		return rect;
 	}
 
+	/**
+	 * Returns the update manager of the parent, or an update manager which tracks
+	 * the damage of the cached contents if this viewport is cached.
+	 *
+	 * @see #setCached(boolean)
+	 */
+	@Override
+	public UpdateManager getUpdateManager() {
+		if (tileCache != null) {
+			return tileCache.getUpdateManager();
+		}
+		return super.getUpdateManager();
+	}
+
 	/**
 	 * Returns the view, which is the contents of the {@link ScrollPane} associated
 	 * with this Viewport.
@@ -148,6 +163,32 @@ public class Viewport extends Figure implements PropertyChangeListener {
 		getUpdateManager().addInvalidFigure(this);
 	}
 
+	/**
+	 * Returns <code>true</code> if the contents of this viewport are rendered into
+	 * cached images.
+	 *
+	 * @return whether this viewport is cached
+	 * @see #setCached(boolean)
+	 * @since 3.16
+	 */
+	public boolean isCached() {
+		return tileCache != null;
+	}
+
+	/**
+	 * Paints the contents from the cached images if this viewport is cached.
+	 *
+	 * @see Figure#paintChildren(Graphics)
+	 */
+	@Override
+	protected void paintChildren(Graphics graphics) {
+		if (tileCache != null) {
+			tileCache.paint(graphics);
+		} else {
+			super.paintChildren(graphics);
+		}
+	}
+
 	/**
 	 * @see Figure#paintClientArea(Graphics)
 	 */
@@ -189,10 +230,20 @@ public class Viewport extends Figure implements PropertyChangeListener {
 				if (!ignoreScroll) {
 					localRevalidate();
 					if (useGraphicsTranslate()) {
-						repaint();
+						if (tileCache != null) {
+							// scrolling does not change the cached contents
+							super.getUpdateManager().addDirtyRegion(this, getBounds());
+						} else {
+							repaint();
+						}
 						fireMoved();
 					}
 				}
+				if (tileCache != null) {
+					int delta = (Integer) event.getNewValue() - (Integer) event.getOldValue();
+					boolean horizontal = event.getSource() == getHorizontalRangeModel();
+					tileCache.prefetch(getClientArea(new Rectangle()), horizontal ? delta : 0, horizontal ? 0 : delta);
+				}
 				firePropertyChange(PROPERTY_VIEW_LOCATION, event.getOldValue(), event.getNewValue());
 			}
 		}
@@ -213,6 +264,48 @@ public class Viewport extends Figure implements PropertyChangeListener {
 		getHorizontalRangeModel().setAll(0, getClientArea().width, getContents().getBounds().width);
 	}
 
+	/**
+	 * Disposes the cached images.
+	 *
+	 * @see Figure#removeNotify()
+	 */
+	@Override
+	public void removeNotify() {
+		if (tileCache != null) {
+			tileCache.dispose();
+		}
+		super.removeNotify();
+	}
+
+	/**
+	 * Sets whether the contents of this viewport are rendered into cached images.
+	 * A cached viewport renders its contents into image tiles in the coordinates of
+	 * the contents, and draws these images on subsequent paints. Scrolling over
+	 * areas which have been visible before therefore only draws the cached images.
+	 * While scrolling, the tiles ahead of the scrolling direction are rendered
+	 * when the UI thread is idle. A tile is only rendered again once a descendant
+	 * of this viewport reports damage within it.
+	 * <P>
+	 * Caching is only effective if this viewport uses graphics translation, which
+	 * is the case for the viewport of a {@link FigureCanvas}. The same limitations
+	 * as for {@link Layer#setCached(boolean)} apply.
+	 *
+	 * @param cached <code>true</code> to cache the contents of this viewport
+	 * @since 3.16
+	 */
+	public void setCached(boolean cached) {
+		if (cached == isCached()) {
+			return;
+		}
+		if (cached) {
+			tileCache = new TileCache(this, super::paintChildren);
+		} else {
+			tileCache.dispose();
+			tileCache = null;
+		}
+		repaint();
+	}
+
 	/**
 	 * Sets this Viewport to be associated with the passed Figure.
 	 *
@@ -0,0 +1,249 @@
+/*******************************************************************************
+ * Copyright (c) 2026 agent and others.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0.
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     agent - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.draw2d.graph;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.eclipse.draw2d.geometry.Rectangle;
+
+/**
+ * Determines the paths which are offset by an incremental solve of the
+ * ShortestPathRouting. Paths only affect each other through the corners they
+ * bend around: paths sharing a corner are ordered and offset together, and the
+ * more paths bend around a corner, the further it is grown into the paths
+ * passing by. Starting from the solved paths and the paths close to changed
+ * obstacles, the affected paths are therefore extended by
+ * <ul>
+ * <li>all paths which share a corner with an affected path,</li>
+ * <li>all paths which bend around an obstacle close to a segment of an affected
+ * path and</li>
+ * <li>all paths close to an obstacle whose corners are bent around by a
+ * different number of paths than in the previous solution.</li>
+ * </ul>
+ *
+ * This class is for internal use only.
+ */
+class AffectedPaths {
+
+	private final Set<Path> paths = Collections.newSetFromMap(new IdentityHashMap<>());
+	private final List<Path> queue = new ArrayList<>();
+	private final Set<Path> solvedPaths = Collections.newSetFromMap(new IdentityHashMap<>());
+
+	/**
+	 * The unsolved paths bending around a vertex in the previous solution.
+	 */
+	private final Map<Vertex, List<Path>> owners = new IdentityHashMap<>();
+	/**
+	 * The number of paths bending around a vertex in the previous solution.
+	 */
+	private final Map<Vertex, Integer> previousCounts = new IdentityHashMap<>();
+	private final List<Vertex> previousVertices = new ArrayList<>();
+	private final Map<Obstacle, Integer> queriedMargins = new IdentityHashMap<>();
+
+	private final SpatialIndex<Path> pathIndex;
+	private final SpatialIndex<Obstacle> obstacleIndex;
+	private final int spacing;
+	private int maxCount;
+
+	/**
+	 * Creates the initial affected paths.
+	 *
+	 * @param workingPaths     the working paths
+	 * @param solvedPaths      the working paths solved since the previous solution
+	 * @param releasedVertices the vertices of the previous solution of the solved
+	 *                         and removed paths
+	 * @param changedRegions   the bounds of the added and removed obstacles
+	 * @param pathIndex        the index of the previous solution
+	 * @param obstacleIndex    the index of the current obstacles
+	 * @param spacing          the path spacing
+	 */
+	AffectedPaths(List<Path> workingPaths, List<Path> solvedPaths, List<Vertex> releasedVertices,
+			List<Rectangle> changedRegions, SpatialIndex<Path> pathIndex, SpatialIndex<Obstacle> obstacleIndex,
+			int spacing) {
+		this.pathIndex = pathIndex;
+		this.obstacleIndex = obstacleIndex;
+		this.spacing = spacing;
+		this.solvedPaths.addAll(solvedPaths);
+
+		for (Path path : workingPaths) {
+			if (!this.solvedPaths.contains(path)) {
+				for (Vertex vertex : path.getBendVertices()) {
+					owners.computeIfAbsent(vertex, v -> new ArrayList<>(2)).add(path);
+					incrementPreviousCount(vertex);
+				}
+			}
+		}
+		releasedVertices.forEach(this::incrementPreviousCount);
+
+		solvedPaths.forEach(this::add);
+		// corners close to a changed obstacle may be limited by it
+		int margin = (3 * maxCount + 2) * spacing;
+		for (Rectangle region : changedRegions) {
+			addPathsNear(region, margin);
+		}
+		for (Vertex vertex : releasedVertices) {
+			addOwners(vertex);
+			previousVertices.add(vertex);
+		}
+		processQueue();
+		for (Vertex vertex : releasedVertices) {
+			checkCount(vertex);
+		}
+		processQueue();
+	}
+
+	/**
+	 * Extends the affected paths by the paths affected by the grown segments of
+	 * the active paths.
+	 *
+	 * @param activePaths the active paths
+	 * @return <code>true</code> if paths have been added
+	 */
+	boolean expand(List<Path> activePaths) {
+		int size = paths.size();
+		for (Path path : activePaths) {
+			for (Segment segment : path.grownSegments) {
+				addOwners(segment.end);
+				addOwnersNear(segment);
+			}
+		}
+		processQueue();
+		if (paths.size() != size) {
+			return true;
+		}
+
+		// all paths sharing a corner with an active path are active now
+		for (Path path : activePaths) {
+			for (Segment segment : path.grownSegments) {
+				checkCount(segment.end);
+			}
+		}
+		previousVertices.forEach(this::checkCount);
+		processQueue();
+		return paths.size() != size;
+	}
+
+	/**
+	 * Returns the affected paths in the order of the given working paths.
+	 *
+	 * @param workingPaths the working paths
+	 * @return the affected working paths
+	 */
+	List<Path> getActivePaths(List<Path> workingPaths) {
+		List<Path> result = new ArrayList<>(paths.size());
+		for (Path path : workingPaths) {
+			if (paths.contains(path)) {
+				result.add(path);
+			}
+		}
+		return result;
+	}
+
+	private void add(Path path) {
+		if (paths.add(path)) {
+			queue.add(path);
+		}
+	}
+
+	private void addOwners(Vertex vertex) {
+		List<Path> list = owners.get(vertex);
+		if (list != null) {
+			list.forEach(this::add);
+		}
+	}
+
+	/**
+	 * Adds the paths bending around an obstacle which may be grown into the given
+	 * segment.
+	 */
+	private void addOwnersNear(Segment segment) {
+		Rectangle bounds = new Rectangle(segment.start, segment.end);
+		int margin = (maxCount + 1) * spacing + 1;
+		for (Obstacle obs : obstacleIndex.query(bounds.getExpanded(margin, margin))) {
+			int count = Math.max(Math.max(getPreviousCount(obs.topLeft), getPreviousCount(obs.topRight)),
+					Math.max(getPreviousCount(obs.bottomLeft), getPreviousCount(obs.bottomRight)));
+			int obsMargin = (count + 1) * spacing + 1;
+			if (count > 0 && obs.getExpanded(obsMargin, obsMargin).intersects(bounds)) {
+				addOwners(obs.topLeft);
+				addOwners(obs.topRight);
+				addOwners(obs.bottomLeft);
+				addOwners(obs.bottomRight);
+			}
+		}
+	}
+
+	private void addPathsNear(Rectangle region, int margin) {
+		pathIndex.query(region.getExpanded(margin, margin)).forEach(this::add);
+	}
+
+	/**
+	 * Adds the paths close to the obstacle of the given vertex if the number of
+	 * paths bending around the vertex has changed.
+	 */
+	private void checkCount(Vertex vertex) {
+		Obstacle obs = vertex.obs;
+		if (obs == null || vertex.totalCount == getPreviousCount(vertex)) {
+			return;
+		}
+		int count = Math.max(Math.max(getMaxCount(obs.topLeft), getMaxCount(obs.topRight)),
+				Math.max(getMaxCount(obs.bottomLeft), getMaxCount(obs.bottomRight)));
+		// a corner grows by at most the spacing for each path bending around it
+		int margin = (count + 2) * spacing;
+		Integer queried = queriedMargins.get(obs);
+		if (queried == null || queried.intValue() < margin) {
+			queriedMargins.put(obs, Integer.valueOf(margin));
+			addPathsNear(obs, margin);
+		}
+	}
+
+	private int getMaxCount(Vertex vertex) {
+		return Math.max(vertex.totalCount, getPreviousCount(vertex));
+	}
+
+	private int getPreviousCount(Vertex vertex) {
+		Integer count = previousCounts.get(vertex);
+		return count == null ? 0 : count.intValue();
+	}
+
+	private void incrementPreviousCount(Vertex vertex) {
+		int count = getPreviousCount(vertex) + 1;
+		previousCounts.put(vertex, Integer.valueOf(count));
+		maxCount = Math.max(maxCount, count);
+	}
+
+	/**
+	 * Adds the paths sharing a vertex with the newly affected paths, or bending
+	 * around an obstacle close to one of their segments.
+	 */
+	private void processQueue() {
+		while (!queue.isEmpty()) {
+			Path path = queue.remove(queue.size() - 1);
+			boolean solved = solvedPaths.contains(path);
+			for (Segment segment : path.grownSegments.isEmpty() ? path.segments : path.grownSegments) {
+				addOwnersNear(segment);
+			}
+			for (Vertex vertex : path.getBendVertices()) {
+				addOwners(vertex);
+				if (!solved) {
+					previousVertices.add(vertex);
+				}
+			}
+		}
+	}
+
+}
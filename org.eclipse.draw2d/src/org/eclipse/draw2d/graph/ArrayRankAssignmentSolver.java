@@ -0,0 +1,640 @@
+/*******************************************************************************
+ * Copyright (c) 2026 agent and others.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0.
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     agent - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.draw2d.graph;
+
+import java.util.Arrays;
+
+/**
+ * Assigns optimal ranks to the nodes of a DirectedGraph using the network
+ * simplex algorithm. This visitor replaces the {@link InitialRankSolver}, the
+ * {@link TightSpanningTreeSolver} and the {@link RankAssignmentSolver} for
+ * large graphs.
+ * <P>
+ * The graph is first compiled into arrays, with the outgoing and incoming edges
+ * of each node stored in compressed sparse rows. The feasible tree is grown
+ * along the edge with the smallest slack, which is kept in a heap. When an edge
+ * enters the tree, only the cut values on the path between its end points are
+ * updated, and the edge to leave the tree is searched among a limited number of
+ * negative cut values. Each connected component is solved and normalized on its
+ * own, so no forest root is added to the graph.
+ *
+ * @since 3.16
+ */
+class ArrayRankAssignmentSolver extends GraphVisitor {
+
+	/**
+	 * The number of tree edges with a negative cut value which are compared when
+	 * choosing the edge to leave the tree.
+	 */
+	private static final int SEARCH_SIZE = 30;
+
+	/**
+	 * The maximum number of iterations per node, which guards against cycling.
+	 */
+	private static final int MAX_ITERATIONS_PER_NODE = 100;
+
+	/**
+	 * A binary min-heap of edges with an integer key.
+	 */
+	private static final class EdgeHeap {
+		private int[] keys = new int[16];
+		private int[] edges = new int[16];
+		private int size;
+
+		void clear() {
+			size = 0;
+		}
+
+		boolean isEmpty() {
+			return size == 0;
+		}
+
+		int peekEdge() {
+			return edges[0];
+		}
+
+		int peekKey() {
+			return keys[0];
+		}
+
+		void pop() {
+			size--;
+			int key = keys[size];
+			int edge = edges[size];
+			int i = 0;
+			while (true) {
+				int child = 2 * i + 1;
+				if (child >= size) {
+					break;
+				}
+				if (child + 1 < size && keys[child + 1] < keys[child]) {
+					child++;
+				}
+				if (keys[child] >= key) {
+					break;
+				}
+				keys[i] = keys[child];
+				edges[i] = edges[child];
+				i = child;
+			}
+			keys[i] = key;
+			edges[i] = edge;
+		}
+
+		void push(int key, int edge) {
+			if (size == keys.length) {
+				keys = Arrays.copyOf(keys, size * 2);
+				edges = Arrays.copyOf(edges, size * 2);
+			}
+			int i = size++;
+			while (i > 0) {
+				int parent = (i - 1) / 2;
+				if (keys[parent] <= key) {
+					break;
+				}
+				keys[i] = keys[parent];
+				edges[i] = edges[parent];
+				i = parent;
+			}
+			keys[i] = key;
+			edges[i] = edge;
+		}
+	}
+
+	private int nodeCount;
+	private int edgeCount;
+
+	// the edges
+	private int[] source;
+	private int[] target;
+	private int[] delta;
+	private int[] weight;
+
+	// the adjacency of each node in compressed sparse rows
+	private int[] outStart;
+	private int[] outEdges;
+	private int[] inStart;
+	private int[] inEdges;
+
+	private int[] rank;
+
+	// the spanning tree
+	private boolean[] tree;
+	private int[] cut;
+	private int[] parent;
+	private int[] low;
+	private int[] lim;
+	private int[] component;
+	private int[] componentSize;
+	private int[] treeEdges;
+	private int[] treeIndex;
+	private int treeEdgeCount;
+	private int searchStart;
+
+	// the nodes whose subtree changes in the current iteration
+	private int[] changed;
+	private int iteration;
+
+	// reused stacks for traversing the tree
+	private int[] stack;
+	private int[] stackEdge;
+
+	/**
+	 * Compiles the graph into arrays. The index of each node is kept in its first
+	 * working int.
+	 */
+	private void compile(DirectedGraph graph) {
+		nodeCount = graph.nodes.size();
+		edgeCount = graph.edges.size();
+		for (int i = 0; i < nodeCount; i++) {
+			graph.nodes.get(i).workingInts[0] = i;
+		}
+		source = new int[edgeCount];
+		target = new int[edgeCount];
+		delta = new int[edgeCount];
+		weight = new int[edgeCount];
+		outStart = new int[nodeCount + 1];
+		inStart = new int[nodeCount + 1];
+		for (int e = 0; e < edgeCount; e++) {
+			Edge edge = graph.edges.get(e);
+			source[e] = edge.source.workingInts[0];
+			target[e] = edge.target.workingInts[0];
+			delta[e] = edge.getDelta();
+			weight[e] = edge.weight;
+			outStart[source[e] + 1]++;
+			inStart[target[e] + 1]++;
+		}
+		for (int v = 0; v < nodeCount; v++) {
+			outStart[v + 1] += outStart[v];
+			inStart[v + 1] += inStart[v];
+		}
+		outEdges = new int[edgeCount];
+		inEdges = new int[edgeCount];
+		int[] outFill = Arrays.copyOf(outStart, nodeCount);
+		int[] inFill = Arrays.copyOf(inStart, nodeCount);
+		for (int e = 0; e < edgeCount; e++) {
+			outEdges[outFill[source[e]]++] = e;
+			inEdges[inFill[target[e]]++] = e;
+		}
+	}
+
+	/**
+	 * Computes the cut value of the given tree edge from the cut values of the
+	 * tree edges below it.
+	 */
+	private void computeCutValue(int edge) {
+		int v;
+		boolean down;
+		if (parent[source[edge]] == edge) {
+			v = source[edge];
+			down = true;
+		} else {
+			v = target[edge];
+			down = false;
+		}
+		int sum = 0;
+		for (int i = outStart[v]; i < outStart[v + 1]; i++) {
+			sum += getCutContribution(outEdges[i], v, down);
+		}
+		for (int i = inStart[v]; i < inStart[v + 1]; i++) {
+			sum += getCutContribution(inEdges[i], v, down);
+		}
+		cut[edge] = sum;
+	}
+
+	/**
+	 * Returns the edge to enter the tree when the given edge leaves it. This is the
+	 * edge with the smallest slack which reconnects the subtree below the leaving
+	 * edge in the same direction.
+	 */
+	private int enterEdge(int leaving) {
+		int v;
+		boolean outSearch;
+		if (lim[source[leaving]] < lim[target[leaving]]) {
+			v = source[leaving];
+			outSearch = false;
+		} else {
+			v = target[leaving];
+			outSearch = true;
+		}
+		int searchLow = low[v];
+		int searchLim = lim[v];
+		int result = -1;
+		int minSlack = Integer.MAX_VALUE;
+		int top = 0;
+		stack[top++] = v;
+		while (top > 0 && minSlack > 0) {
+			int n = stack[--top];
+			int start = outSearch ? outStart[n] : inStart[n];
+			int end = outSearch ? outStart[n + 1] : inStart[n + 1];
+			for (int i = start; i < end; i++) {
+				int e = outSearch ? outEdges[i] : inEdges[i];
+				int other = outSearch ? target[e] : source[e];
+				if (!tree[e] && (lim[other] < searchLow || lim[other] > searchLim)) {
+					int slack = getSlack(e);
+					if (slack < minSlack) {
+						minSlack = slack;
+						result = e;
+					}
+				}
+			}
+			// descend into the children of the node
+			for (int i = outStart[n]; i < outStart[n + 1]; i++) {
+				int e = outEdges[i];
+				if (tree[e] && lim[target[e]] < lim[n]) {
+					stack[top++] = target[e];
+				}
+			}
+			for (int i = inStart[n]; i < inStart[n + 1]; i++) {
+				int e = inEdges[i];
+				if (tree[e] && lim[source[e]] < lim[n]) {
+					stack[top++] = source[e];
+				}
+			}
+		}
+		return result;
+	}
+
+	/**
+	 * Builds a tight spanning tree of each connected component, starting with the
+	 * first node of the component. The edge with the smallest slack between a tree
+	 * node and a non-tree node is made tight by shifting the tree, and its non-tree
+	 * end is added to the tree. Rather than shifting the ranks of all tree nodes,
+	 * the ranks of the tree nodes are stored relative to the accumulated shift.
+	 */
+	private void feasibleTree() {
+		tree = new boolean[edgeCount];
+		component = new int[nodeCount];
+		componentSize = new int[nodeCount];
+		boolean[] reached = new boolean[nodeCount];
+		int[] members = new int[nodeCount];
+		EdgeHeap outgoing = new EdgeHeap();
+		EdgeHeap incoming = new EdgeHeap();
+		int memberCount = 0;
+		for (int root = 0; root < nodeCount; root++) {
+			if (reached[root]) {
+				continue;
+			}
+			int first = memberCount;
+			int shift = 0;
+			outgoing.clear();
+			incoming.clear();
+			int v = root;
+			while (true) {
+				reached[v] = true;
+				members[memberCount++] = v;
+				rank[v] -= shift;
+				// the keys of the candidates are independent of the shift
+				for (int i = outStart[v]; i < outStart[v + 1]; i++) {
+					int e = outEdges[i];
+					if (!reached[target[e]]) {
+						outgoing.push(rank[target[e]] - rank[v] - delta[e], e);
+					}
+				}
+				for (int i = inStart[v]; i < inStart[v + 1]; i++) {
+					int e = inEdges[i];
+					if (!reached[source[e]]) {
+						incoming.push(rank[v] - rank[source[e]] - delta[e], e);
+					}
+				}
+				while (!outgoing.isEmpty() && reached[target[outgoing.peekEdge()]]) {
+					outgoing.pop();
+				}
+				while (!incoming.isEmpty() && reached[source[incoming.peekEdge()]]) {
+					incoming.pop();
+				}
+				if (outgoing.isEmpty() && incoming.isEmpty()) {
+					break;
+				}
+				int e;
+				if (incoming.isEmpty()
+						|| (!outgoing.isEmpty() && outgoing.peekKey() - shift <= incoming.peekKey() + shift)) {
+					e = outgoing.peekEdge();
+					shift += outgoing.peekKey() - shift;
+					outgoing.pop();
+					v = target[e];
+				} else {
+					e = incoming.peekEdge();
+					shift -= incoming.peekKey() + shift;
+					incoming.pop();
+					v = source[e];
+				}
+				tree[e] = true;
+			}
+			for (int i = first; i < memberCount; i++) {
+				rank[members[i]] += shift;
+				component[members[i]] = root;
+				componentSize[members[i]] = memberCount - first;
+			}
+		}
+	}
+
+	/**
+	 * Returns the contribution of the given edge to the cut value of the tree edge
+	 * above the given node.
+	 */
+	private int getCutContribution(int e, int v, boolean down) {
+		int other = source[e] == v ? target[e] : source[e];
+		boolean outside = lim[other] < low[v] || lim[other] > lim[v];
+		int result;
+		if (outside) {
+			result = weight[e];
+		} else {
+			result = tree[e] ? cut[e] : 0;
+			result -= weight[e];
+		}
+		int sign;
+		if (down) {
+			sign = target[e] == v ? 1 : -1;
+		} else {
+			sign = source[e] == v ? 1 : -1;
+		}
+		if (outside) {
+			sign = -sign;
+		}
+		return sign < 0 ? -result : result;
+	}
+
+	private int getSlack(int e) {
+		return rank[target[e]] - rank[source[e]] - delta[e];
+	}
+
+	/**
+	 * Assigns each node the smallest rank which satisfies its incoming edges, in
+	 * topological order.
+	 */
+	private void initRanks() {
+		rank = new int[nodeCount];
+		int[] pending = new int[nodeCount];
+		int[] queue = new int[nodeCount];
+		int head = 0;
+		int tail = 0;
+		for (int v = 0; v < nodeCount; v++) {
+			pending[v] = inStart[v + 1] - inStart[v];
+			if (pending[v] == 0) {
+				queue[tail++] = v;
+			}
+		}
+		while (head < tail) {
+			int v = queue[head++];
+			for (int i = outStart[v]; i < outStart[v + 1]; i++) {
+				int e = outEdges[i];
+				int w = target[e];
+				rank[w] = Math.max(rank[w], rank[v] + delta[e]);
+				if (--pending[w] == 0) {
+					queue[tail++] = w;
+				}
+			}
+		}
+		if (tail < nodeCount) {
+			throw new RuntimeException("Cycle detected in graph"); //$NON-NLS-1$
+		}
+	}
+
+	/**
+	 * Computes the tree structure and the cut values of all tree edges.
+	 */
+	private void initTree() {
+		cut = new int[edgeCount];
+		parent = new int[nodeCount];
+		low = new int[nodeCount];
+		lim = new int[nodeCount];
+		treeIndex = new int[edgeCount];
+		treeEdges = new int[Math.max(nodeCount - 1, 0)];
+		treeEdgeCount = 0;
+		stack = new int[nodeCount];
+		stackEdge = new int[nodeCount];
+		changed = new int[nodeCount];
+		iteration = 0;
+		for (int e = 0; e < edgeCount; e++) {
+			if (tree[e]) {
+				treeIndex[e] = treeEdgeCount;
+				treeEdges[treeEdgeCount++] = e;
+			}
+		}
+		int[] postorder = new int[nodeCount];
+		int count = 0;
+		for (int root = 0; root < nodeCount; root++) {
+			if (component[root] != root) {
+				continue;
+			}
+			int first = count;
+			updateRanges(root, -1, 1, postorder, count);
+			count += componentSize[root];
+			for (int i = first; i < count; i++) {
+				int v = postorder[i];
+				if (parent[v] != -1) {
+					computeCutValue(parent[v]);
+				}
+			}
+		}
+	}
+
+	/**
+	 * Returns a tree edge with a negative cut value, or -1 if the tree is optimal.
+	 * The search continues where the previous one has stopped and returns the most
+	 * negative of the first {@link #SEARCH_SIZE} candidates.
+	 */
+	private int leaveEdge() {
+		int result = -1;
+		int found = 0;
+		for (int i = 0; i < treeEdgeCount; i++) {
+			int index = (searchStart + i) % treeEdgeCount;
+			int e = treeEdges[index];
+			if (cut[e] < 0) {
+				if (result == -1 || cut[e] < cut[result]) {
+					result = e;
+				}
+				if (++found >= SEARCH_SIZE) {
+					searchStart = index;
+					return result;
+				}
+			}
+		}
+		return result;
+	}
+
+	/**
+	 * Normalizes the ranks of each connected component and writes them to the
+	 * nodes.
+	 */
+	private void normalize(DirectedGraph graph) {
+		int[] minRank = new int[nodeCount];
+		Arrays.fill(minRank, Integer.MAX_VALUE);
+		for (int v = 0; v < nodeCount; v++) {
+			minRank[component[v]] = Math.min(minRank[component[v]], rank[v]);
+		}
+		for (int v = 0; v < nodeCount; v++) {
+			graph.nodes.get(v).rank = rank[v] - minRank[component[v]];
+		}
+	}
+
+	/**
+	 * Shifts the ranks of the nodes reachable from the given node without crossing
+	 * the given tree edge.
+	 */
+	private void shiftRanks(int v, int excluded, int amount) {
+		int top = 0;
+		stack[top] = v;
+		stackEdge[top++] = excluded;
+		while (top > 0) {
+			top--;
+			int n = stack[top];
+			int via = stackEdge[top];
+			rank[n] += amount;
+			for (int i = outStart[n]; i < outStart[n + 1]; i++) {
+				int e = outEdges[i];
+				if (tree[e] && e != via) {
+					stack[top] = target[e];
+					stackEdge[top++] = e;
+				}
+			}
+			for (int i = inStart[n]; i < inStart[n + 1]; i++) {
+				int e = inEdges[i];
+				if (tree[e] && e != via) {
+					stack[top] = source[e];
+					stackEdge[top++] = e;
+				}
+			}
+		}
+	}
+
+	/**
+	 * Runs the network simplex iterations until the tree is optimal.
+	 */
+	private void solve() {
+		int maxIterations = nodeCount * MAX_ITERATIONS_PER_NODE;
+		int leaving;
+		for (iteration = 1; iteration <= maxIterations && (leaving = leaveEdge()) != -1; iteration++) {
+			int entering = enterEdge(leaving);
+			if (entering == -1) {
+				break;
+			}
+			update(leaving, entering);
+		}
+	}
+
+	/**
+	 * Replaces the leaving edge by the entering edge. The smaller side of the tree
+	 * is shifted so that the entering edge becomes tight, and the cut values on
+	 * the path between the end points of the entering edge are updated.
+	 */
+	private void update(int leaving, int entering) {
+		int slack = getSlack(entering);
+		if (slack > 0) {
+			int child = lim[source[leaving]] < lim[target[leaving]] ? source[leaving] : target[leaving];
+			int other = child == source[leaving] ? target[leaving] : source[leaving];
+			boolean headBelow = low[child] <= lim[target[entering]] && lim[target[entering]] <= lim[child];
+			int size = lim[child] - low[child] + 1;
+			if (2 * size <= componentSize[child]) {
+				shiftRanks(child, leaving, headBelow ? -slack : slack);
+			} else {
+				shiftRanks(other, leaving, headBelow ? slack : -slack);
+			}
+		}
+
+		int cutValue = cut[leaving];
+		int ancestor = updateCutValues(source[entering], target[entering], cutValue, true);
+		updateCutValues(target[entering], source[entering], cutValue, false);
+		cut[entering] = -cutValue;
+		cut[leaving] = 0;
+
+		tree[leaving] = false;
+		tree[entering] = true;
+		int index = treeIndex[leaving];
+		treeEdges[index] = entering;
+		treeIndex[entering] = index;
+		updateRanges(ancestor, parent[ancestor], low[ancestor], null, 0);
+	}
+
+	/**
+	 * Adds the given cut value to the tree edges on the path from the given node up
+	 * to the first ancestor whose subtree contains the other given node, and
+	 * returns that ancestor. The nodes on the path are marked as changed.
+	 */
+	private int updateCutValues(int v, int w, int cutValue, boolean dir) {
+		while (lim[w] < low[v] || lim[w] > lim[v]) {
+			changed[v] = iteration;
+			int e = parent[v];
+			boolean d = v == source[e] ? dir : !dir;
+			if (d) {
+				cut[e] += cutValue;
+			} else {
+				cut[e] -= cutValue;
+			}
+			v = lim[source[e]] > lim[target[e]] ? source[e] : target[e];
+		}
+		return v;
+	}
+
+	/**
+	 * Numbers the subtree of the given node in postorder, starting with the given
+	 * number, and sets the parent edges. The nodes are optionally stored in the
+	 * given array in postorder. A subtree which has not changed in the current
+	 * iteration keeps its numbers if it still starts with the same number.
+	 */
+	private void updateRanges(int root, int rootParent, int first, int[] postorder, int offset) {
+		int number = first;
+		int top = 0;
+		// the stack holds each node with the position of its next incident edge
+		stack[top] = root;
+		stackEdge[top++] = 0;
+		parent[root] = rootParent;
+		low[root] = number;
+		while (top > 0) {
+			int n = stack[top - 1];
+			int p = stackEdge[top - 1];
+			int outDegree = outStart[n + 1] - outStart[n];
+			int degree = outDegree + inStart[n + 1] - inStart[n];
+			int child = -1;
+			int via = -1;
+			while (p < degree && child == -1) {
+				int e = p < outDegree ? outEdges[outStart[n] + p] : inEdges[inStart[n] + p - outDegree];
+				p++;
+				if (tree[e] && e != parent[n]) {
+					via = e;
+					child = source[e] == n ? target[e] : source[e];
+				}
+			}
+			stackEdge[top - 1] = p;
+			if (child != -1 && changed[child] != iteration && parent[child] == via && low[child] == number) {
+				number = lim[child] + 1;
+			} else if (child != -1) {
+				parent[child] = via;
+				low[child] = number;
+				stack[top] = child;
+				stackEdge[top++] = 0;
+			} else {
+				lim[n] = number++;
+				if (postorder != null) {
+					postorder[offset++] = n;
+				}
+				top--;
+			}
+		}
+	}
+
+	@Override
+	public void visit(DirectedGraph graph) {
+		if (graph.nodes.isEmpty()) {
+			return;
+		}
+		compile(graph);
+		initRanks();
+		feasibleTree();
+		initTree();
+		solve();
+		normalize(graph);
+	}
+
+}
@@ -249,12 +249,15 @@ class BreakCycles extends GraphVisitor {
 	 */
 	@Override
 	public void visit(DirectedGraph g) {
+		// the edges of a previous layout have been inverted back
+		g.edges.forEach(e -> e.isFeedback = false);
 		// put all nodes in list, initialize index
-		graphNodes.resetFlags();
+		graphNodes.clear();
 		for (Node n : g.nodes) {
 			setIncomingCount(n, n.incoming.size());
 			graphNodes.add(n);
 		}
+		graphNodes.resetFlags();
 		if (containsCycles(g)) {
 			breakCycles(g);
 		}
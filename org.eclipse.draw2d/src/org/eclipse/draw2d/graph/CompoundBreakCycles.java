@@ -431,6 +431,8 @@ class CompoundBreakCycles extends GraphVisitor {
 	 */
 	@Override
 	public void visit(DirectedGraph g) {
+		// the edges of a previous layout have been inverted back
+		g.edges.forEach(e -> e.isFeedback = false);
 		initializeDegrees(g);
 		graphNodes = g.nodes;
 
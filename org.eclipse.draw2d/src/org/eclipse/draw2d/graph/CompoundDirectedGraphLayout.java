@@ -12,6 +12,8 @@
  *******************************************************************************/
 package org.eclipse.draw2d.graph;
 
+import java.util.Deque;
+
 /**
  * Performs a graph layout on a <code>CompoundDirectedGraph</code>. The input
  * format is the same as for {@link DirectedGraphLayout}. All nodes, including
@@ -41,6 +43,11 @@ package org.eclipse.draw2d.graph;
  */
 public final class CompoundDirectedGraphLayout extends DirectedGraphLayout {
 
+	@Override
+	Deque<GraphVisitor> getIncrementalSteps(DirectedGraph graph) {
+		return steps;
+	}
+
 	@Override
 	void init() {
 		steps.add(new CompoundTransposeMetrics());
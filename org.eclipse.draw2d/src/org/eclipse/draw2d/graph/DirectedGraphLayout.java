@@ -73,6 +73,8 @@ import java.util.Deque;
 public class DirectedGraphLayout {
 
 	Deque<GraphVisitor> steps = new ArrayDeque<>();
+	private boolean arrayRankAssignment;
+	private boolean incremental;
 
 	/**
 	 * @since 3.1
@@ -95,6 +97,97 @@ public class DirectedGraphLayout {
 		steps.add(new HorizontalPlacement());
 	}
 
+	/**
+	 * Returns the steps which lay out the given graph incrementally, based on a
+	 * snapshot of its previous layout.
+	 */
+	Deque<GraphVisitor> getIncrementalSteps(DirectedGraph graph) {
+		RankSnapshot snapshot = new RankSnapshot(graph);
+		Deque<GraphVisitor> incrementalSteps = new ArrayDeque<>();
+		incrementalSteps.add(new TransposeMetrics());
+		incrementalSteps.add(new IncrementalBreakCycles(snapshot));
+		incrementalSteps.add(new RouteEdges());
+		incrementalSteps.add(new IncrementalRankSolver(snapshot));
+		incrementalSteps.add(new IncrementalPopulateRanks(snapshot));
+		incrementalSteps.add(new VerticalPlacement());
+		incrementalSteps.add(new HorizontalPlacement());
+		return incrementalSteps;
+	}
+
+	/**
+	 * Returns whether the ranks are assigned by a solver operating on arrays.
+	 *
+	 * @return <code>true</code> if the array based rank assignment is enabled
+	 * @see #setArrayRankAssignmentEnabled(boolean)
+	 * @since 3.16
+	 */
+	public boolean isArrayRankAssignmentEnabled() {
+		return arrayRankAssignment;
+	}
+
+	/**
+	 * Returns whether graphs which have been laid out before are laid out
+	 * incrementally.
+	 *
+	 * @return <code>true</code> if the layout is incremental
+	 * @see #setIncremental(boolean)
+	 * @since 3.16
+	 */
+	public boolean isIncremental() {
+		return incremental;
+	}
+
+	/**
+	 * Sets whether graphs which have been laid out before are laid out
+	 * incrementally. An incremental layout keeps the ranks and the order within
+	 * the ranks of the nodes from the previous layout of the same graph, which is
+	 * read from the graph's {@link DirectedGraph#ranks ranks}. Nodes and edges
+	 * added since then are inserted next to the nodes they are connected to, and
+	 * previous nodes only move down if a new edge requires it. Crossings are not
+	 * minimized again. The first layout of a graph is always a complete layout.
+	 * <P>
+	 * The incremental layout is not supported by the
+	 * {@link CompoundDirectedGraphLayout}, which always performs a complete
+	 * layout.
+	 *
+	 * @param incremental <code>true</code> to lay out graphs incrementally
+	 * @since 3.16
+	 */
+	public void setIncremental(boolean incremental) {
+		this.incremental = incremental;
+	}
+
+	/**
+	 * Sets whether the ranks are assigned by a solver which compiles the graph into
+	 * arrays before running the network simplex algorithm. This is recommended for
+	 * graphs with tens of thousands of nodes. Both solvers minimize the total
+	 * weighted edge length, but the array based solver is not limited in its
+	 * number of iterations and may therefore assign different ranks. It is
+	 * disabled by default.
+	 *
+	 * @param enabled <code>true</code> to assign the ranks using arrays
+	 * @since 3.16
+	 */
+	public void setArrayRankAssignmentEnabled(boolean enabled) {
+		if (arrayRankAssignment == enabled) {
+			return;
+		}
+		arrayRankAssignment = enabled;
+		Deque<GraphVisitor> newSteps = new ArrayDeque<>();
+		for (GraphVisitor step : steps) {
+			if (step instanceof InitialRankSolver) {
+				newSteps.add(new ArrayRankAssignmentSolver());
+			} else if (step instanceof ArrayRankAssignmentSolver) {
+				newSteps.add(new InitialRankSolver());
+				newSteps.add(new TightSpanningTreeSolver());
+				newSteps.add(new RankAssignmentSolver());
+			} else if (!(step instanceof TightSpanningTreeSolver || step instanceof RankAssignmentSolver)) {
+				newSteps.add(step);
+			}
+		}
+		steps = newSteps;
+	}
+
 	/**
 	 * Lays out the given graph
 	 *
@@ -104,8 +197,12 @@ public class DirectedGraphLayout {
 		if (graph.nodes.isEmpty()) {
 			return;
 		}
-		steps.iterator().forEachRemaining(visitor -> visitor.visit(graph));
-		steps.descendingIterator().forEachRemaining(visitor -> visitor.revisit(graph));
+		Deque<GraphVisitor> visitors = steps;
+		if (incremental && graph.ranks.size() > 0) {
+			visitors = getIncrementalSteps(graph);
+		}
+		visitors.iterator().forEachRemaining(visitor -> visitor.visit(graph));
+		visitors.descendingIterator().forEachRemaining(visitor -> visitor.revisit(graph));
 	}
 
 }
@@ -92,25 +92,47 @@ class GraphUtilities {
 	}
 
 	/**
-	 * Counts the number of edge crossings in a Rank
+	 * Counts the number of edge crossings in a Rank. The crossings between the
+	 * outgoing edges of the rank are counted in <i>O(E log V)</i> using a binary
+	 * indexed tree over the positions in the next rank. The outgoing edges of each
+	 * node are checked against the edges of the preceding nodes, which cross them
+	 * if they end further right.
 	 *
 	 * @param rank the rank whose crossed edges are counted
 	 * @return the number of edge crossings in the rank
 	 */
 	public static int numberOfCrossingsInRank(Rank rank) {
+		if (rank.size() < 2) {
+			return 0;
+		}
+		int nextRank = rank.get(0).rank + 1;
+		int size = 0;
+		for (Node node : rank) {
+			for (Edge edge : node.outgoing) {
+				size = Math.max(size, edge.getIndexForRank(nextRank) + 2);
+			}
+		}
+		// tree[i] holds the number of edges ending in a range of positions up to i.
+		// Positions are the indices shifted by two, since the tree is one-based and
+		// the index of an edge which does not reach the next rank is -1.
+		int[] tree = new int[size + 1];
+		int inserted = 0;
 		int crossings = 0;
-		for (int i = 0; i < rank.size() - 1; i++) {
-			Node currentNode = rank.get(i);
-			for (int j = i + 1; j < rank.size(); j++) {
-				Node nextNode = rank.get(j);
-				for (Edge currentEdge : currentNode.outgoing) {
-					for (Edge nextEdge : nextNode.outgoing) {
-						if (nextEdge.getIndexForRank(currentNode.rank + 1) < currentEdge
-								.getIndexForRank(currentNode.rank + 1)) {
-							crossings++;
-						}
-					}
+		for (Node node : rank) {
+			for (Edge edge : node.outgoing) {
+				int position = edge.getIndexForRank(nextRank) + 2;
+				// the edges inserted so far which end at or left of this edge
+				int notCrossing = 0;
+				for (int i = position; i > 0; i -= i & -i) {
+					notCrossing += tree[i];
+				}
+				crossings += inserted - notCrossing;
+			}
+			for (Edge edge : node.outgoing) {
+				for (int i = edge.getIndexForRank(nextRank) + 2; i <= size; i += i & -i) {
+					tree[i]++;
 				}
+				inserted++;
 			}
 		}
 		return crossings;
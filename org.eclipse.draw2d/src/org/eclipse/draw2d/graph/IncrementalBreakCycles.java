@@ -0,0 +1,108 @@
+/*******************************************************************************
+ * Copyright (c) 2026 agent and others.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0.
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     agent - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.draw2d.graph;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.List;
+
+/**
+ * Breaks the cycles of a graph which has been laid out before. An edge between
+ * two previously laid out nodes is inverted if it points from a higher to a
+ * lower rank, so that the direction of the existing edges stays the same. The
+ * remaining cycles are broken by inverting the incoming edges of a node on the
+ * cycle, preferring nodes which have been added since the previous layout.
+ *
+ * @since 3.16
+ */
+class IncrementalBreakCycles extends GraphVisitor {
+
+	private final RankSnapshot snapshot;
+
+	IncrementalBreakCycles(RankSnapshot snapshot) {
+		this.snapshot = snapshot;
+	}
+
+	/**
+	 * Returns the next node which has not been sorted yet, preferring new nodes.
+	 */
+	private Node getNextUnsorted(DirectedGraph g, int[] cursors) {
+		while (cursors[0] < g.nodes.size()) {
+			Node node = g.nodes.get(cursors[0]);
+			if (!node.flag && !snapshot.contains(node)) {
+				return node;
+			}
+			cursors[0]++;
+		}
+		while (g.nodes.get(cursors[1]).flag) {
+			cursors[1]++;
+		}
+		return g.nodes.get(cursors[1]);
+	}
+
+	/**
+	 * Sorts the nodes topologically. Whenever no node without incoming edges is
+	 * left, the remaining incoming edges of an unsorted node are inverted.
+	 */
+	private void removeCycles(DirectedGraph g) {
+		Deque<Node> sources = new ArrayDeque<>();
+		for (Node node : g.nodes) {
+			node.flag = false;
+			node.workingInts[0] = node.incoming.size();
+			if (node.workingInts[0] == 0) {
+				sources.add(node);
+			}
+		}
+		int[] cursors = new int[2];
+		for (int sorted = 0; sorted < g.nodes.size(); sorted++) {
+			if (sources.isEmpty()) {
+				Node node = getNextUnsorted(g, cursors);
+				for (Edge e : List.copyOf(node.incoming)) {
+					if (!e.source.flag) {
+						e.invert();
+						e.isFeedback = !e.isFeedback;
+						e.target.workingInts[0]++;
+					}
+				}
+				node.workingInts[0] = 0;
+				sources.add(node);
+			}
+			Node node = sources.poll();
+			node.flag = true;
+			for (Edge e : node.outgoing) {
+				if (--e.target.workingInts[0] == 0) {
+					sources.add(e.target);
+				}
+			}
+		}
+	}
+
+	@Override
+	public void revisit(DirectedGraph g) {
+		g.edges.stream().filter(Edge::isFeedback).forEach(Edge::invert);
+	}
+
+	@Override
+	public void visit(DirectedGraph g) {
+		for (Edge e : g.edges) {
+			e.isFeedback = false;
+			if (snapshot.contains(e.source) && snapshot.contains(e.target)
+					&& snapshot.getRank(e.source) > snapshot.getRank(e.target)) {
+				e.invert();
+				e.isFeedback = true;
+			}
+		}
+		removeCycles(g);
+	}
+
+}
@@ -0,0 +1,148 @@
+/*******************************************************************************
+ * Copyright (c) 2026 agent and others.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0.
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     agent - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.draw2d.graph;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * Populates the ranks of a graph which has been laid out before. The nodes
+ * which are placed in the same rank as before keep their previous order,
+ * including the virtual nodes of long edges. The other nodes are inserted next
+ * to the nodes they are connected to, using the barycenter of their neighbors in
+ * the rank above or, if they have none, in the rank below. This replaces the
+ * crossing minimization, so that the previous layout stays recognizable.
+ *
+ * @since 3.16
+ */
+class IncrementalPopulateRanks extends PopulateRanks {
+
+	private static final Comparator<Node> SORT_VALUE_ORDER = Comparator.comparingDouble(node -> node.sortValue);
+
+	private final RankSnapshot snapshot;
+
+	IncrementalPopulateRanks(RankSnapshot snapshot) {
+		this.snapshot = snapshot;
+	}
+
+	/**
+	 * Returns the average index of the neighbors of the given node in the rank
+	 * above or below it, or <code>NaN</code> if it has no such neighbors.
+	 */
+	private static double getBarycenter(Node node, boolean up) {
+		int rank = up ? node.rank - 1 : node.rank + 1;
+		double sum = 0;
+		int count = 0;
+		for (Edge e : up ? node.incoming : node.outgoing) {
+			Node neighbor = e.opposite(node);
+			if (neighbor.rank == rank) {
+				sum += neighbor.index;
+				count++;
+			}
+		}
+		return count == 0 ? Double.NaN : sum / count;
+	}
+
+	/**
+	 * Inserts the given nodes into the rank in the order of their barycenters. A
+	 * node is inserted before the first node of the rank with a greater
+	 * barycenter. Nodes without a barycenter are appended.
+	 */
+	private static void insert(Rank rank, List<Node> nodes, boolean up) {
+		for (Node node : nodes) {
+			node.sortValue = getBarycenter(node, up);
+		}
+		nodes.sort(SORT_VALUE_ORDER);
+		List<Node> others = new ArrayList<>(rank);
+		rank.clear();
+		int next = 0;
+		for (Node other : others) {
+			double barycenter = getBarycenter(other, up);
+			while (next < nodes.size() && nodes.get(next).sortValue < barycenter) {
+				rank.add(nodes.get(next++));
+			}
+			rank.add(other);
+		}
+		while (next < nodes.size()) {
+			rank.add(nodes.get(next++));
+		}
+		rank.assignIndices();
+	}
+
+	/**
+	 * Sorts the nodes which have a previous index and inserts the others, first
+	 * from the top and then from the bottom for the nodes without neighbors above.
+	 */
+	private static void order(DirectedGraph g) {
+		List<List<Node>> added = new ArrayList<>();
+		for (Rank rank : g.ranks) {
+			List<Node> nodes = new ArrayList<>();
+			for (Node node : rank) {
+				if (Double.isNaN(node.sortValue)) {
+					nodes.add(node);
+				}
+			}
+			rank.removeIf(node -> Double.isNaN(node.sortValue));
+			rank.sort(SORT_VALUE_ORDER);
+			added.add(nodes);
+		}
+		for (int r = 0; r < g.ranks.size(); r++) {
+			insert(g.ranks.getRank(r), added.get(r), true);
+		}
+		g.nodes.resetFlags();
+		for (int r = g.ranks.size() - 1; r >= 0; r--) {
+			List<Node> nodes = added.get(r);
+			nodes.removeIf(node -> !Double.isNaN(getBarycenter(node, true)));
+			if (!nodes.isEmpty()) {
+				Rank rank = g.ranks.getRank(r);
+				nodes.forEach(node -> node.flag = true);
+				rank.removeIf(node -> node.flag);
+				insert(rank, nodes, false);
+			}
+		}
+	}
+
+	@Override
+	public void visit(DirectedGraph g) {
+		g.ranks = new RankList();
+		for (Node node : g.nodes) {
+			g.ranks.getRank(node.rank).add(node);
+			node.sortValue = snapshot.getIndex(node, node.rank);
+		}
+		for (Node node : List.copyOf(g.nodes)) {
+			for (int j = 0; j < node.outgoing.size();) {
+				Edge e = node.outgoing.get(j);
+				NodeList previous = e.vNodes;
+				e.vNodes = null;
+				if (e.getLength() > 1) {
+					int first = g.nodes.size();
+					changes.push(new VirtualNodeCreation(e, g));
+					// the virtual nodes have been appended to the graph's nodes
+					for (int i = first; i < g.nodes.size(); i++) {
+						Node virtualNode = g.nodes.get(i);
+						if (previous != null && i - first < previous.size()) {
+							virtualNode.sortValue = snapshot.getIndex(previous.get(i - first), virtualNode.rank);
+						} else {
+							virtualNode.sortValue = Double.NaN;
+						}
+					}
+				} else {
+					j++;
+				}
+			}
+		}
+		order(g);
+	}
+
+}
@@ -0,0 +1,156 @@
+/*******************************************************************************
+ * Copyright (c) 2026 agent and others.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0.
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     agent - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.draw2d.graph;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Assigns ranks to the nodes of a graph which has been laid out before. A
+ * previously laid out node keeps its rank, unless it has to move down to make
+ * room for the nodes above it. A new node is placed directly below its ranked
+ * sources or, if it has none, directly above its ranked targets. The remaining
+ * new nodes are ranked from the top. The ranks are assigned in topological
+ * order, so the cost is linear in the size of the graph. Finally, the ranks
+ * left empty by removed nodes are dropped.
+ *
+ * @since 3.16
+ */
+class IncrementalRankSolver extends GraphVisitor {
+
+	private final RankSnapshot snapshot;
+
+	IncrementalRankSolver(RankSnapshot snapshot) {
+		this.snapshot = snapshot;
+	}
+
+	/**
+	 * Returns the nodes of the acyclic graph in topological order.
+	 */
+	private static List<Node> getTopologicalOrder(DirectedGraph g) {
+		List<Node> order = new ArrayList<>(g.nodes.size());
+		for (Node node : g.nodes) {
+			node.workingInts[0] = node.incoming.size();
+			if (node.workingInts[0] == 0) {
+				order.add(node);
+			}
+		}
+		for (int i = 0; i < order.size(); i++) {
+			for (Edge e : order.get(i).outgoing) {
+				if (--e.target.workingInts[0] == 0) {
+					order.add(e.target);
+				}
+			}
+		}
+		if (order.size() < g.nodes.size()) {
+			throw new RuntimeException("Cycle detected in graph"); //$NON-NLS-1$
+		}
+		return order;
+	}
+
+	@Override
+	public void visit(DirectedGraph g) {
+		List<Node> order = getTopologicalOrder(g);
+		g.nodes.resetFlags();
+
+		// previous nodes and the nodes below them
+		for (Node node : order) {
+			boolean ranked = snapshot.contains(node);
+			int rank = ranked ? snapshot.getRank(node) : Integer.MIN_VALUE;
+			for (Edge e : node.incoming) {
+				if (e.source.flag) {
+					ranked = true;
+					rank = Math.max(rank, e.source.rank + e.getDelta());
+				}
+			}
+			node.flag = ranked;
+			node.rank = rank;
+		}
+
+		// new nodes above them
+		for (int i = order.size() - 1; i >= 0; i--) {
+			Node node = order.get(i);
+			if (node.flag) {
+				continue;
+			}
+			int rank = Integer.MAX_VALUE;
+			for (Edge e : node.outgoing) {
+				if (e.target.flag) {
+					rank = Math.min(rank, e.target.rank - e.getDelta());
+				}
+			}
+			if (rank != Integer.MAX_VALUE) {
+				node.flag = true;
+				node.rank = rank;
+			}
+		}
+
+		// new nodes which are not connected to any previous node
+		for (Node node : order) {
+			if (node.flag) {
+				continue;
+			}
+			int rank = 0;
+			for (Edge e : node.incoming) {
+				rank = Math.max(rank, e.source.rank + e.getDelta());
+			}
+			node.flag = true;
+			node.rank = rank;
+		}
+
+		normalizeRanks(g);
+	}
+
+	/**
+	 * Numbers the ranks from 0 and drops the ranks which neither contain a node nor
+	 * are crossed by an edge. Such ranks are left behind by removed nodes. Edges
+	 * keep their lengths, because they do not span any dropped rank.
+	 */
+	private void normalizeRanks(DirectedGraph g) {
+		if (g.nodes.isEmpty()) {
+			return;
+		}
+		int minRank = Integer.MAX_VALUE;
+		int maxRank = Integer.MIN_VALUE;
+		for (Node node : g.nodes) {
+			minRank = Math.min(minRank, node.rank);
+			maxRank = Math.max(maxRank, node.rank);
+		}
+		int[] newRanks = new int[maxRank - minRank + 1];
+		for (Node node : g.nodes) {
+			newRanks[node.rank - minRank] = 1;
+		}
+		// the ranks between the ends of an edge are marked by a running sum
+		int[] crossings = new int[newRanks.length + 1];
+		for (Edge e : g.edges) {
+			if (e.target.rank - e.source.rank > 1) {
+				crossings[e.source.rank - minRank + 1]++;
+				crossings[e.target.rank - minRank]--;
+			}
+		}
+		int crossing = 0;
+		int next = 0;
+		for (int r = 0; r < newRanks.length; r++) {
+			crossing += crossings[r];
+			newRanks[r] = newRanks[r] != 0 || crossing > 0 ? next++ : -1;
+		}
+		for (Node node : g.nodes) {
+			node.rank = newRanks[node.rank - minRank];
+		}
+		int shift = minRank;
+		snapshot.setRankMapping(previous -> previous - shift >= 0 && previous - shift < newRanks.length
+				? newRanks[previous - shift]
+				: -1);
+	}
+
+}
@@ -12,8 +12,13 @@
  *******************************************************************************/
 package org.eclipse.draw2d.graph;
 
+import java.util.Collections;
+
 /**
  * Sweeps up and down the ranks rearranging them so as to reduce edge crossings.
+ * The crossings are counted after each sweep. The sweeps stop once the graph has
+ * no crossings or the number of crossings has not improved for
+ * {@link #MAX_STALLED} sweeps, and the order with the fewest crossings is kept.
  *
  * @author Randy Hudson
  * @since 2.1.2
@@ -22,9 +27,19 @@ class MinCross extends GraphVisitor {
 
 	static final int MAX = 45;
 
+	/**
+	 * The number of sweeps without fewer crossings after which the sweeps stop.
+	 */
+	static final int MAX_STALLED = 12;
+
 	private DirectedGraph g;
 	private RankSorter sorter = new RankSorter();
 
+	private int crossings;
+	private int fewestCrossings;
+	private Node[][] bestOrder;
+	private int stalled;
+
 	public MinCross() {
 	}
 
@@ -35,24 +50,70 @@ class MinCross extends GraphVisitor {
 		setRankSorter(sorter);
 	}
 
+	private Node[][] getOrder() {
+		Node[][] order = new Node[g.ranks.size()][];
+		for (int row = 0; row < order.length; row++) {
+			order[row] = g.ranks.getRank(row).toArray(new Node[0]);
+		}
+		return order;
+	}
+
+	private boolean isConverged() {
+		return fewestCrossings == 0 || stalled >= MAX_STALLED;
+	}
+
+	private void setOrder(Node[][] order) {
+		for (int row = 0; row < order.length; row++) {
+			Rank rank = g.ranks.getRank(row);
+			rank.clear();
+			Collections.addAll(rank, order[row]);
+			rank.assignIndices();
+		}
+	}
+
 	public void setRankSorter(RankSorter sorter) {
 		this.sorter = sorter;
 	}
 
 	void solve() {
 		Rank rank;
-		for (int loop = 0; loop < MAX; loop++) {
+		crossings = GraphUtilities.numberOfCrossingsInGraph(g);
+		fewestCrossings = crossings;
+		bestOrder = getOrder();
+		stalled = 0;
+		for (int loop = 0; loop < MAX && !isConverged(); loop++) {
 			for (int row = 1; row < g.ranks.size(); row++) {
 				rank = g.ranks.getRank(row);
 				sorter.sortRankIncoming(g, rank, row, (double) loop / MAX);
 			}
-			if (loop == MAX - 1) {
-				continue;
+			updateCrossings();
+			if (loop == MAX - 1 || isConverged()) {
+				break;
 			}
 			for (int row = g.ranks.size() - 2; row >= 0; row--) {
 				rank = g.ranks.getRank(row);
 				sorter.sortRankOutgoing(g, rank, row, (double) loop / MAX);
 			}
+			updateCrossings();
+		}
+		if (crossings > fewestCrossings) {
+			setOrder(bestOrder);
+		}
+		bestOrder = null;
+	}
+
+	/**
+	 * Counts the crossings after a sweep and remembers the order of the ranks if
+	 * it has fewer crossings than all orders before.
+	 */
+	private void updateCrossings() {
+		crossings = GraphUtilities.numberOfCrossingsInGraph(g);
+		if (crossings < fewestCrossings) {
+			fewestCrossings = crossings;
+			bestOrder = getOrder();
+			stalled = 0;
+		} else {
+			stalled++;
 		}
 	}
 
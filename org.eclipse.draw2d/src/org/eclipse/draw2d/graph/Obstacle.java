@@ -12,6 +12,8 @@
  *******************************************************************************/
 package org.eclipse.draw2d.graph;
 
+import java.util.Comparator;
+
 import org.eclipse.draw2d.PositionConstants;
 import org.eclipse.draw2d.geometry.Point;
 import org.eclipse.draw2d.geometry.Rectangle;
@@ -27,7 +29,17 @@ import org.eclipse.draw2d.geometry.Rectangle;
  */
 class Obstacle extends Rectangle {
 
+	/**
+	 * Compares obstacles by the order in which they have been added.
+	 */
+	static final Comparator<Obstacle> ORDER = Comparator.comparingInt(obs -> obs.order);
+
 	boolean exclude;
+	/**
+	 * The sequence number of this obstacle. Obstacles added later have a greater
+	 * number.
+	 */
+	int order;
 	Vertex topLeft;
 	Vertex topRight;
 	Vertex bottomLeft;
@@ -56,6 +68,17 @@ class Obstacle extends Rectangle {
 		return p.x > this.x && p.x < this.x + this.width - 1 && p.y > this.y && p.y < this.y + this.height - 1;
 	}
 
+	/**
+	 * Returns the largest distance by which one of the vertices of this obstacle
+	 * has been grown.
+	 *
+	 * @return the growth
+	 */
+	int getGrowth() {
+		return Math.max(Math.max(topLeft.getGrowth(), topRight.getGrowth()),
+				Math.max(bottomLeft.getGrowth(), bottomRight.getGrowth()));
+	}
+
 	public int getSpacing() {
 		return router.getSpacing();
 	}
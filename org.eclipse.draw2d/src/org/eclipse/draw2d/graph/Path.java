@@ -21,6 +21,7 @@ import java.util.Set;
 import org.eclipse.draw2d.PositionConstants;
 import org.eclipse.draw2d.geometry.Point;
 import org.eclipse.draw2d.geometry.PointList;
+import org.eclipse.draw2d.geometry.Rectangle;
 
 /**
  * A Path representation for the ShortestPathRouting. A Path has a start and end
@@ -53,9 +54,7 @@ public class Path {
 
 	}
 
-	private static final Point CURRENT = new Point();
 	private static final double EPSILON = 1.04;
-	private static final Point NEXT = new Point();
 	private static final double OVAL_CONSTANT = 1.13;
 
 	/**
@@ -85,13 +84,28 @@ public class Path {
 	 */
 	private double prevCostRatio;
 	List<Segment> segments;
+	/**
+	 * The bounds used to query the obstacles near a segment.
+	 */
+	private final Rectangle segmentBounds = new Rectangle();
+	/**
+	 * The obstacles near a segment.
+	 */
+	private final List<Obstacle> candidates = new ArrayList<>();
+	private final Point current = new Point();
+	private final Point next = new Point();
 
 	private final SegmentStack stack;
+	private final VertexHeap heap = new VertexHeap();
 	Vertex start, end;
 	private Path subPath;
 	double threshold;
 	Set<Obstacle> visibleObstacles;
-	Set<Vertex> visibleVertices;
+	/**
+	 * The vertices of the visibility graph. The index of a vertex in this list is
+	 * its {@link Vertex#id}.
+	 */
+	List<Vertex> visibleVertices;
 
 	/**
 	 * Constructs a new path.
@@ -102,7 +116,7 @@ public class Path {
 		segments = new ArrayList<>();
 		grownSegments = new ArrayList<>();
 		points = new PointList();
-		visibleVertices = new HashSet<>();
+		visibleVertices = new ArrayList<>();
 		stack = new SegmentStack();
 		visibleObstacles = new HashSet<>();
 		excludedObstacles = new ArrayList<>();
@@ -220,7 +234,8 @@ public class Path {
 	 */
 	private void addObstacle(Obstacle newObs) {
 		visibleObstacles.add(newObs);
-		for (Obstacle currObs : new HashSet<>(visibleObstacles)) {
+		// only pushes segments onto the stack, so the set is not modified
+		for (Obstacle currObs : visibleObstacles) {
 			if (newObs != currObs) {
 				addSegmentsFor(newObs, currObs);
 			}
@@ -258,22 +273,37 @@ public class Path {
 	/**
 	 * Attempts to add a segment to the visibility graph. First checks to see if the
 	 * segment is outside the threshold oval. Then it compares the segment against
-	 * all obstacles. If it is clean, the segment is finally added to the graph.
+	 * the obstacles near its bounds, in the order in which they have been added. If
+	 * it is clean, the segment is finally added to the graph.
 	 *
-	 * @param segment      the segment
-	 * @param exclude1     an obstacle to exclude from the search
-	 * @param exclude2     another obstacle to exclude from the search
-	 * @param allObstacles the list of all obstacles
+	 * @param segment   the segment
+	 * @param exclude1  an obstacle to exclude from the search
+	 * @param exclude2  another obstacle to exclude from the search
+	 * @param obstacles the index of all obstacles
 	 */
-	private void addSegment(Segment segment, Obstacle exclude1, Obstacle exclude2, List<Obstacle> allObstacles) {
+	private void addSegment(Segment segment, Obstacle exclude1, Obstacle exclude2, SpatialIndex<Obstacle> obstacles) {
 		if (threshold != 0 && (segment.end.getDistance(end) + segment.end.getDistance(start) > threshold
 				|| segment.start.getDistance(end) + segment.start.getDistance(start) > threshold)) {
 			return;
 		}
 
-		for (Obstacle obs : allObstacles) {
+		// an obstacle can only be hit if its bounds touch those of the segment
+		segmentBounds.setBounds(Math.min(segment.start.x, segment.end.x) - 1,
+				Math.min(segment.start.y, segment.end.y) - 1, Math.abs(segment.end.x - segment.start.x) + 3,
+				Math.abs(segment.end.y - segment.start.y) + 3);
+		candidates.clear();
+		obstacles.queryAll(segmentBounds, candidates);
+		candidates.sort(Obstacle.ORDER);
 
-			if (obs == exclude1 || obs == exclude2 || obs.exclude) {
+		Obstacle previous = null;
+		for (Obstacle obs : candidates) {
+			if (obs == previous) {
+				// the same obstacle has been found in several cells
+				continue;
+			}
+			previous = obs;
+
+			if (obs == exclude1 || obs == exclude2 || excludedObstacles.contains(obs)) {
 				continue;
 			}
 
@@ -479,21 +509,31 @@ public class Path {
 	*/
 	void cleanup() {
 		// segments.clear();
+		clearVisibleVertices();
+	}
+
+	/**
+	 * Removes all vertices from the visibility graph and releases their ids.
+	 */
+	private void clearVisibleVertices() {
+		for (Vertex vertex : visibleVertices) {
+			vertex.id = -1;
+		}
 		visibleVertices.clear();
 	}
 
 	/**
 	 * Begins the creation of the visibility graph with the first segment
 	 *
-	 * @param allObstacles list of all obstacles
+	 * @param obstacles the index of all obstacles
 	 */
-	private void createVisibilityGraph(List<Obstacle> allObstacles) {
+	private void createVisibilityGraph(SpatialIndex<Obstacle> obstacles) {
 		stack.push(null);
 		stack.push(null);
 		stack.push(new Segment(start, end));
 
 		while (!stack.isEmpty()) {
-			addSegment(stack.pop(), stack.popObstacle(), stack.popObstacle(), allObstacles);
+			addSegment(stack.pop(), stack.popObstacle(), stack.popObstacle(), obstacles);
 		}
 	}
 
@@ -529,7 +569,7 @@ public class Path {
 	 * Resets all necessary fields for a solve.
 	 */
 	void fullReset() {
-		visibleVertices.clear();
+		clearVisibleVertices();
 		segments.clear();
 		if (prevCostRatio == 0) {
 			double distance = start.getDistance(end);
@@ -545,11 +585,11 @@ public class Path {
 	 * Creates the visibility graph and returns whether or not a shortest path could
 	 * be determined.
 	 *
-	 * @param allObstacles the list of all obstacles
+	 * @param obstacles the index of all obstacles
 	 * @return true if a shortest path was found
 	 */
-	boolean generateShortestPath(List<Obstacle> allObstacles) {
-		createVisibilityGraph(allObstacles);
+	boolean generateShortestPath(SpatialIndex<Obstacle> obstacles) {
+		createVisibilityGraph(obstacles);
 
 		if (visibleVertices.isEmpty()) {
 			return false;
@@ -558,6 +598,22 @@ public class Path {
 		return determineShortestPath();
 	}
 
+	/**
+	 * Returns the vertices this path bends around in its current solution. These
+	 * are the ends of all but the last grown segment or, if the path has not been
+	 * grown yet, of its segments.
+	 *
+	 * @return the bend vertices
+	 */
+	List<Vertex> getBendVertices() {
+		List<Segment> solution = grownSegments.isEmpty() ? segments : grownSegments;
+		List<Vertex> result = new ArrayList<>(solution.size());
+		for (int s = 0; s < solution.size() - 1; s++) {
+			result.add(solution.get(s).end);
+		}
+		return result;
+	}
+
 	/**
 	 * Returns the list of constrained points through which this path must pass or
 	 * <code>null</code>.
@@ -635,6 +691,35 @@ public class Path {
 		}
 	}
 
+	/**
+	 * Returns the bounds of the threshold oval, outside of which the search of this
+	 * path does not visit any vertex, or <code>null</code> if the search is not
+	 * bounded. The oval is the ellipse whose foci are the end points and whose
+	 * major axis is the threshold.
+	 *
+	 * @return the bounds of the search or <code>null</code>
+	 */
+	Rectangle getSearchBounds() {
+		if (threshold == 0) {
+			return null;
+		}
+		double distance = start.getDistance(end);
+		double a = threshold / 2;
+		double b = Math.sqrt(Math.max(a * a - distance * distance / 4, 0));
+		double cos = distance == 0 ? 1 : (end.x - start.x) / distance;
+		double sin = distance == 0 ? 0 : (end.y - start.y) / distance;
+		double halfWidth = Math.sqrt(a * a * cos * cos + b * b * sin * sin);
+		double halfHeight = Math.sqrt(a * a * sin * sin + b * b * cos * cos);
+		double centerX = (start.x + end.x) / 2.0;
+		double centerY = (start.y + end.y) / 2.0;
+		// one pixel of margin, as obstacles include their right and bottom edges
+		int x1 = (int) Math.floor(centerX - halfWidth) - 1;
+		int y1 = (int) Math.floor(centerY - halfHeight) - 1;
+		int x2 = (int) Math.ceil(centerX + halfWidth) + 1;
+		int y2 = (int) Math.ceil(centerY + halfHeight) + 1;
+		return new Rectangle(x1, y1, x2 - x1 + 1, y2 - y1 + 1);
+	}
+
 	/**
 	 * Returns true if this obstacle is in the visibility graph
 	 *
@@ -646,50 +731,42 @@ public class Path {
 	}
 
 	/**
-	 * Labels the visibility graph to assist in finding the shortest path
+	 * Labels the visibility graph to assist in finding the shortest path. The
+	 * vertices are visited in the order of their cost plus their distance to the
+	 * end point, which never overestimates the remaining cost. Labeling therefore
+	 * stops as soon as the end point becomes permanent.
 	 *
 	 * @return false if there was a gap in the visibility graph
 	 */
 	private boolean labelGraph() {
-		int numPermanentNodes = 1;
-		Vertex vertex = start;
-		Vertex neighborVertex = null;
-		vertex.isPermanent = true;
-		double newCost;
-		while (numPermanentNodes != visibleVertices.size()) {
+		if (start.id < 0) {
+			return false;
+		}
+		heap.clear(visibleVertices.size());
+		heap.insertOrDecrease(start.id, start.getDistance(end));
+		while (!heap.isEmpty()) {
+			Vertex vertex = visibleVertices.get(heap.removeMin());
+			vertex.isPermanent = true;
+			if (vertex == end) {
+				return true;
+			}
 			List<Vertex> neighbors = vertex.neighbors;
 			if (neighbors == null) {
 				return false;
 			}
 			// label neighbors if they have a new shortest path
 			for (Vertex neighbor : neighbors) {
-				neighborVertex = neighbor;
-				if (!neighborVertex.isPermanent) {
-					newCost = vertex.cost + vertex.getDistance(neighborVertex);
-					if (neighborVertex.label == null) {
-						neighborVertex.label = vertex;
-						neighborVertex.cost = newCost;
-					} else if (neighborVertex.cost > newCost) {
-						neighborVertex.label = vertex;
-						neighborVertex.cost = newCost;
+				if (!neighbor.isPermanent) {
+					double newCost = vertex.cost + vertex.getDistance(neighbor);
+					if (neighbor.label == null || neighbor.cost > newCost) {
+						neighbor.label = vertex;
+						neighbor.cost = newCost;
+						heap.insertOrDecrease(neighbor.id, newCost + neighbor.getDistance(end));
 					}
 				}
 			}
-			// find the next none-permanent, labeled vertex with smallest cost
-			double smallestCost = 0;
-			Vertex tempVertex = null;
-			for (Vertex visibleVertex : visibleVertices) {
-				tempVertex = visibleVertex;
-				if (!tempVertex.isPermanent && tempVertex.label != null
-						&& (tempVertex.cost < smallestCost || smallestCost == 0)) {
-					smallestCost = tempVertex.cost;
-					vertex = tempVertex;
-				}
-			}
-			// set the new vertex to permanent.
-			vertex.isPermanent = true;
-			numPermanentNodes++;
 		}
+		// the end point is not reachable, which is detected by its missing label
 		return true;
 	}
 
@@ -711,8 +788,15 @@ public class Path {
 			segment.end.neighbors.add(segment.start);
 		}
 
-		visibleVertices.add(segment.start);
-		visibleVertices.add(segment.end);
+		addVisibleVertex(segment.start);
+		addVisibleVertex(segment.end);
+	}
+
+	private void addVisibleVertex(Vertex vertex) {
+		if (vertex.id < 0) {
+			vertex.id = visibleVertices.size();
+			visibleVertices.add(vertex);
+		}
 	}
 
 	/**
@@ -744,17 +828,34 @@ public class Path {
 	 * Refreshes the exclude field on the obstacles in the list. Excludes all
 	 * obstacles that contain the start or end point for this path.
 	 *
-	 * @param allObstacles list of all obstacles
+	 * @param obstacles list of obstacles, containing at least all obstacles which
+	 *                  contain the start or end point
 	 */
-	void refreshExcludedObstacles(List<Obstacle> allObstacles) {
+	void refreshExcludedObstacles(List<Obstacle> obstacles) {
+		setExcludedObstacles(obstacles);
+		for (Obstacle o : obstacles) {
+			o.exclude = excludedObstacles.contains(o);
+		}
+	}
+
+	/**
+	 * Sets the excluded obstacles of this path to those of the given obstacles
+	 * which contain its start or end point. Unlike
+	 * {@link #refreshExcludedObstacles(List)}, the exclude field of the obstacles
+	 * is not changed, so paths may be solved concurrently.
+	 *
+	 * @param obstacles list of obstacles, containing at least all obstacles which
+	 *                  contain the start or end point
+	 */
+	void setExcludedObstacles(List<Obstacle> obstacles) {
 		excludedObstacles.clear();
 
-		for (Obstacle o : allObstacles) {
-			o.exclude = false;
+		for (Obstacle o : obstacles) {
+			boolean exclude = false;
 
 			if (o.contains(start)) {
 				if (o.containsProper(start)) {
-					o.exclude = true;
+					exclude = true;
 				} else {
 					/*
 					 * $TODO Check for corners. If the path begins exactly at the corner of an
@@ -768,18 +869,30 @@ public class Path {
 
 			if (o.contains(end)) {
 				if (o.containsProper(end)) {
-					o.exclude = true;
+					exclude = true;
 				} else {
 					// check for corners. See above statement.
 				}
 			}
 
-			if (o.exclude && !excludedObstacles.contains(o)) {
+			if (exclude && !excludedObstacles.contains(o)) {
 				excludedObstacles.add(o);
 			}
 		}
 	}
 
+	/**
+	 * Resets the vertices of the visibility graph and the end points. These are the
+	 * only vertices modified by the search of this path.
+	 */
+	void resetGraphVertices() {
+		for (Vertex vertex : visibleVertices) {
+			vertex.fullReset();
+		}
+		start.fullReset();
+		end.fullReset();
+	}
+
 	/**
 	 * Resets the fields for everything in the solve after the visibility graph
 	 * steps.
@@ -851,11 +964,11 @@ public class Path {
 		Segment seg2 = new Segment(obs.topRight, obs.bottomLeft);
 
 		for (int s = 0; s < points.size() - 1; s++) {
-			points.getPoint(CURRENT, s);
-			points.getPoint(NEXT, s + 1);
+			points.getPoint(current, s);
+			points.getPoint(next, s + 1);
 
-			if (seg1.intersects(CURRENT, NEXT) || seg2.intersects(CURRENT, NEXT) || obs.contains(CURRENT)
-					|| obs.contains(NEXT)) {
+			if (seg1.intersects(current, next) || seg2.intersects(current, next) || obs.contains(current)
+					|| obs.contains(next)) {
 				isDirty = true;
 				return true;
 			}
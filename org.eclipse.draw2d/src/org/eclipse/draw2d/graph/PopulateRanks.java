@@ -30,7 +30,7 @@ import java.util.List;
  */
 class PopulateRanks extends GraphVisitor {
 
-	private final Deque<RevertableChange> changes = new ArrayDeque<>();
+	final Deque<RevertableChange> changes = new ArrayDeque<>();
 
 	/**
 	 * @see GraphVisitor#visit(DirectedGraph)
@@ -42,11 +42,15 @@ class PopulateRanks extends GraphVisitor {
 				g.removeEdge(g.forestRoot.outgoing.get(i));
 			}
 			g.removeNode(g.forestRoot);
+			g.forestRoot = null;
 		}
 		g.ranks = new RankList();
 		for (Node node : g.nodes) {
 			g.ranks.getRank(node.rank).add(node);
 		}
+		// Discard the virtual nodes of a previous layout, which would otherwise be
+		// removed from the new ranks together with their edge.
+		g.edges.forEach(e -> e.vNodes = null);
 		// The constructor of VirtualNodeCreation may add additional nodes to the graph.
 		// If we work on the same list of nodes, this will cause a
 		// ConcurrentModificationException. Work on a copy of the node list so that we
@@ -78,7 +82,9 @@ class PopulateRanks extends GraphVisitor {
 				prev = cur;
 			}
 		}
-		changes.forEach(RevertableChange::revert);
+		while (!changes.isEmpty()) {
+			changes.pop().revert();
+		}
 	}
 
 }
@@ -0,0 +1,95 @@
+/*******************************************************************************
+ * Copyright (c) 2026 agent and others.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0.
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     agent - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.draw2d.graph;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.function.IntUnaryOperator;
+
+/**
+ * The ranks and the order within the ranks of the nodes of a previous layout.
+ * It is taken before an incremental layout of the same graph, while the graph's
+ * {@link DirectedGraph#ranks ranks} still contain the previous result.
+ *
+ * @since 3.16
+ */
+class RankSnapshot {
+
+	private record Position(int rank, int index) {
+	}
+
+	private final Map<Node, Position> positions = new HashMap<>();
+	private IntUnaryOperator rankMapping = IntUnaryOperator.identity();
+
+	/**
+	 * Takes a snapshot of the ranks of the given graph.
+	 *
+	 * @param g the previously laid out graph
+	 */
+	RankSnapshot(DirectedGraph g) {
+		for (int r = 0; r < g.ranks.size(); r++) {
+			Rank rank = g.ranks.getRank(r);
+			for (int i = 0; i < rank.size(); i++) {
+				positions.put(rank.get(i), new Position(r, i));
+			}
+		}
+	}
+
+	/**
+	 * Returns <code>true</code> if the given node has been laid out previously.
+	 *
+	 * @param node the node
+	 * @return whether the node has a previous rank
+	 */
+	boolean contains(Node node) {
+		return positions.containsKey(node);
+	}
+
+	/**
+	 * Returns the previous index of the given node within its rank, if the node is
+	 * placed in the same rank again. Otherwise, <code>NaN</code> is returned.
+	 *
+	 * @param node the node
+	 * @param rank the new rank of the node
+	 * @return the previous index or <code>NaN</code>
+	 */
+	double getIndex(Node node, int rank) {
+		Position position = positions.get(node);
+		if (position == null || rankMapping.applyAsInt(position.rank) != rank) {
+			return Double.NaN;
+		}
+		return position.index;
+	}
+
+	/**
+	 * Returns the previous rank of the given node.
+	 *
+	 * @param node a previously laid out node
+	 * @return the previous rank
+	 */
+	int getRank(Node node) {
+		return positions.get(node).rank;
+	}
+
+	/**
+	 * Sets the mapping from the previous ranks to the new ranks, which results
+	 * from normalizing the new ranks.
+	 *
+	 * @param rankMapping the new rank of each previous rank, or <code>-1</code> if
+	 *                    the rank has been removed
+	 */
+	void setRankMapping(IntUnaryOperator rankMapping) {
+		this.rankMapping = rankMapping;
+	}
+
+}
@@ -13,6 +13,7 @@
 package org.eclipse.draw2d.graph;
 
 import java.util.Collections;
+import java.util.Comparator;
 import java.util.Random;
 
 /**
@@ -23,6 +24,9 @@ import java.util.Random;
  */
 class RankSorter {
 
+	private static final Comparator<Node> SORT_VALUE_ORDER = (left, right) -> Double.compare(left.sortValue,
+			right.sortValue);
+
 	Random flipflop = new Random(3);
 	Node node;
 	double rankSize, prevRankSize, nextRankSize;
@@ -30,6 +34,11 @@ class RankSorter {
 	Rank rank;
 	double progress;
 	DirectedGraph g;
+	/**
+	 * Whether a rank contains a node which is, or is nested in, a subgraph with a
+	 * row constraint. Nodes of the other ranks may be swapped freely.
+	 */
+	boolean[] constrained;
 
 	protected void assignIncomingSortValues() {
 		rankSize = rank.total;
@@ -154,6 +163,7 @@ class RankSorter {
 
 	public void init(DirectedGraph g) {
 		this.g = g;
+		constrained = new boolean[g.ranks.size()];
 		for (int i = 0; i < g.ranks.size(); i++) {
 			rank = g.ranks.getRank(i);
 
@@ -161,9 +171,21 @@ class RankSorter {
 			// preserved throughout.
 			Collections.sort(rank, (left, right) -> left.getRowConstraint() - right.getRowConstraint());
 			postSort();
+			constrained[i] = hasRowConstraints(rank);
 		}
 	}
 
+	private static boolean hasRowConstraints(Rank rank) {
+		for (Node n : rank) {
+			for (Node node = n; node != null; node = node.getParent()) {
+				if (node.getRowConstraint() != -1) {
+					return true;
+				}
+			}
+		}
+		return false;
+	}
+
 	void optimize(DirectedGraph g) {
 	}
 
@@ -172,6 +194,11 @@ class RankSorter {
 	}
 
 	void sort() {
+		if (!constrained[currentRow]) {
+			// without constraints, the swaps below amount to a stable sort
+			rank.sort(SORT_VALUE_ORDER);
+			return;
+		}
 		boolean change;
 		do {
 			change = false;
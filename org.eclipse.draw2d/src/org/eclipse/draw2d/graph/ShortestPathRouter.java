@@ -15,9 +15,14 @@ package org.eclipse.draw2d.graph;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
+import java.util.Set;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
 
 import org.eclipse.draw2d.PositionConstants;
 import org.eclipse.draw2d.geometry.Point;
@@ -38,6 +43,13 @@ import org.eclipse.draw2d.geometry.Rectangle;
  * number of paths, n is the number of obstacles, and s is the average number of
  * segments in each path's final solution.
  * <P>
+ * By default every solve offsets all paths again, even if only a few of them
+ * have been re-solved. In {@link #setIncremental(boolean) incremental} mode only
+ * the paths which may be affected by the changes since the last solve are
+ * offset again. These are the dirty paths, the paths close to an added or
+ * removed obstacle and, transitively, all paths which bend around a corner
+ * shared with one of them or which pass close to such a corner.
+ * <P>
  * This class is not intended to be subclassed.
  *
  * @author Whitney Sorenson
@@ -66,14 +78,47 @@ public class ShortestPathRouter {
 	 */
 	private static final int NUM_GROW_PASSES = 2;
 
+	/**
+	 * The cell size of the spatial indices of obstacles and path segments.
+	 */
+	private static final int CELL_SIZE = 100;
+
+	/**
+	 * The minimum number of dirty paths for which the paths are solved in
+	 * parallel.
+	 */
+	private static final int MIN_PARALLEL_PATHS = 16;
+
 	private int spacing = 4;
 	private boolean growPassChangedObstacles;
+	private int maxGrowth;
+	private int nextObstacleOrder;
+	private boolean incremental;
+	private boolean offsetAllPaths = true;
+	private ForkJoinPool pool;
 	private List<Path> orderedPaths;
 	private final Map<Path, List<Path>> pathsToChildPaths;
 
 	private PathStack stack;
 	private List<Path> subPaths;
 
+	/**
+	 * The working paths which are offset by the current solve.
+	 */
+	private List<Path> activePaths;
+	private AffectedPaths affectedPaths;
+
+	/**
+	 * The bounds of the obstacles added or removed since the last solve.
+	 */
+	private final List<Rectangle> changedRegions;
+	/**
+	 * The vertices no longer bent around by a path since the last solve.
+	 */
+	private final List<Vertex> releasedVertices;
+	private final SpatialIndex<Obstacle> obstacleIndex;
+	private final SpatialIndex<Path> pathIndex;
+
 	private final List<Obstacle> userObstacles;
 	private final List<Path> userPaths;
 	private final List<Path> workingPaths;
@@ -86,6 +131,10 @@ public class ShortestPathRouter {
 		workingPaths = new ArrayList<>();
 		pathsToChildPaths = new HashMap<>();
 		userObstacles = new ArrayList<>();
+		changedRegions = new ArrayList<>();
+		releasedVertices = new ArrayList<>();
+		obstacleIndex = new SpatialIndex<>(CELL_SIZE);
+		pathIndex = new SpatialIndex<>(CELL_SIZE);
 	}
 
 	/**
@@ -161,7 +210,7 @@ public class ShortestPathRouter {
 
 		int xDist, yDist;
 
-		for (Obstacle obs : userObstacles) {
+		for (Obstacle obs : getObstacles(r)) {
 			if (obs != vertex.obs && r.intersects(obs)) {
 				int pos = obs.getPosition(vertex);
 				if (pos == 0) {
@@ -198,7 +247,7 @@ public class ShortestPathRouter {
 	 * Checks all vertices along paths for intersections
 	 */
 	private void checkVertexIntersections() {
-		for (Path path : workingPaths) {
+		for (Path path : activePaths) {
 
 			for (int s = 0; s < path.segments.size() - 1; s++) {
 				Vertex vertex = path.segments.get(s).end;
@@ -221,7 +270,7 @@ public class ShortestPathRouter {
 	 * count.
 	 */
 	private void countVertices() {
-		for (Path path : workingPaths) {
+		for (Path path : activePaths) {
 			for (int v = 0; v < path.segments.size() - 1; v++) {
 				path.segments.get(v).end.totalCount++;
 			}
@@ -264,6 +313,70 @@ public class ShortestPathRouter {
 	 * workingPaths.add(path); } //End FOR }
 	 */
 
+	/**
+	 * Partitions the given paths into clusters of paths whose searches may visit a
+	 * common vertex. The search of a path only visits the corners of obstacles it
+	 * does not exclude which lie within its threshold oval. The searches of paths
+	 * in different clusters therefore never modify the same vertices, so the
+	 * clusters can be solved concurrently. Paths whose search is not bounded are
+	 * not part of any cluster.
+	 *
+	 * @param paths the paths, which have been reset for a solve and whose excluded
+	 *              obstacles are up to date
+	 * @return the clusters, each in the order of the given paths
+	 */
+	private List<List<Path>> getClusters(List<Path> paths) {
+		int[] parents = new int[paths.size()];
+		Map<Vertex, Integer> owners = new IdentityHashMap<>();
+		for (int i = 0; i < paths.size(); i++) {
+			Path path = paths.get(i);
+			parents[i] = i;
+			Rectangle bounds = path.getSearchBounds();
+			if (bounds == null) {
+				parents[i] = -1;
+				continue;
+			}
+			for (Obstacle obs : obstacleIndex.query(bounds)) {
+				if (path.excludedObstacles.contains(obs)) {
+					continue;
+				}
+				for (Vertex vertex : new Vertex[] { obs.topLeft, obs.topRight, obs.bottomLeft, obs.bottomRight }) {
+					if (vertex.getDistance(path.end) + vertex.getDistance(path.start) > path.threshold) {
+						continue;
+					}
+					Integer owner = owners.putIfAbsent(vertex, Integer.valueOf(i));
+					if (owner != null) {
+						// union by pointing the later root to the earlier one
+						int root = getRoot(parents, i);
+						int ownerRoot = getRoot(parents, owner.intValue());
+						parents[Math.max(root, ownerRoot)] = Math.min(root, ownerRoot);
+					}
+				}
+			}
+		}
+
+		Map<Integer, List<Path>> clusters = new LinkedHashMap<>();
+		for (int i = 0; i < paths.size(); i++) {
+			if (parents[i] >= 0) {
+				clusters.computeIfAbsent(Integer.valueOf(getRoot(parents, i)), k -> new ArrayList<>())
+						.add(paths.get(i));
+			}
+		}
+		return new ArrayList<>(clusters.values());
+	}
+
+	/**
+	 * Returns the pool used to solve dirty paths in parallel, or <code>null</code>
+	 * if paths are solved on the calling thread.
+	 *
+	 * @return the pool or <code>null</code>
+	 * @see #setForkJoinPool(ForkJoinPool)
+	 * @since 3.16
+	 */
+	public ForkJoinPool getForkJoinPool() {
+		return pool;
+	}
+
 	/**
 	 * Returns the closest vertex to the given segment.
 	 *
@@ -280,6 +393,46 @@ public class ShortestPathRouter {
 		return v1;
 	}
 
+	private static int getRoot(int[] parents, int index) {
+		while (parents[index] != index) {
+			parents[index] = parents[parents[index]];
+			index = parents[index];
+		}
+		return index;
+	}
+
+	/**
+	 * Returns the obstacles intersecting the given rectangle, in the order in
+	 * which they have been added.
+	 *
+	 * @param rect the rectangle
+	 * @return the obstacles
+	 */
+	private List<Obstacle> getObstacles(Rectangle rect) {
+		List<Obstacle> result = obstacleIndex.query(rect);
+		result.sort(Obstacle.ORDER);
+		return result;
+	}
+
+	/**
+	 * Returns the obstacles containing either of the given points, in the order in
+	 * which they have been added.
+	 *
+	 * @param start the first point
+	 * @param end   the second point
+	 * @return the obstacles
+	 */
+	private List<Obstacle> getObstaclesAt(Point start, Point end) {
+		List<Obstacle> result = obstacleIndex.query(new Rectangle(start.x, start.y, 1, 1));
+		for (Obstacle obs : obstacleIndex.query(new Rectangle(end.x, end.y, 1, 1))) {
+			if (result.stream().noneMatch(o -> o == obs)) {
+				result.add(obs);
+			}
+		}
+		result.sort(Obstacle.ORDER);
+		return result;
+	}
+
 	/**
 	 * Returns the spacing maintained between paths.
 	 *
@@ -301,20 +454,38 @@ public class ShortestPathRouter {
 	private Path getSubpathForSplit(Path path, Segment segment) {
 		Path newPath = path.getSubPath(segment);
 		workingPaths.add(newPath);
+		activePaths.add(newPath);
 		subPaths.add(newPath);
 		return newPath;
 	}
 
 	/**
-	 * Grows all obstacles in in routing and tests for new intersections
+	 * Grows all obstacles in in routing and tests for new intersections. In
+	 * incremental mode, this is repeated until the active paths no longer affect
+	 * any of the other paths.
 	 */
 	private void growObstacles() {
-		growPassChangedObstacles = false;
-		for (int i = 0; i < NUM_GROW_PASSES; i++) {
-			if (i == 0 || growPassChangedObstacles) {
-				growObstaclesPass();
+		boolean expanded;
+		do {
+			resetVertices();
+			for (Path path : activePaths) {
+				path.resetPartial();
 			}
-		}
+			countVertices();
+			checkVertexIntersections();
+
+			growPassChangedObstacles = false;
+			for (int i = 0; i < NUM_GROW_PASSES; i++) {
+				if (i == 0 || growPassChangedObstacles) {
+					growObstaclesPass();
+				}
+			}
+
+			expanded = affectedPaths != null && affectedPaths.expand(activePaths);
+			if (expanded) {
+				activePaths = affectedPaths.getActivePaths(workingPaths);
+			}
+		} while (expanded);
 	}
 
 	/**
@@ -323,12 +494,14 @@ public class ShortestPathRouter {
 	 */
 	private void growObstaclesPass() {
 		// grow obstacles
+		maxGrowth = 0;
 		for (Obstacle userObstacle : userObstacles) {
 			userObstacle.growVertices();
+			maxGrowth = Math.max(maxGrowth, userObstacle.getGrowth());
 		}
 
 		// go through paths and test segments
-		for (Path path : workingPaths) {
+		for (Path path : activePaths) {
 
 			for (Obstacle element : path.excludedObstacles) {
 				element.exclude = true;
@@ -358,13 +531,29 @@ public class ShortestPathRouter {
 		}
 	}
 
+	/**
+	 * Indexes the segments of the solution of the given path.
+	 *
+	 * @param path the path
+	 */
+	private void indexPath(Path path) {
+		pathIndex.remove(path);
+		PointList points = path.points;
+		for (int i = 0; i < points.size() - 1; i++) {
+			pathIndex.add(path, new Rectangle(points.getPoint(i), points.getPoint(i + 1)));
+		}
+	}
+
 	/**
 	 * Adds an obstacle to the routing
 	 *
 	 * @param obs the obstacle
 	 */
 	private boolean internalAddObstacle(Obstacle obs) {
+		obs.order = nextObstacleOrder++;
 		userObstacles.add(obs);
+		obstacleIndex.add(obs, new Rectangle(obs.x, obs.y, Math.max(obs.width, 1), Math.max(obs.height, 1)));
+		changedRegions.add(obs);
 		return testAndDirtyPaths(obs);
 	}
 
@@ -386,6 +575,8 @@ public class ShortestPathRouter {
 		}
 
 		userObstacles.remove(index);
+		obstacleIndex.remove(obs);
+		changedRegions.add(obs);
 
 		boolean result = false;
 		result |= dirtyPathsOn(obs.bottomLeft);
@@ -405,6 +596,18 @@ public class ShortestPathRouter {
 		return result;
 	}
 
+	/**
+	 * Returns whether only the paths affected by the changes since the last solve
+	 * are offset. The default is <code>false</code>.
+	 *
+	 * @return <code>true</code> if the routing is incremental
+	 * @see #setIncremental(boolean)
+	 * @since 3.16
+	 */
+	public boolean isIncremental() {
+		return incremental;
+	}
+
 	/**
 	 * Labels the given path's vertices as innies, or outies, as well as determining
 	 * if this path is inverted.
@@ -460,7 +663,7 @@ public class ShortestPathRouter {
 	 */
 	private void labelPaths() {
 		Path path = null;
-		for (Path workingPath : workingPaths) {
+		for (Path workingPath : activePaths) {
 			path = workingPath;
 			stack.push(path);
 		}
@@ -474,7 +677,7 @@ public class ShortestPathRouter {
 		}
 
 		// revert is marked so we can use it again in ordering.
-		for (Path workingPath : workingPaths) {
+		for (Path workingPath : activePaths) {
 			path = workingPath;
 			path.isMarked = false;
 		}
@@ -551,7 +754,7 @@ public class ShortestPathRouter {
 	 * Orders all paths in the graph.
 	 */
 	private void orderPaths() {
-		for (Path path : workingPaths) {
+		for (Path path : activePaths) {
 			orderPath(path);
 		}
 	}
@@ -591,6 +794,7 @@ public class ShortestPathRouter {
 
 		orderedPaths.removeAll(subPaths);
 		workingPaths.removeAll(subPaths);
+		activePaths.removeAll(subPaths);
 		subPaths = null;
 	}
 
@@ -615,13 +819,25 @@ public class ShortestPathRouter {
 		userPaths.remove(path);
 		List<Path> children = pathsToChildPaths.get(path);
 		if (children == null) {
-			workingPaths.remove(path);
+			removeWorkingPath(path);
 		} else {
-			workingPaths.removeAll(children);
+			children.forEach(this::removeWorkingPath);
 		}
 		return true;
 	}
 
+	/**
+	 * Removes the given path from the working paths and releases the vertices of
+	 * its solution.
+	 *
+	 * @param path the working path
+	 */
+	private void removeWorkingPath(Path path) {
+		workingPaths.remove(path);
+		pathIndex.remove(path);
+		releasedVertices.addAll(path.getBendVertices());
+	}
+
 	/**
 	 * Resets exclude field on all obstacles
 	 */
@@ -645,6 +861,32 @@ public class ShortestPathRouter {
 		}
 	}
 
+	/**
+	 * Sets the pool used to solve dirty paths in parallel. The paths are
+	 * partitioned into clusters of paths whose searches may visit a common
+	 * obstacle corner, and the clusters are solved concurrently. The routes are the same
+	 * as when the paths are solved one after another. If <code>null</code>, which
+	 * is the default, all paths are solved on the calling thread.
+	 *
+	 * @param pool the pool or <code>null</code>
+	 * @since 3.16
+	 */
+	public void setForkJoinPool(ForkJoinPool pool) {
+		this.pool = pool;
+	}
+
+	/**
+	 * Sets whether only the paths affected by the changes since the last solve are
+	 * offset. If <code>false</code>, all paths are offset by every solve. Dirty
+	 * paths are re-solved in either mode.
+	 *
+	 * @param incremental <code>true</code> for incremental routing
+	 * @since 3.16
+	 */
+	public void setIncremental(boolean incremental) {
+		this.incremental = incremental;
+	}
+
 	/**
 	 * Sets the default spacing between paths. The spacing is the minimum distance
 	 * that path should be offset from other paths or obstacles. The default value
@@ -656,6 +898,7 @@ public class ShortestPathRouter {
 	 */
 	public void setSpacing(int spacing) {
 		this.spacing = spacing;
+		offsetAllPaths = true;
 	}
 
 	/**
@@ -666,24 +909,41 @@ public class ShortestPathRouter {
 	 */
 	public List<Path> solve() {
 
-		solveDirtyPaths();
+		List<Path> solvedPaths = solveDirtyPaths();
 
-		countVertices();
-		checkVertexIntersections();
-		growObstacles();
+		if (incremental && !offsetAllPaths) {
+			affectedPaths = new AffectedPaths(workingPaths, solvedPaths, releasedVertices, changedRegions, pathIndex,
+					obstacleIndex, getSpacing());
+			activePaths = affectedPaths.getActivePaths(workingPaths);
+		} else {
+			activePaths = new ArrayList<>(workingPaths);
+		}
 
-		subPaths = new ArrayList<>();
-		stack = new PathStack();
-		labelPaths();
-		stack = null;
+		if (!activePaths.isEmpty()) {
+			growObstacles();
 
-		orderedPaths = new ArrayList<>();
-		orderPaths();
-		bendPaths();
+			subPaths = new ArrayList<>();
+			stack = new PathStack();
+			labelPaths();
+			stack = null;
 
-		recombineSubpaths();
-		orderedPaths = null;
-		subPaths = null;
+			orderedPaths = new ArrayList<>();
+			orderPaths();
+			bendPaths();
+
+			recombineSubpaths();
+			orderedPaths = null;
+			subPaths = null;
+
+			for (Path path : activePaths) {
+				indexPath(path);
+			}
+		}
+		activePaths = null;
+		affectedPaths = null;
+		offsetAllPaths = false;
+		changedRegions.clear();
+		releasedVertices.clear();
 
 		recombineChildrenPaths();
 		cleanup();
@@ -694,10 +954,10 @@ public class ShortestPathRouter {
 	/**
 	 * Solves paths that are dirty.
 	 *
-	 * @return number of dirty paths
+	 * @return the solved working paths
 	 */
-	private int solveDirtyPaths() {
-		int numSolved = 0;
+	private List<Path> solveDirtyPaths() {
+		List<Path> solvedPaths = new ArrayList<>();
 
 		for (Path path : userPaths) {
 			if (!path.isDirty) {
@@ -722,23 +982,37 @@ public class ShortestPathRouter {
 			refreshChildrenEndpoints(path, children);
 		}
 
+		if (pool != null) {
+			List<Path> dirtyPaths = workingPaths.stream().filter(path -> path.isDirty).toList();
+			if (dirtyPaths.size() >= MIN_PARALLEL_PATHS) {
+				return solveDirtyPathsInParallel(dirtyPaths);
+			}
+		}
+
+		Path previous = null;
 		for (Path path : workingPaths) {
-			path.refreshExcludedObstacles(userObstacles);
+			if (previous != null) {
+				for (Obstacle obs : previous.excludedObstacles) {
+					obs.exclude = false;
+				}
+			}
+			path.refreshExcludedObstacles(getObstaclesAt(path.start, path.end));
+			previous = path;
 			if (!path.isDirty) {
-				path.resetPartial();
 				continue;
 			}
 
-			numSolved++;
+			solvedPaths.add(path);
+			releasedVertices.addAll(path.getBendVertices());
 			path.fullReset();
 
-			boolean pathFoundCheck = path.generateShortestPath(userObstacles);
+			boolean pathFoundCheck = path.generateShortestPath(obstacleIndex);
 			if (!pathFoundCheck || path.end.cost > path.threshold) {
 				// path not found, or path found was too long
 				resetVertices();
 				path.fullReset();
 				path.threshold = 0;
-				pathFoundCheck = path.generateShortestPath(userObstacles);
+				pathFoundCheck = path.generateShortestPath(obstacleIndex);
 			}
 
 			resetVertices();
@@ -746,11 +1020,71 @@ public class ShortestPathRouter {
 
 		resetObstacleExclusions();
 
-		if (numSolved == 0) {
+		if (solvedPaths.isEmpty()) {
 			resetVertices();
 		}
 
-		return numSolved;
+		return solvedPaths;
+	}
+
+	/**
+	 * Solves the given dirty paths on the pool. Each cluster of paths is solved by
+	 * one task, so that no vertex is used by two searches at the same time. Paths
+	 * which are not found within their threshold, or whose search is not bounded,
+	 * are solved on the calling thread afterwards.
+	 *
+	 * @param dirtyPaths the dirty working paths
+	 * @return the solved working paths
+	 */
+	private List<Path> solveDirtyPathsInParallel(List<Path> dirtyPaths) {
+		for (Path path : workingPaths) {
+			path.setExcludedObstacles(getObstaclesAt(path.start, path.end));
+		}
+		for (Path path : dirtyPaths) {
+			releasedVertices.addAll(path.getBendVertices());
+			path.fullReset();
+		}
+
+		List<ForkJoinTask<List<Path>>> tasks = new ArrayList<>();
+		for (List<Path> cluster : getClusters(dirtyPaths)) {
+			tasks.add(ForkJoinTask.adapt(() -> {
+				List<Path> failedPaths = new ArrayList<>();
+				for (Path path : cluster) {
+					if (!path.generateShortestPath(obstacleIndex) || path.end.cost > path.threshold) {
+						failedPaths.add(path);
+					}
+					path.resetGraphVertices();
+				}
+				return failedPaths;
+			}));
+		}
+		pool.invoke(ForkJoinTask.adapt(() -> ForkJoinTask.invokeAll(tasks)));
+
+		Set<Path> failedPaths = Collections.newSetFromMap(new IdentityHashMap<>());
+		tasks.forEach(task -> failedPaths.addAll(task.join()));
+		resetVertices();
+
+		for (Path path : dirtyPaths) {
+			boolean unbounded = path.getSearchBounds() == null;
+			if (!unbounded && !failedPaths.contains(path)) {
+				continue;
+			}
+			// the first search of a bounded path has already failed
+			boolean pathFoundCheck = false;
+			if (unbounded) {
+				pathFoundCheck = path.generateShortestPath(obstacleIndex) && path.end.cost <= path.threshold;
+			}
+			if (!pathFoundCheck) {
+				// path not found, or path found was too long
+				resetVertices();
+				path.fullReset();
+				path.threshold = 0;
+				path.generateShortestPath(obstacleIndex);
+			}
+			resetVertices();
+		}
+
+		return new ArrayList<>(dirtyPaths);
 	}
 
 	/**
@@ -785,14 +1119,14 @@ public class ShortestPathRouter {
 	private List<Path> regenerateChildPaths(Path path, List<Path> children, int currentSize, int newSize) {
 		// Path used to be simple but now is compound, children is EMPTY.
 		if (currentSize == 1) {
-			workingPaths.remove(path);
+			removeWorkingPath(path);
 			currentSize = 0;
 			children = new ArrayList<>(newSize);
 			pathsToChildPaths.put(path, children);
 		} else
 		// Path is becoming simple but was compound. children becomes empty.
 		if (newSize == 1) {
-			workingPaths.removeAll(children);
+			children.forEach(this::removeWorkingPath);
 			workingPaths.add(path);
 			pathsToChildPaths.remove(path);
 			return Collections.emptyList();
@@ -808,7 +1142,7 @@ public class ShortestPathRouter {
 
 		while (currentSize > newSize) {
 			Path child = children.remove(children.size() - 1);
-			workingPaths.remove(child);
+			removeWorkingPath(child);
 			currentSize--;
 		}
 
@@ -824,7 +1158,8 @@ public class ShortestPathRouter {
 	 * @return 1 if new segments have been inserted
 	 */
 	private int testOffsetSegmentForIntersections(Segment segment, int index, Path path) {
-		for (Obstacle obs : userObstacles) {
+		int margin = getSpacing() + maxGrowth + 1;
+		for (Obstacle obs : getObstacles(new Rectangle(segment.start, segment.end).expand(margin, margin))) {
 
 			if (segment.end.obs == obs || segment.start.obs == obs || obs.exclude) {
 				continue;
@@ -874,6 +1209,7 @@ public class ShortestPathRouter {
 				vertex.shrink();
 				checkVertexForIntersections(vertex);
 				vertex.grow();
+				maxGrowth = Math.max(maxGrowth, vertex.getGrowth());
 
 				if (vertex.nearestObstacle != 0) {
 					vertex.updateOffset();
@@ -905,7 +1241,7 @@ public class ShortestPathRouter {
 	 */
 	private boolean testAndDirtyPaths(Obstacle obs) {
 		boolean result = false;
-		for (Path path : workingPaths) {
+		for (Path path : pathIndex.query(obs)) {
 			result |= path.testAndSet(obs);
 		}
 		return result;
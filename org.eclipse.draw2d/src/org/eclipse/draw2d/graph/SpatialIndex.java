@@ -0,0 +1,180 @@
+/*******************************************************************************
+ * Copyright (c) 2026 agent and others.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0.
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     agent - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.draw2d.graph;
+
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.eclipse.draw2d.geometry.Rectangle;
+import org.eclipse.draw2d.internal.CellGrid;
+
+/**
+ * A uniform grid of rectangular areas for the ShortestPathRouting. An item may
+ * be added with several areas, e.g. one for each segment of a path. The index
+ * is used to answer which items may intersect a rectangle without visiting
+ * every item.
+ * <P>
+ * Areas which span more than {@link CellGrid#MAX_CELLS} grid cells are not
+ * stored in the grid, but are always tested.
+ *
+ * This class is for internal use only.
+ *
+ * @param <T> the type of the indexed items
+ */
+class SpatialIndex<T> {
+
+	/**
+	 * An indexed item and its areas.
+	 */
+	private static class Item<T> {
+		final T item;
+		final List<Entry<T>> entries = new ArrayList<>(4);
+		/**
+		 * The last query which has returned this item.
+		 */
+		int queryStamp;
+
+		Item(T item) {
+			this.item = item;
+		}
+	}
+
+	/**
+	 * An area of an item.
+	 */
+	private static class Entry<T> {
+		final Item<T> owner;
+		final Rectangle bounds;
+		final Rectangle range;
+
+		Entry(Item<T> owner, Rectangle bounds, Rectangle range) {
+			this.owner = owner;
+			this.bounds = bounds;
+			this.range = range;
+		}
+	}
+
+	private final CellGrid<Entry<T>> cells;
+	private final Map<T, Item<T>> items = new IdentityHashMap<>();
+	private final List<Entry<T>> oversized = new ArrayList<>();
+	private int queryStamp;
+
+	/**
+	 * Creates a new empty index.
+	 *
+	 * @param cellSize the width and height of a grid cell
+	 */
+	SpatialIndex(int cellSize) {
+		cells = new CellGrid<>(cellSize);
+	}
+
+	/**
+	 * Adds an area for the given item. The bounds are not copied and must not be
+	 * modified while the item is indexed.
+	 *
+	 * @param item   the item
+	 * @param bounds the area covered by the item
+	 */
+	void add(T item, Rectangle bounds) {
+		Rectangle range = cells.getCellRange(bounds);
+		Item<T> owner = items.computeIfAbsent(item, Item::new);
+		Entry<T> entry = new Entry<>(owner, bounds, range);
+		owner.entries.add(entry);
+		if (range.isEmpty()) {
+			oversized.add(entry);
+		} else {
+			cells.add(entry, range);
+		}
+	}
+
+	/**
+	 * Returns the items having an area which intersects the given rectangle. Each
+	 * item is returned once, in no particular order. Queries must not be run
+	 * concurrently.
+	 *
+	 * @param rect the rectangle
+	 * @return the candidate items
+	 */
+	List<T> query(Rectangle rect) {
+		List<T> result = new ArrayList<>();
+		if (rect.isEmpty()) {
+			return result;
+		}
+		if (++queryStamp == 0) {
+			// the stamps have wrapped around, so clear the ones of earlier queries
+			items.values().forEach(item -> item.queryStamp = 0);
+			queryStamp = 1;
+		}
+		int stamp = queryStamp;
+		cells.forEachCell(rect, cell -> collect(cell, rect, stamp, result));
+		collect(oversized, rect, stamp, result);
+		return result;
+	}
+
+	/**
+	 * Adds the items having an area which intersects the given rectangle to the
+	 * given list. Unlike {@link #query(Rectangle)}, an item with several areas in
+	 * the rectangle may be added more than once. This method does not modify the
+	 * index, so it may run concurrently with other calls of this method.
+	 *
+	 * @param rect   the rectangle
+	 * @param result the list to which the candidate items are added
+	 */
+	void queryAll(Rectangle rect, List<T> result) {
+		if (rect.isEmpty()) {
+			return;
+		}
+		cells.forEachCell(rect, cell -> collectAll(cell, rect, result));
+		collectAll(oversized, rect, result);
+	}
+
+	/**
+	 * Removes all areas of the given item.
+	 *
+	 * @param item the item
+	 */
+	void remove(T item) {
+		Item<T> removed = items.remove(item);
+		if (removed == null) {
+			return;
+		}
+		for (Entry<T> entry : removed.entries) {
+			if (entry.range.isEmpty()) {
+				oversized.remove(entry);
+			} else {
+				cells.remove(entry, entry.range);
+			}
+		}
+	}
+
+	private static <T> void collect(List<Entry<T>> cell, Rectangle rect, int stamp, List<T> result) {
+		for (Entry<T> entry : cell) {
+			Item<T> owner = entry.owner;
+			if (owner.queryStamp != stamp && entry.bounds.intersects(rect)) {
+				owner.queryStamp = stamp;
+				result.add(owner.item);
+			}
+		}
+	}
+
+	private static <T> void collectAll(List<Entry<T>> cell, Rectangle rect, List<T> result) {
+		for (Entry<T> entry : cell) {
+			if (entry.bounds.intersects(rect)) {
+				result.add(entry.owner.item);
+			}
+		}
+	}
+
+}
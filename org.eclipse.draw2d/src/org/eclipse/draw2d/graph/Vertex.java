@@ -43,6 +43,7 @@ class Vertex extends Point {
 	boolean isPermanent = false;
 	Vertex label;
 	double cost = 0;
+	int id = -1;
 
 	// for routing
 	int nearestObstacle = 0;
@@ -136,6 +137,7 @@ class Vertex extends Point {
 		label = null;
 		nearestObstacleChecked = false;
 		isPermanent = false;
+		id = -1;
 		if (neighbors != null) {
 			neighbors.clear();
 		}
@@ -175,6 +177,16 @@ class Vertex extends Point {
 		return rect;
 	}
 
+	/**
+	 * Returns the distance by which this vertex has been moved from its original
+	 * location.
+	 *
+	 * @return the growth
+	 */
+	int getGrowth() {
+		return Math.max(Math.abs(x - origX), Math.abs(y - origY));
+	}
+
 	private int getSpacing() {
 		if (obs == null) {
 			return 0;
@@ -0,0 +1,125 @@
+/*******************************************************************************
+ * Copyright (c) 2026 agent and others.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0.
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     agent - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.draw2d.graph;
+
+import java.util.Arrays;
+
+/**
+ * An indexed binary min-heap of vertex ids for the ShortestPathRouting. Each id
+ * is contained at most once. The key of a contained id can be decreased in
+ * logarithmic time.
+ *
+ * This class is for internal use only
+ */
+class VertexHeap {
+
+	private int[] heap = new int[16];
+	private int[] positions = new int[16];
+	private double[] keys = new double[16];
+	private int size;
+
+	/**
+	 * Removes all ids and prepares the heap for ids smaller than the given
+	 * capacity.
+	 *
+	 * @param capacity the number of ids
+	 */
+	void clear(int capacity) {
+		if (positions.length < capacity) {
+			int length = Math.max(capacity, positions.length * 2);
+			heap = new int[length];
+			positions = new int[length];
+			keys = new double[length];
+		}
+		Arrays.fill(positions, 0, capacity, -1);
+		size = 0;
+	}
+
+	/**
+	 * Inserts the given id or decreases its key if the id is already contained
+	 * with a greater key.
+	 *
+	 * @param id  the vertex id
+	 * @param key the key
+	 */
+	void insertOrDecrease(int id, double key) {
+		int position = positions[id];
+		if (position < 0) {
+			position = size++;
+			heap[position] = id;
+			positions[id] = position;
+		} else if (keys[id] <= key) {
+			return;
+		}
+		keys[id] = key;
+		siftUp(position);
+	}
+
+	boolean isEmpty() {
+		return size == 0;
+	}
+
+	/**
+	 * Removes and returns the id with the smallest key.
+	 *
+	 * @return the id with the smallest key
+	 */
+	int removeMin() {
+		int min = heap[0];
+		positions[min] = -1;
+		size--;
+		if (size > 0) {
+			heap[0] = heap[size];
+			positions[heap[0]] = 0;
+			siftDown(0);
+		}
+		return min;
+	}
+
+	private void siftDown(int position) {
+		int id = heap[position];
+		double key = keys[id];
+		int half = size >>> 1;
+		while (position < half) {
+			int child = 2 * position + 1;
+			if (child + 1 < size && keys[heap[child + 1]] < keys[heap[child]]) {
+				child++;
+			}
+			if (key <= keys[heap[child]]) {
+				break;
+			}
+			heap[position] = heap[child];
+			positions[heap[position]] = position;
+			position = child;
+		}
+		heap[position] = id;
+		positions[id] = position;
+	}
+
+	private void siftUp(int position) {
+		int id = heap[position];
+		double key = keys[id];
+		while (position > 0) {
+			int parent = (position - 1) >>> 1;
+			if (keys[heap[parent]] <= key) {
+				break;
+			}
+			heap[position] = heap[parent];
+			positions[heap[position]] = position;
+			position = parent;
+		}
+		heap[position] = id;
+		positions[id] = position;
+	}
+
+}
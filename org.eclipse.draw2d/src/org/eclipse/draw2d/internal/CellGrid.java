@@ -0,0 +1,235 @@
+/*******************************************************************************
+ * Copyright (c) 2026 agent and others.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0.
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     agent - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.draw2d.internal;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.Consumer;
+
+import org.eclipse.draw2d.geometry.Rectangle;
+
+/**
+ * A uniform grid of square cells, each holding the elements whose areas overlap
+ * it. Spatial indexes use the grid to find the elements near a point or
+ * rectangle without visiting every element. Elements whose areas span more
+ * than {@link #MAX_CELLS} cells should be kept outside of the grid.
+ * <P>
+ * The occupied cells are kept in an open addressing hash table over primitive
+ * long keys, so that looking up a cell does not allocate. A slot is free if its
+ * cell is <code>null</code>. Lookups do not modify the grid, so they may run
+ * concurrently with each other.
+ * <P>
+ * This class is for internal use only.
+ *
+ * @param <E> the type of the elements
+ */
+public final class CellGrid<E> {
+
+	/**
+	 * The maximum number of cells an area may span to be stored in the grid.
+	 */
+	public static final int MAX_CELLS = 64;
+
+	private final int cellSize;
+	private long[] keys = new long[16];
+	private Object[] cells = new Object[16];
+	private int size;
+
+	/**
+	 * Creates a new empty grid.
+	 *
+	 * @param cellSize the width and height of a cell
+	 */
+	public CellGrid(int cellSize) {
+		this.cellSize = cellSize;
+	}
+
+	private static long key(int cx, int cy) {
+		return ((long) cx << 32) | (cy & 0xFFFFFFFFL);
+	}
+
+	private static int hash(long key) {
+		long h = key * 0x9E3779B97F4A7C15L;
+		return (int) (h ^ (h >>> 32));
+	}
+
+	/**
+	 * Adds the element to all cells of the given range.
+	 *
+	 * @param element the element
+	 * @param range   the range of cells, see {@link #getCellRange(Rectangle)}
+	 */
+	public void add(E element, Rectangle range) {
+		for (int cx = range.x; cx < range.right(); cx++) {
+			for (int cy = range.y; cy < range.bottom(); cy++) {
+				getOrCreate(cx, cy).add(element);
+			}
+		}
+	}
+
+	/**
+	 * Removes all elements.
+	 */
+	public void clear() {
+		Arrays.fill(cells, null);
+		size = 0;
+	}
+
+	/**
+	 * Calls the action with each occupied cell overlapping the given rectangle. A
+	 * cell must not be modified by the action.
+	 *
+	 * @param rect   the non-empty rectangle
+	 * @param action the action receiving the elements of a cell
+	 */
+	@SuppressWarnings("unchecked")
+	public void forEachCell(Rectangle rect, Consumer<List<E>> action) {
+		int x1 = Math.floorDiv(rect.x, cellSize);
+		int y1 = Math.floorDiv(rect.y, cellSize);
+		int x2 = Math.floorDiv(rect.right() - 1, cellSize);
+		int y2 = Math.floorDiv(rect.bottom() - 1, cellSize);
+		if ((long) (x2 - x1 + 1) * (y2 - y1 + 1) > size) {
+			// cheaper to visit the occupied cells than all cells of the rectangle
+			for (int i = 0; i < keys.length; i++) {
+				if (cells[i] != null) {
+					int cx = (int) (keys[i] >> 32);
+					int cy = (int) keys[i];
+					if (cx >= x1 && cx <= x2 && cy >= y1 && cy <= y2) {
+						action.accept((List<E>) cells[i]);
+					}
+				}
+			}
+		} else {
+			for (int cx = x1; cx <= x2; cx++) {
+				for (int cy = y1; cy <= y2; cy++) {
+					List<E> cell = get(cx, cy);
+					if (cell != null) {
+						action.accept(cell);
+					}
+				}
+			}
+		}
+	}
+
+	@SuppressWarnings("unchecked")
+	private List<E> get(int cx, int cy) {
+		return (List<E>) cells[indexOf(key(cx, cy))];
+	}
+
+	/**
+	 * Returns the elements of the cell containing the given point.
+	 *
+	 * @param x the x coordinate
+	 * @param y the y coordinate
+	 * @return the elements of the cell or <code>null</code> if it is empty
+	 */
+	public List<E> getCellAt(int x, int y) {
+		return get(Math.floorDiv(x, cellSize), Math.floorDiv(y, cellSize));
+	}
+
+	/**
+	 * Returns the range of cells covered by the given bounds, or an empty
+	 * rectangle if the bounds span more than {@link #MAX_CELLS} cells.
+	 *
+	 * @param bounds the area of an element
+	 * @return the columns and rows of the covered cells
+	 */
+	public Rectangle getCellRange(Rectangle bounds) {
+		int x1 = Math.floorDiv(bounds.x, cellSize);
+		int y1 = Math.floorDiv(bounds.y, cellSize);
+		int x2 = Math.floorDiv(bounds.x + Math.max(bounds.width, 1) - 1, cellSize);
+		int y2 = Math.floorDiv(bounds.y + Math.max(bounds.height, 1) - 1, cellSize);
+		if ((long) (x2 - x1 + 1) * (y2 - y1 + 1) > MAX_CELLS) {
+			return new Rectangle();
+		}
+		return new Rectangle(x1, y1, x2 - x1 + 1, y2 - y1 + 1);
+	}
+
+	@SuppressWarnings("unchecked")
+	private List<E> getOrCreate(int cx, int cy) {
+		long key = key(cx, cy);
+		int index = indexOf(key);
+		if (cells[index] == null) {
+			keys[index] = key;
+			cells[index] = new ArrayList<E>(4);
+			if (++size * 2 > keys.length) {
+				rehash(keys.length * 2);
+				index = indexOf(key);
+			}
+		}
+		return (List<E>) cells[index];
+	}
+
+	private int indexOf(long key) {
+		int mask = keys.length - 1;
+		int index = hash(key) & mask;
+		while (cells[index] != null && keys[index] != key) {
+			index = (index + 1) & mask;
+		}
+		return index;
+	}
+
+	private void rehash(int capacity) {
+		long[] oldKeys = keys;
+		Object[] oldCells = cells;
+		keys = new long[capacity];
+		cells = new Object[capacity];
+		for (int i = 0; i < oldKeys.length; i++) {
+			if (oldCells[i] != null) {
+				int index = indexOf(oldKeys[i]);
+				keys[index] = oldKeys[i];
+				cells[index] = oldCells[i];
+			}
+		}
+	}
+
+	/**
+	 * Removes the element from all cells of the given range. Cells which become
+	 * empty are released.
+	 *
+	 * @param element the element
+	 * @param range   the range of cells the element has been added to
+	 */
+	public void remove(E element, Rectangle range) {
+		for (int cx = range.x; cx < range.right(); cx++) {
+			for (int cy = range.y; cy < range.bottom(); cy++) {
+				List<E> cell = get(cx, cy);
+				cell.remove(element);
+				if (cell.isEmpty()) {
+					removeCell(cx, cy);
+				}
+			}
+		}
+	}
+
+	private void removeCell(int cx, int cy) {
+		int index = indexOf(key(cx, cy));
+		cells[index] = null;
+		size--;
+		// move following keys of the probe sequence into the gap
+		int mask = keys.length - 1;
+		int next = (index + 1) & mask;
+		while (cells[next] != null) {
+			int home = hash(keys[next]) & mask;
+			if (((next - home) & mask) >= ((next - index) & mask)) {
+				keys[index] = keys[next];
+				cells[index] = cells[next];
+				cells[next] = null;
+				index = next;
+			}
+			next = (next + 1) & mask;
+		}
+	}
+
+}
@@ -56,6 +56,8 @@ public abstract class TargetingTool extends AbstractTool {
 	private Request targetRequest;
 	private EditPart targetEditPart;
 	private AutoexposeHelper exposeHelper;
+	private final EditPartViewer.Conditional targetingConditional = editpart -> editpart
+			.getTargetEditPart(getTargetRequest()) != null;
 
 	/**
 	 * Creates the target request that will be used with the target editpart. This
@@ -158,7 +160,7 @@ public abstract class TargetingTool extends AbstractTool {
 	 * @return the targeting conditional
 	 */
 	protected EditPartViewer.Conditional getTargetingConditional() {
-		return editpart -> editpart.getTargetEditPart(getTargetRequest()) != null;
+		return targetingConditional;
 	}
 
 	/**
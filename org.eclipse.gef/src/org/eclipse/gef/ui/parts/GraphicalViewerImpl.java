@@ -34,9 +34,10 @@ import org.eclipse.swt.widgets.Event;
 import org.eclipse.core.runtime.Assert;
 import org.eclipse.jface.action.MenuManager;
 
-import org.eclipse.draw2d.ExclusionSearch;
+import org.eclipse.draw2d.HitTestContext;
 import org.eclipse.draw2d.IFigure;
 import org.eclipse.draw2d.LightweightSystem;
+import org.eclipse.draw2d.TreeSearch;
 import org.eclipse.draw2d.geometry.Point;
 
 import org.eclipse.gef.AccessibleEditPart;
@@ -66,6 +67,29 @@ public class GraphicalViewerImpl extends AbstractEditPartViewer implements Graph
 	IFigure rootFigure;
 	private DomainEventDispatcher eventDispatcher;
 	private FocusListener lFocus;
+	private final HitTestContext hitTestContext = new HitTestContext();
+	private final ConditionalTreeSearch conditionalSearch = new ConditionalTreeSearch();
+
+	/**
+	 * Accepts figures belonging to an editpart which satisfies the condition. The
+	 * search is reused by {@link GraphicalViewerImpl#findObjectAtExcluding(Point,
+	 * Collection, Conditional)}, so that hit-testing does not allocate any objects.
+	 */
+	private final class ConditionalTreeSearch implements TreeSearch {
+		private Conditional condition;
+		private boolean active;
+
+		@Override
+		public boolean accept(IFigure figure) {
+			EditPart editpart = findEditPart(figure);
+			return editpart != null && (condition == null || condition.evaluate(editpart));
+		}
+
+		@Override
+		public boolean prune(IFigure figure) {
+			return false;
+		}
+	}
 
 	/**
 	 * Constructs a GraphicalViewerImpl with the default root editpart.
@@ -161,31 +185,32 @@ public class GraphicalViewerImpl extends AbstractEditPartViewer implements Graph
 	 */
 	@Override
 	public EditPart findObjectAtExcluding(Point pt, Collection<IFigure> exclude, final Conditional condition) {
-		class ConditionalTreeSearch extends ExclusionSearch {
-			ConditionalTreeSearch(Collection<IFigure> coll) {
-				super(coll);
-			}
-
-			@Override
-			public boolean accept(IFigure figure) {
-				EditPart editpart = null;
-				while (editpart == null && figure != null) {
-					editpart = (EditPart) getVisualPartMap().get(figure);
-					figure = figure.getParent();
-				}
-				return editpart != null && (condition == null || condition.evaluate(editpart));
-			}
+		// conditions may look up editparts themselves, so a nested search gets its own
+		boolean nested = conditionalSearch.active;
+		ConditionalTreeSearch search = nested ? new ConditionalTreeSearch() : conditionalSearch;
+		HitTestContext context = nested ? new HitTestContext() : hitTestContext;
+		search.condition = condition;
+		search.active = true;
+		IFigure figure;
+		try {
+			figure = context.findFigureAt(getLightweightSystem().getRootFigure(), pt.x, pt.y, exclude, search);
+		} finally {
+			search.condition = null;
+			search.active = false;
+		}
+		EditPart part = findEditPart(figure);
+		if (part == null) {
+			return getContents();
 		}
-		IFigure figure = getLightweightSystem().getRootFigure().findFigureAt(pt.x, pt.y,
-				new ConditionalTreeSearch(exclude));
+		return part;
+	}
+
+	private EditPart findEditPart(IFigure figure) {
 		EditPart part = null;
 		while (part == null && figure != null) {
 			part = (EditPart) getVisualPartMap().get(figure);
 			figure = figure.getParent();
 		}
-		if (part == null) {
-			return getContents();
-		}
 		return part;
 	}
 
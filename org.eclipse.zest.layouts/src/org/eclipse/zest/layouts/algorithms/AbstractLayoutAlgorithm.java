@@ -18,7 +18,14 @@ import java.util.Arrays;
 import java.util.Calendar;
 import java.util.Collection;
 import java.util.Comparator;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
 
 import org.eclipse.zest.layouts.Filter;
 import org.eclipse.zest.layouts.InvalidLayoutConfiguration;
@@ -60,6 +67,20 @@ public abstract class AbstractLayoutAlgorithm implements LayoutAlgorithm, Stoppa
 	public static final int MIN_ENTITY_SIZE = 5;
 	private static final int MIN_TIME_DELAY_BETWEEN_PROGRESS_EVENTS = 1;
 
+	/**
+	 * The maximum number of asynchronous layouts that run at the same time.
+	 * Continuous layouts run until they are stopped, so they are not counted and
+	 * run on threads of their own.
+	 */
+	private static final int MAX_LAYOUT_THREADS = Math.min(4, Runtime.getRuntime().availableProcessors());
+
+	/**
+	 * The executor shared by the asynchronous layouts of all algorithms which are
+	 * not continuous. Each algorithm has at most one layout running and one
+	 * waiting, so the queue only grows with the number of algorithms.
+	 */
+	private static final ExecutorService LAYOUT_EXECUTOR = createLayoutExecutor();
+
 	private Thread creationThread = null;
 	protected Comparator comparator;
 	protected Filter filter;
@@ -107,7 +128,15 @@ public abstract class AbstractLayoutAlgorithm implements LayoutAlgorithm, Stoppa
 	/** A list of LayoutRelationship objects to be added. */
 	private final List<LayoutRelationship> relationshipsToAdd = new ArrayList<>();
 
-	protected boolean layoutStopped = true;
+	protected volatile boolean layoutStopped = true;
+
+	/*
+	 * The asynchronous layout which waits for the executor and the one which is
+	 * running. Both are guarded by this algorithm.
+	 */
+	private LayoutRequest pendingRequest;
+	private LayoutRequest runningRequest;
+	private boolean layoutScheduled;
 
 	protected int layout_styles = 0;
 
@@ -345,15 +374,28 @@ public abstract class AbstractLayoutAlgorithm implements LayoutAlgorithm, Stoppa
 	 */
 	@Override
 	public synchronized boolean isRunning() {
-		return !layoutStopped;
+		return !layoutStopped || pendingRequest != null;
 	}
 
 	/**
 	 * Stops the current layout from running. All layout algorithms should
-	 * constantly check isLayoutRunning
+	 * constantly check isLayoutRunning. An asynchronous layout which has not
+	 * started yet is cancelled, a running layout ends as soon as it notices the
+	 * request. The layout which is stopped fires the progress ended event itself.
 	 */
 	@Override
 	public synchronized void stop() {
+		if (pendingRequest != null) {
+			pendingRequest.cancel(false);
+		}
+		layoutStopped = true;
+	}
+
+	/**
+	 * Ends the layout which has been started, either normally or because it has
+	 * been stopped or has failed.
+	 */
+	private synchronized void finishLayout() {
 		layoutStopped = true;
 		postLayoutAlgorithm(internalNodes, internalRelationships);
 		fireProgressEnded(getTotalNumberOfLayoutSteps());
@@ -404,13 +446,20 @@ public abstract class AbstractLayoutAlgorithm implements LayoutAlgorithm, Stoppa
 	protected abstract int getCurrentLayoutStep();
 
 	/**
-	 * This actually applies the layout
+	 * This actually applies the layout. A synchronous layout cancels the
+	 * asynchronous layout which has not started yet, and stops and waits for the
+	 * one which is running.
 	 */
 	@Override
 	public synchronized void applyLayout(final LayoutEntity[] entitiesToLayout,
 			final LayoutRelationship[] relationshipsToConsider, final double x, final double y, final double width,
 			final double height, boolean asynchronous, boolean continuous) throws InvalidLayoutConfiguration {
 		checkThread();
+
+		if (asynchronous) {
+			applyLayoutAsynchronously(entitiesToLayout, relationshipsToConsider, x, y, width, height, continuous);
+			return;
+		}
 		this.internalAsynchronous = asynchronous;
 		this.internalContinuous = continuous;
 
@@ -418,40 +467,228 @@ public abstract class AbstractLayoutAlgorithm implements LayoutAlgorithm, Stoppa
 			throw new InvalidLayoutConfiguration();
 		}
 
+		// a synchronous layout supersedes the asynchronous ones
+		cancelAsynchronousLayouts();
+
 		clearBendPoints(relationshipsToConsider);
 
 		this.layoutStopped = false;
 
 		// when an algorithm starts, reset the progress event
 		lastProgressEventFired = Calendar.getInstance();
-		if (asynchronous) {
 
-			Thread thread = new Thread(() -> {
-				setupLayout(entitiesToLayout, relationshipsToConsider, x, y, width, height);
+		// If we are running synchronously then we have to stop this at some
+		// point? right?
+		setupLayout(entitiesToLayout, relationshipsToConsider, x, y, width, height);
+		try {
+			preLayoutAlgorithm(internalNodes, internalRelationships, internalX, internalY, internalWidth,
+					internalHeight);
+			fireProgressStarted(getTotalNumberOfLayoutSteps());
+
+			applyLayoutInternal(internalNodes, internalRelationships, internalX, internalY, internalWidth,
+					internalHeight);
+		} finally {
+			finishLayout();
+		}
+	}
+
+	/**
+	 * Cancels the asynchronous layout which has not started yet, stops the
+	 * running one and waits for it to end.
+	 */
+	private synchronized void cancelAsynchronousLayouts() {
+		boolean interrupted = false;
+		while (true) {
+			if (pendingRequest != null) {
+				pendingRequest.cancel(false);
+			}
+			if (runningRequest == null) {
+				break;
+			}
+			layoutStopped = true;
+			try {
+				wait();
+			} catch (InterruptedException e) {
+				interrupted = true;
+			}
+		}
+		if (interrupted) {
+			Thread.currentThread().interrupt();
+		}
+	}
+
+	/**
+	 * Applies the layout on a thread of an executor which is shared by all layout
+	 * algorithms. Unlike {@link #applyLayout(LayoutEntity[], LayoutRelationship[],
+	 * double, double, double, double, boolean, boolean)}, this method may be
+	 * called from any thread.
+	 * <p>
+	 * A new request supersedes the previous one: a layout which has not started
+	 * yet is cancelled, and a running layout is stopped before the new one
+	 * starts. The returned future completes once the layout has ended, either
+	 * normally or because it was stopped, and is cancelled if the layout was
+	 * superseded before it started. Cancelling the future stops the layout. The
+	 * future completes on the layout thread, so callers have to marshal any
+	 * follow-up work to the UI thread themselves.
+	 *
+	 * @param entitiesToLayout        Apply the algorithm to these entities
+	 * @param relationshipsToConsider Only consider these relationships when
+	 *                                applying the algorithm.
+	 * @param x                       The left side of the bounds in which the
+	 *                                layout can place the entities.
+	 * @param y                       The top side of the bounds in which the layout
+	 *                                can place the entities.
+	 * @param width                   The width of the bounds in which the layout
+	 *                                can place the entities.
+	 * @param height                  The height of the bounds in which the layout
+	 *                                can place the entities.
+	 * @param continuous              Whether the layout runs until it is stopped
+	 * @return the future of the layout
+	 * @throws InvalidLayoutConfiguration if the algorithm cannot run
+	 *                                    asynchronously with the given continuity
+	 */
+	public synchronized CompletableFuture<Void> applyLayoutAsynchronously(LayoutEntity[] entitiesToLayout,
+			LayoutRelationship[] relationshipsToConsider, double x, double y, double width, double height,
+			boolean continuous) throws InvalidLayoutConfiguration {
+		if (!isValidConfiguration(true, continuous)) {
+			throw new InvalidLayoutConfiguration();
+		}
+		if (pendingRequest != null) {
+			pendingRequest.cancel(false);
+		}
+		pendingRequest = new LayoutRequest(entitiesToLayout, relationshipsToConsider, x, y, width, height,
+				continuous);
+		if (runningRequest != null) {
+			// ask the running layout to end, the worker then starts the new one
+			layoutStopped = true;
+		} else if (!layoutScheduled) {
+			layoutScheduled = true;
+			schedulePendingLayout();
+		}
+		return pendingRequest;
+	}
+
+	/**
+	 * Passes the pending layout to the layout executor, or starts a thread for it
+	 * if it is continuous.
+	 */
+	private void schedulePendingLayout() {
+		if (pendingRequest.continuous) {
+			newLayoutThread(() -> runPendingLayout(true)).start();
+		} else {
+			LAYOUT_EXECUTOR.execute(() -> runPendingLayout(false));
+		}
+	}
+
+	/**
+	 * Runs the pending layout on a thread of the layout executor or on a thread of
+	 * its own.
+	 *
+	 * @param ownThread whether the layout runs on a thread of its own
+	 */
+	private void runPendingLayout(boolean ownThread) {
+		LayoutRequest request;
+		synchronized (this) {
+			request = pendingRequest;
+			if (request == null) {
+				// the request was cancelled before it started
+				layoutScheduled = false;
+				return;
+			}
+			if (request.continuous && !ownThread) {
+				// replaced by a continuous request while waiting for the executor
+				schedulePendingLayout();
+				return;
+			}
+			pendingRequest = null;
+			runningRequest = request;
+			internalAsynchronous = true;
+			internalContinuous = request.continuous;
+			layoutStopped = false;
+			// when an algorithm starts, reset the progress event
+			lastProgressEventFired = Calendar.getInstance();
+		}
+		try {
+			clearBendPoints(request.relationshipsToConsider);
+			setupLayout(request.entitiesToLayout, request.relationshipsToConsider, request.x, request.y,
+					request.width, request.height);
+			try {
 				preLayoutAlgorithm(internalNodes, internalRelationships, internalX, internalY, internalWidth,
 						internalHeight);
 				fireProgressStarted(getTotalNumberOfLayoutSteps());
 
 				applyLayoutInternal(internalNodes, internalRelationships, internalX, internalY, internalWidth,
 						internalHeight);
-				stop();
-			});
-			thread.setPriority(Thread.MIN_PRIORITY);
-			thread.start();
-		} else {
+			} finally {
+				finishLayout();
+			}
+			request.complete(null);
+		} catch (Throwable e) {
+			layoutStopped = true;
+			request.completeExceptionally(e);
+		} finally {
+			synchronized (this) {
+				runningRequest = null;
+				// wake up a synchronous layout waiting for this one
+				notifyAll();
+				if (pendingRequest != null) {
+					schedulePendingLayout();
+				} else {
+					layoutScheduled = false;
+				}
+			}
+		}
+	}
 
-			// If we are running synchronously then we have to stop this at some
-			// point? right?
-			setupLayout(entitiesToLayout, relationshipsToConsider, x, y, width, height);
-			preLayoutAlgorithm(internalNodes, internalRelationships, internalX, internalY, internalWidth,
-					internalHeight);
-			fireProgressStarted(getTotalNumberOfLayoutSteps());
+	private static ExecutorService createLayoutExecutor() {
+		ThreadPoolExecutor executor = new ThreadPoolExecutor(MAX_LAYOUT_THREADS, MAX_LAYOUT_THREADS, 10,
+				TimeUnit.SECONDS, new LinkedBlockingQueue<>(), AbstractLayoutAlgorithm::newLayoutThread);
+		executor.allowCoreThreadTimeOut(true);
+		return executor;
+	}
 
-			applyLayoutInternal(internalNodes, internalRelationships, internalX, internalY, internalWidth,
-					internalHeight);
-			stop();
+	private static Thread newLayoutThread(Runnable runnable) {
+		Thread thread = new Thread(runnable, "Zest Layout"); //$NON-NLS-1$
+		thread.setDaemon(true);
+		thread.setPriority(Thread.MIN_PRIORITY);
+		return thread;
+	}
+
+	/**
+	 * An asynchronous layout and its outcome.
+	 */
+	private final class LayoutRequest extends CompletableFuture<Void> {
+		private final LayoutEntity[] entitiesToLayout;
+		private final LayoutRelationship[] relationshipsToConsider;
+		private final double x;
+		private final double y;
+		private final double width;
+		private final double height;
+		private final boolean continuous;
+
+		public LayoutRequest(LayoutEntity[] entitiesToLayout, LayoutRelationship[] relationshipsToConsider, double x,
+				double y, double width, double height, boolean continuous) {
+			this.entitiesToLayout = entitiesToLayout;
+			this.relationshipsToConsider = relationshipsToConsider;
+			this.x = x;
+			this.y = y;
+			this.width = width;
+			this.height = height;
+			this.continuous = continuous;
 		}
 
+		@Override
+		public boolean cancel(boolean mayInterruptIfRunning) {
+			boolean cancelled = super.cancel(mayInterruptIfRunning);
+			synchronized (AbstractLayoutAlgorithm.this) {
+				if (pendingRequest == this) {
+					pendingRequest = null;
+				} else if (runningRequest == this) {
+					layoutStopped = true;
+				}
+			}
+			return cancelled;
+		}
 	}
 
 	/**
@@ -576,22 +813,11 @@ public abstract class AbstractLayoutAlgorithm implements LayoutAlgorithm, Stoppa
 	 */
 	public static boolean verifyInput(LayoutEntity[] entitiesToLayout, LayoutRelationship[] relationshipsToConsider) {
 		boolean stillValid = true;
+		Set<LayoutEntity> entities = new HashSet<>(Arrays.asList(entitiesToLayout));
 		for (LayoutRelationship relationship : relationshipsToConsider) {
 			LayoutEntity source = relationship.getSourceInLayout();
 			LayoutEntity destination = relationship.getDestinationInLayout();
-			boolean containsSrc = false;
-			boolean containsDest = false;
-			int j = 0;
-			while (j < entitiesToLayout.length && !(containsSrc && containsDest)) {
-				if (entitiesToLayout[j].equals(source)) {
-					containsSrc = true;
-				}
-				if (entitiesToLayout[j].equals(destination)) {
-					containsDest = true;
-				}
-				j++;
-			}
-			stillValid = containsSrc && containsDest;
+			stillValid = entities.contains(source) && entities.contains(destination);
 		}
 		return stillValid;
 	}
@@ -868,21 +1094,46 @@ public abstract class AbstractLayoutAlgorithm implements LayoutAlgorithm, Stoppa
 		DisplayIndependentDimension horAndVertdistance = new DisplayIndependentDimension(Double.MAX_VALUE,
 				Double.MAX_VALUE);
 		double minDistance = Double.MAX_VALUE; // the minimum distance between all the nodes
-		// TODO: Very Slow!
-		for (int i = 0; i < entitiesToLayout.length; i++) {
-			InternalNode layoutEntity1 = entitiesToLayout[i];
-			double x1 = layoutEntity1.getInternalX();
-			double y1 = layoutEntity1.getInternalY();
-			for (int j = i + 1; j < entitiesToLayout.length; j++) {
-				InternalNode layoutEntity2 = entitiesToLayout[j];
-				double x2 = layoutEntity2.getInternalX();
-				double y2 = layoutEntity2.getInternalY();
-				double distanceX = Math.abs(x1 - x2);
-				double distanceY = Math.abs(y1 - y2);
+		int length = entitiesToLayout.length;
+		double[] xs = new double[length];
+		double[] ys = new double[length];
+		double spanX = 0;
+		double spanY = 0;
+		for (int i = 0; i < length; i++) {
+			xs[i] = entitiesToLayout[i].getInternalX();
+			ys[i] = entitiesToLayout[i].getInternalY();
+			spanX = Math.max(spanX, Math.abs(xs[i] - xs[0]));
+			spanY = Math.max(spanY, Math.abs(ys[i] - ys[0]));
+		}
+		// Sweep along the wider axis, so that only the nodes within the minimum
+		// distance along that axis are compared.
+		double[] sweep = spanX >= spanY ? xs : ys;
+		Integer[] order = new Integer[length];
+		for (int i = 0; i < length; i++) {
+			order[i] = Integer.valueOf(i);
+		}
+		Arrays.sort(order, Comparator.comparingDouble(i -> sweep[i.intValue()]));
+		int first = -1;
+		int second = -1;
+		for (int k = 1; k < length; k++) {
+			int p = order[k].intValue();
+			for (int l = k - 1; l >= 0; l--) {
+				int q = order[l].intValue();
+				if (sweep[p] - sweep[q] > minDistance) {
+					break;
+				}
+				int i = Math.min(p, q);
+				int j = Math.max(p, q);
+				double distanceX = Math.abs(xs[i] - xs[j]);
+				double distanceY = Math.abs(ys[i] - ys[j]);
 				double distance = Math.sqrt(Math.pow(distanceX, 2) + Math.pow(distanceY, 2));
 
-				if (distance < minDistance) {
+				// of several closest pairs, use the first one in the order of the nodes
+				if (distance < minDistance
+						|| (distance == minDistance && (i < first || (i == first && j < second)))) {
 					minDistance = distance;
+					first = i;
+					second = j;
 					horAndVertdistance.width = distanceX;
 					horAndVertdistance.height = distanceY;
 				}
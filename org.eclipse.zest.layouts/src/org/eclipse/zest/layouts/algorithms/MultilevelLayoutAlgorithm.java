@@ -0,0 +1,498 @@
+/*******************************************************************************
+ * Copyright (c) 2026 agent and others.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0.
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     agent - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.zest.layouts.algorithms;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import org.eclipse.zest.layouts.LayoutStyles;
+import org.eclipse.zest.layouts.algorithms.internal.BarnesHutTree;
+import org.eclipse.zest.layouts.algorithms.internal.RelationTable;
+import org.eclipse.zest.layouts.dataStructures.DisplayIndependentRectangle;
+import org.eclipse.zest.layouts.dataStructures.InternalNode;
+import org.eclipse.zest.layouts.dataStructures.InternalRelationship;
+
+/**
+ * A force directed layout algorithm for large graphs. The graph is coarsened
+ * repeatedly by merging matched pairs of related nodes, until only a few nodes
+ * are left. The coarsest graph is laid out first. Then the positions are
+ * projected onto the next finer graph and refined by a few iterations, level by
+ * level, until the original graph is reached.
+ * <p>
+ * Related nodes attract each other by the square of their distance and all
+ * nodes repel each other by the inverse of their distance, where the repulsion
+ * is approximated using a {@link BarnesHutTree}. An iteration therefore takes
+ * O(n log n + m) time for n nodes and m relationships, and the refinement only
+ * needs a few iterations per level, since the coarser levels have already
+ * determined the global shape. The weights of the relationships decide which
+ * nodes are merged first. Finally, the connected components are packed in rows,
+ * so that they do not drift apart. The layout is deterministic for the same
+ * input.
+ * <p>
+ * If the layout is stopped, the remaining levels are not refined. The current
+ * positions are still projected onto the original graph, so the entities are
+ * placed according to the coarsest level laid out so far.
+ */
+public class MultilevelLayoutAlgorithm extends AbstractLayoutAlgorithm {
+
+	/**
+	 * Graphs with at most this number of nodes are not coarsened further.
+	 */
+	private static final int COARSEST_SIZE = 50;
+
+	/**
+	 * Coarsening stops once a level has more than this fraction of the nodes of
+	 * the previous level.
+	 */
+	private static final double MIN_REDUCTION = 0.9;
+
+	private static final int COARSEST_ITERATIONS = 300;
+
+	private static final int ITERATIONS_PER_LEVEL = 50;
+
+	/**
+	 * The natural distance between two related nodes.
+	 */
+	private static final double NATURAL_LENGTH = 1.0;
+
+	private static final double THETA = 1.2;
+
+	/**
+	 * The factor by which the step length is cooled down or heated up.
+	 */
+	private static final double COOLING = 0.9;
+
+	/**
+	 * The refinement of a level stops once the average movement of a node is
+	 * below this fraction of the natural length.
+	 */
+	private static final double TOLERANCE = 0.01;
+
+	private static final long SEED = 1;
+
+	/**
+	 * The levels from the original to the coarsest graph.
+	 */
+	private List<Level> levels;
+
+	private int totalSteps;
+
+	private int currentStep;
+
+	/**
+	 * Creates a multilevel layout algorithm with the given styles.
+	 *
+	 * @param styles
+	 * @see LayoutStyles
+	 */
+	public MultilevelLayoutAlgorithm(int styles) {
+		super(styles);
+	}
+
+	/**
+	 * Creates a multilevel layout algorithm with no style.
+	 */
+	public MultilevelLayoutAlgorithm() {
+		this(LayoutStyles.NONE);
+	}
+
+	@Override
+	public void setLayoutArea(double x, double y, double width, double height) {
+		throw new RuntimeException("Operation not implemented"); //$NON-NLS-1$
+	}
+
+	@Override
+	protected boolean isValidConfiguration(boolean asynchronous, boolean continuous) {
+		return !continuous;
+	}
+
+	@Override
+	protected void preLayoutAlgorithm(InternalNode[] entitiesToLayout, InternalRelationship[] relationshipsToConsider,
+			double x, double y, double width, double height) {
+		levels = new ArrayList<>();
+		currentStep = 0;
+		totalSteps = 0;
+		if (entitiesToLayout.length == 0) {
+			return;
+		}
+		levels.add(createLevel(entitiesToLayout, relationshipsToConsider));
+		Level coarsest = levels.get(0);
+		while (coarsest.size > COARSEST_SIZE) {
+			Level coarser = coarsest.coarsen();
+			if (coarser.size > MIN_REDUCTION * coarsest.size) {
+				break;
+			}
+			levels.add(coarser);
+			coarsest = coarser;
+		}
+		totalSteps = levels.size();
+	}
+
+	@Override
+	protected void postLayoutAlgorithm(InternalNode[] entitiesToLayout,
+			InternalRelationship[] relationshipsToConsider) {
+		levels = null;
+	}
+
+	@Override
+	protected int getTotalNumberOfLayoutSteps() {
+		return totalSteps;
+	}
+
+	@Override
+	protected int getCurrentLayoutStep() {
+		return currentStep;
+	}
+
+	@Override
+	protected void applyLayoutInternal(InternalNode[] entitiesToLayout, InternalRelationship[] relationshipsToConsider,
+			double boundsX, double boundsY, double boundsWidth, double boundsHeight) {
+		if (levels.isEmpty()) {
+			return;
+		}
+		Level coarsest = levels.get(levels.size() - 1);
+		Random random = new Random(SEED);
+		double side = Math.sqrt(coarsest.size) * NATURAL_LENGTH;
+		double[] x = new double[coarsest.size];
+		double[] y = new double[coarsest.size];
+		for (int i = 0; i < coarsest.size; i++) {
+			x[i] = random.nextDouble() * side;
+			y[i] = random.nextDouble() * side;
+		}
+		refine(coarsest, x, y, COARSEST_ITERATIONS, side / 10);
+		fireProgressEvent(++currentStep, totalSteps);
+
+		// once stopped, the remaining levels are only projected
+		for (int l = levels.size() - 2; l >= 0; l--) {
+			Level level = levels.get(l);
+			double[][] projected = project(level, levels.get(l + 1), x, y, random);
+			x = projected[0];
+			y = projected[1];
+			if (!layoutStopped) {
+				refine(level, x, y, ITERATIONS_PER_LEVEL, NATURAL_LENGTH);
+				fireProgressEvent(++currentStep, totalSteps);
+			}
+		}
+
+		packComponents(levels.get(0), x, y);
+		for (int i = 0; i < entitiesToLayout.length; i++) {
+			entitiesToLayout[i].setInternalLocation(x[i], y[i]);
+		}
+		defaultFitWithinBounds(entitiesToLayout,
+				new DisplayIndependentRectangle(boundsX, boundsY, boundsWidth, boundsHeight));
+		updateLayoutLocations(entitiesToLayout);
+	}
+
+	/**
+	 * Places each node of the given level near the node of the coarser level it
+	 * has been merged into. The nodes merged into the same node are moved apart
+	 * slightly.
+	 *
+	 * @return the x and the y coordinates of the nodes of the level
+	 */
+	private static double[][] project(Level level, Level coarser, double[] x, double[] y, Random random) {
+		// the area grows with the number of nodes
+		double scale = Math.sqrt((double) level.size / coarser.size);
+		double[] fineX = new double[level.size];
+		double[] fineY = new double[level.size];
+		for (int i = 0; i < level.size; i++) {
+			int parent = level.parents[i];
+			fineX[i] = scale * x[parent] + (random.nextDouble() - 0.5) * NATURAL_LENGTH / 10;
+			fineY[i] = scale * y[parent] + (random.nextDouble() - 0.5) * NATURAL_LENGTH / 10;
+		}
+		return new double[][] { fineX, fineY };
+	}
+
+	private static Level createLevel(InternalNode[] entitiesToLayout, InternalRelationship[] relationshipsToConsider) {
+		Map<InternalNode, Integer> indices = new IdentityHashMap<>(2 * entitiesToLayout.length);
+		for (int i = 0; i < entitiesToLayout.length; i++) {
+			indices.put(entitiesToLayout[i], Integer.valueOf(i));
+		}
+		RelationTable relations = new RelationTable(relationshipsToConsider.length);
+		for (InternalRelationship relationship : relationshipsToConsider) {
+			Integer source = indices.get(relationship.getSource());
+			Integer destination = indices.get(relationship.getDestination());
+			if (source != null && destination != null) {
+				double weight = relationship.getWeight();
+				relations.add(source.intValue(), destination.intValue(), weight <= 0 ? 0.1 : weight);
+			}
+		}
+		return new Level(entitiesToLayout.length, relations);
+	}
+
+	/**
+	 * Moves the nodes of the given level along their forces, with a step length
+	 * that is cooled down while the energy does not decrease, as described by Hu
+	 * for the spring electrical model.
+	 */
+	private void refine(Level level, double[] x, double[] y, int iterations, double initialStep) {
+		int size = level.size;
+		double[] forcesX = new double[size];
+		double[] forcesY = new double[size];
+		BarnesHutTree tree = new BarnesHutTree(1);
+		// related nodes at the natural length attract and repel each other equally
+		double repulsion = NATURAL_LENGTH * NATURAL_LENGTH;
+		double step = initialStep;
+		double energy = Double.MAX_VALUE;
+		int progress = 0;
+		for (int iteration = 0; iteration < iterations && !layoutStopped; iteration++) {
+			tree.build(x, y, size);
+			for (int i = 0; i < size; i++) {
+				forcesX[i] = 0;
+				forcesY[i] = 0;
+			}
+			tree.addRepulsion(0, size, THETA, repulsion, NATURAL_LENGTH / 1000, forcesX, forcesY);
+			for (int i = 0; i < size; i++) {
+				for (int k = level.offsets[i]; k < level.offsets[i + 1]; k++) {
+					int j = level.neighbors[k];
+					double dx = x[i] - x[j];
+					double dy = y[i] - y[j];
+					double f = Math.sqrt(dx * dx + dy * dy) / NATURAL_LENGTH;
+					forcesX[i] -= f * dx;
+					forcesY[i] -= f * dy;
+				}
+			}
+
+			double previousEnergy = energy;
+			energy = 0;
+			double movement = 0;
+			for (int i = 0; i < size; i++) {
+				double force = Math.sqrt(forcesX[i] * forcesX[i] + forcesY[i] * forcesY[i]);
+				if (force > 0) {
+					double move = Math.min(step, force);
+					x[i] += move * forcesX[i] / force;
+					y[i] += move * forcesY[i] / force;
+					movement += move;
+				}
+				energy += force * force;
+			}
+			if (energy < previousEnergy) {
+				if (++progress >= 5) {
+					progress = 0;
+					step /= COOLING;
+				}
+			} else {
+				progress = 0;
+				step *= COOLING;
+			}
+			if (movement < TOLERANCE * NATURAL_LENGTH * size) {
+				break;
+			}
+		}
+	}
+
+	/**
+	 * Moves the connected components of the given level next to each other. The
+	 * components are placed in rows by decreasing height, where the rows are about
+	 * as wide as the square root of the total area.
+	 */
+	private static void packComponents(Level level, double[] x, double[] y) {
+		int[] components = new int[level.size];
+		Arrays.fill(components, -1);
+		int[] queue = new int[level.size];
+		List<double[]> boxes = new ArrayList<>();
+		for (int start = 0; start < level.size; start++) {
+			if (components[start] >= 0) {
+				continue;
+			}
+			double[] box = { x[start], y[start], x[start], y[start] };
+			components[start] = boxes.size();
+			int head = 0;
+			int tail = 0;
+			queue[tail++] = start;
+			while (head < tail) {
+				int i = queue[head++];
+				box[0] = Math.min(box[0], x[i]);
+				box[1] = Math.min(box[1], y[i]);
+				box[2] = Math.max(box[2], x[i]);
+				box[3] = Math.max(box[3], y[i]);
+				for (int k = level.offsets[i]; k < level.offsets[i + 1]; k++) {
+					int j = level.neighbors[k];
+					if (components[j] < 0) {
+						components[j] = boxes.size();
+						queue[tail++] = j;
+					}
+				}
+			}
+			boxes.add(box);
+		}
+		if (boxes.size() == 1) {
+			return;
+		}
+		double area = 0;
+		Integer[] order = new Integer[boxes.size()];
+		for (int c = 0; c < order.length; c++) {
+			double[] box = boxes.get(c);
+			area += (box[2] - box[0] + NATURAL_LENGTH) * (box[3] - box[1] + NATURAL_LENGTH);
+			order[c] = Integer.valueOf(c);
+		}
+		Arrays.sort(order, (c1, c2) -> Double.compare(boxes.get(c2)[3] - boxes.get(c2)[1],
+				boxes.get(c1)[3] - boxes.get(c1)[1]));
+		double rowWidth = Math.sqrt(area);
+		double[] offsetsX = new double[order.length];
+		double[] offsetsY = new double[order.length];
+		double left = 0;
+		double top = 0;
+		double rowHeight = 0;
+		for (Integer c : order) {
+			double[] box = boxes.get(c.intValue());
+			double width = box[2] - box[0] + NATURAL_LENGTH;
+			if (left > 0 && left + width > rowWidth) {
+				left = 0;
+				top += rowHeight;
+				rowHeight = 0;
+			}
+			offsetsX[c.intValue()] = left - box[0];
+			offsetsY[c.intValue()] = top - box[1];
+			left += width;
+			rowHeight = Math.max(rowHeight, box[3] - box[1] + NATURAL_LENGTH);
+		}
+		for (int i = 0; i < level.size; i++) {
+			x[i] += offsetsX[components[i]];
+			y[i] += offsetsY[components[i]];
+		}
+	}
+
+	/**
+	 * A graph of one level, whose relationships are stored in both directions in
+	 * compressed sparse rows.
+	 */
+	private static final class Level {
+
+		final int size;
+		final int[] offsets;
+		final int[] neighbors;
+		final double[] weights;
+
+		/**
+		 * The node of the next coarser level that each node has been merged into.
+		 */
+		int[] parents;
+
+		Level(int size, RelationTable relations) {
+			this.size = size;
+			relations.buildAdjacency(size);
+			int[] upperOffsets = relations.getOffsets();
+			int[] upperNeighbors = relations.getNeighbors();
+			double[] upperWeights = relations.getWeights();
+			offsets = new int[size + 1];
+			for (int i = 0; i < size; i++) {
+				offsets[i + 1] += upperOffsets[i + 1] - upperOffsets[i];
+				for (int k = upperOffsets[i]; k < upperOffsets[i + 1]; k++) {
+					offsets[upperNeighbors[k] + 1]++;
+				}
+			}
+			for (int i = 0; i < size; i++) {
+				offsets[i + 1] += offsets[i];
+			}
+			neighbors = new int[offsets[size]];
+			weights = new double[offsets[size]];
+			int[] next = offsets.clone();
+			for (int i = 0; i < size; i++) {
+				for (int k = upperOffsets[i]; k < upperOffsets[i + 1]; k++) {
+					int j = upperNeighbors[k];
+					neighbors[next[i]] = j;
+					weights[next[i]++] = upperWeights[k];
+					neighbors[next[j]] = i;
+					weights[next[j]++] = upperWeights[k];
+				}
+			}
+		}
+
+		/**
+		 * Merges each node with its unmatched neighbor of the largest weight, visiting
+		 * the nodes by increasing degree. Nodes whose neighbors have all been matched
+		 * join the node of their heaviest neighbor, and unrelated nodes are merged in
+		 * pairs.
+		 */
+		Level coarsen() {
+			parents = new int[size];
+			Arrays.fill(parents, -1);
+			int[] order = sortByDegree();
+			int coarseSize = 0;
+			for (int i : order) {
+				if (parents[i] >= 0) {
+					continue;
+				}
+				int match = -1;
+				double matchWeight = 0;
+				for (int k = offsets[i]; k < offsets[i + 1]; k++) {
+					int j = neighbors[k];
+					if (parents[j] < 0 && (match < 0 || weights[k] > matchWeight)) {
+						match = j;
+						matchWeight = weights[k];
+					}
+				}
+				if (match >= 0) {
+					parents[i] = coarseSize;
+					parents[match] = coarseSize++;
+				}
+			}
+			int unrelated = -1;
+			for (int i : order) {
+				if (parents[i] >= 0) {
+					continue;
+				}
+				if (offsets[i] < offsets[i + 1]) {
+					int heaviest = offsets[i];
+					for (int k = offsets[i] + 1; k < offsets[i + 1]; k++) {
+						if (weights[k] > weights[heaviest]) {
+							heaviest = k;
+						}
+					}
+					parents[i] = parents[neighbors[heaviest]];
+				} else if (unrelated < 0) {
+					parents[i] = coarseSize++;
+					unrelated = i;
+				} else {
+					parents[i] = parents[unrelated];
+					unrelated = -1;
+				}
+			}
+			RelationTable relations = new RelationTable(offsets[size] / 2);
+			for (int i = 0; i < size; i++) {
+				for (int k = offsets[i]; k < offsets[i + 1]; k++) {
+					if (neighbors[k] > i) {
+						relations.add(parents[i], parents[neighbors[k]], weights[k]);
+					}
+				}
+			}
+			return new Level(coarseSize, relations);
+		}
+
+		private int[] sortByDegree() {
+			int maxDegree = 0;
+			for (int i = 0; i < size; i++) {
+				maxDegree = Math.max(maxDegree, offsets[i + 1] - offsets[i]);
+			}
+			int[] start = new int[maxDegree + 2];
+			for (int i = 0; i < size; i++) {
+				start[offsets[i + 1] - offsets[i] + 1]++;
+			}
+			for (int d = 0; d <= maxDegree; d++) {
+				start[d + 1] += start[d];
+			}
+			int[] order = new int[size];
+			for (int i = 0; i < size; i++) {
+				order[start[offsets[i + 1] - offsets[i]]++] = i;
+			}
+			return order;
+		}
+
+	}
+
+}
@@ -12,11 +12,18 @@
  *******************************************************************************/
 package org.eclipse.zest.layouts.algorithms;
 
+import java.util.ArrayList;
 import java.util.Date;
 import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
 
 import org.eclipse.zest.layouts.LayoutStyles;
+import org.eclipse.zest.layouts.algorithms.internal.BarnesHutTree;
+import org.eclipse.zest.layouts.algorithms.internal.RelationTable;
 import org.eclipse.zest.layouts.dataStructures.DisplayIndependentRectangle;
 import org.eclipse.zest.layouts.dataStructures.InternalNode;
 import org.eclipse.zest.layouts.dataStructures.InternalRelationship;
@@ -43,6 +50,12 @@ public class SpringLayoutAlgorithm extends ContinuousLayoutAlgorithm {
 
 	private static final boolean DEFAULT_ANCHOR = false;
 
+	/**
+	 * The minimum number of nodes whose forces are computed by one task of the
+	 * {@link ForkJoinPool}.
+	 */
+	private static final int MIN_NODES_PER_TASK = 512;
+
 	/**
 	 * The default value for the spring layout number of interations.
 	 */
@@ -88,6 +101,11 @@ public class SpringLayoutAlgorithm extends ContinuousLayoutAlgorithm {
 	 */
 	public static final double DEFAULT_SPRING_GRAVITATION = 1.0f;
 
+	/**
+	 * The default value for the accuracy of the Barnes-Hut approximation.
+	 */
+	public static final double DEFAULT_SPRING_THETA = 0.8;
+
 	/**
 	 * The variable can be customized to set the number of iterations used.
 	 */
@@ -142,16 +160,21 @@ public class SpringLayoutAlgorithm extends ContinuousLayoutAlgorithm {
 	private double largestMovement = 0;
 
 	/**
-	 * Maps a src and dest object to the number of relations between them. Key is
-	 * src.toString() + dest.toString(), value is an Integer
+	 * Whether the repulsion is approximated using a {@link BarnesHutTree} and the
+	 * attraction is only computed along the relationships.
 	 */
-	private Map<String, Integer> srcDestToNumRelsMap;
+	private boolean barnesHut = false;
 
 	/**
-	 * Maps a src and dest object to the average weight of the relations between
-	 * them. Key is src.toString() + dest.toString(), value is a Double
+	 * The ratio of cell width and distance below which the nodes of a cell are
+	 * approximated by their center of mass.
 	 */
-	private Map<String, Double> srcDestToRelsAvgWeightMap;
+	private double theta = DEFAULT_SPRING_THETA;
+
+	/**
+	 * The pool used to compute the forces in Barnes-Hut mode, or <code>null</code>.
+	 */
+	private ForkJoinPool pool;
 
 	/**
 	 * Maps a relationship type to a weight. Key is a string, value is a Double
@@ -160,9 +183,28 @@ public class SpringLayoutAlgorithm extends ContinuousLayoutAlgorithm {
 
 	private int iteration;
 
-	private int[][] srcDestToNumRels;
+	/**
+	 * The related nodes of each node with a larger index in compressed sparse rows,
+	 * see {@link RelationTable}. The strength of a pair is proportional to the
+	 * weights of the relations between them.
+	 */
+	private int[] relOffsets;
+
+	private int[] relNeighbors;
 
-	private double[][] srcDestToRelsAvgWeight;
+	private double[] relStrengths;
+
+	/**
+	 * The related nodes of each node with a smaller index, in ascending order, and
+	 * the position of each pair in the rows above. Only used in Barnes-Hut mode.
+	 */
+	private int[] relInOffsets;
+
+	private int[] relInSources;
+
+	private int[] relInPairs;
+
+	private BarnesHutTree tree;
 
 	private double[] tempLocationsX;
 
@@ -183,8 +225,6 @@ public class SpringLayoutAlgorithm extends ContinuousLayoutAlgorithm {
 	 */
 	public SpringLayoutAlgorithm(int styles) {
 		super(styles);
-		srcDestToNumRelsMap = new HashMap<>();
-		srcDestToRelsAvgWeightMap = new HashMap<>();
 		date = new Date();
 	}
 
@@ -331,6 +371,81 @@ public class SpringLayoutAlgorithm extends ContinuousLayoutAlgorithm {
 		return sprRandom;
 	}
 
+	/**
+	 * Sets whether the repulsion between the nodes is approximated using a
+	 * quadtree, as described by Barnes and Hut, instead of being computed for every
+	 * pair of nodes. The attraction is then only computed along the
+	 * relationships. This reduces the cost of an iteration from O(n<sup>2</sup>)
+	 * to O(n log n + m) for n nodes and m relationships, so that large graphs can
+	 * be laid out.
+	 *
+	 * @param enabled <code>true</code> to approximate the repulsion
+	 * @see #setSpringTheta(double)
+	 */
+	public void setBarnesHutEnabled(boolean enabled) {
+		barnesHut = enabled;
+	}
+
+	/**
+	 * Returns whether the repulsion between the nodes is approximated using a
+	 * quadtree.
+	 *
+	 * @return <code>true</code> if the repulsion is approximated
+	 */
+	public boolean isBarnesHutEnabled() {
+		return barnesHut;
+	}
+
+	/**
+	 * Sets the accuracy of the Barnes-Hut approximation. The nodes within a region
+	 * whose width is less than theta times its distance to a node are treated as
+	 * a single node at their center of mass. Smaller values are more accurate and
+	 * slower, a value of 0 computes the exact repulsion. The default is
+	 * {@link #DEFAULT_SPRING_THETA}.
+	 *
+	 * @param theta The accuracy of the approximation.
+	 */
+	public void setSpringTheta(double theta) {
+		if (theta < 0) {
+			throw new IllegalArgumentException("Theta must not be negative"); //$NON-NLS-1$
+		}
+		this.theta = theta;
+	}
+
+	/**
+	 * Returns the accuracy of the Barnes-Hut approximation.
+	 *
+	 * @return The accuracy of the approximation.
+	 */
+	public double getSpringTheta() {
+		return theta;
+	}
+
+	/**
+	 * Sets the pool used to compute the forces in Barnes-Hut mode in parallel. The
+	 * nodes are split into ranges and the force on each node is summed in the same
+	 * order as on a single thread, so the layout does not depend on the pool. If
+	 * <code>null</code>, which is the default, the forces are computed on the
+	 * calling thread. The pool is not used if the Barnes-Hut mode is disabled,
+	 * since the pairwise forces are accumulated sequentially.
+	 *
+	 * @param pool The pool or <code>null</code>.
+	 * @see #setBarnesHutEnabled(boolean)
+	 */
+	public void setForkJoinPool(ForkJoinPool pool) {
+		this.pool = pool;
+	}
+
+	/**
+	 * Returns the pool used to compute the forces in Barnes-Hut mode in parallel,
+	 * or <code>null</code> if they are computed on the calling thread.
+	 *
+	 * @return The pool or <code>null</code>.
+	 */
+	public ForkJoinPool getForkJoinPool() {
+		return pool;
+	}
+
 	public void setWeight(String relType, double weight) {
 		relTypeToWeightMap.put(relType, Double.valueOf(weight));
 	}
@@ -362,9 +477,14 @@ public class SpringLayoutAlgorithm extends ContinuousLayoutAlgorithm {
 		forcesX = null;
 		forcesY = null;
 		anchors = null;
+		relOffsets = null;
+		relNeighbors = null;
+		relStrengths = null;
+		relInOffsets = null;
+		relInSources = null;
+		relInPairs = null;
+		tree = null;
 		setDefaultConditions();
-		srcDestToNumRelsMap = new HashMap<>();
-		srcDestToRelsAvgWeightMap = new HashMap<>();
 		relTypeToWeightMap = new HashMap<>();
 	}
 
@@ -388,12 +508,17 @@ public class SpringLayoutAlgorithm extends ContinuousLayoutAlgorithm {
 		for (int i = 0; i < entitiesToLayout.length; i++) {
 			anchors[i] = DEFAULT_ANCHOR;
 		}
+		Map<InternalNode, Integer> indices = new IdentityHashMap<>(2 * entitiesToLayout.length);
+		for (int i = 0; i < entitiesToLayout.length; i++) {
+			indices.put(entitiesToLayout[i], Integer.valueOf(i));
+		}
+		RelationTable relations = new RelationTable(relationshipsToConsider.length);
 		for (InternalRelationship layoutRelationship : relationshipsToConsider) {
-			addRelation(layoutRelationship);
+			addRelation(layoutRelationship, indices, relations);
 		}
 
 		// do the calculations
-		preCompute(entitiesToLayout);
+		preCompute(entitiesToLayout, relations);
 		startTime = date.getTime();
 	}
 
@@ -407,48 +532,54 @@ public class SpringLayoutAlgorithm extends ContinuousLayoutAlgorithm {
 	 * Adds a simple relation between two nodes to the relation repository.
 	 *
 	 * @param layoutRelationship The simple relation to be added
+	 * @param indices            The index of each node to layout
+	 * @param relations          The relation repository
 	 * @throws java.lang.NullPointerExcetption If <code>sr</code> is null
 	 * @see SimpleRelation
 	 */
-	private void addRelation(InternalRelationship layoutRelationship) {
+	private static void addRelation(InternalRelationship layoutRelationship, Map<InternalNode, Integer> indices,
+			RelationTable relations) {
 		if (layoutRelationship == null) {
 			throw new IllegalArgumentException("The arguments can not be null!"); //$NON-NLS-1$
 		}
 		double weight = layoutRelationship.getWeight();
 		weight = (weight <= 0 ? 0.1 : weight);
-		String key1 = layoutRelationship.getSource().toString() + layoutRelationship.getDestination().toString();
-		String key2 = layoutRelationship.getDestination().toString() + layoutRelationship.getSource().toString();
-		String[] keys = { key1, key2 };
-		for (String key : keys) {
-			Integer count = srcDestToNumRelsMap.get(key);
-			Double avgWeight = srcDestToRelsAvgWeightMap.get(key);
-			if (count == null) {
-				count = Integer.valueOf(1);
-				avgWeight = Double.valueOf(weight);
-			} else {
-				int newCount = count.intValue() + 1;
-				double newAverage = (avgWeight.doubleValue() * count.doubleValue() + weight) / newCount;
-				avgWeight = Double.valueOf(newAverage);
-				count = Integer.valueOf(newCount);
-			}
-			srcDestToNumRelsMap.put(key, count);
-			srcDestToRelsAvgWeightMap.put(key, avgWeight);
+		Integer source = indices.get(layoutRelationship.getSource());
+		Integer destination = indices.get(layoutRelationship.getDestination());
+		if (source != null && destination != null) {
+			relations.add(source.intValue(), destination.intValue(), weight);
 		}
 	}
 
-	private void preCompute(InternalNode[] entitiesToLayout) {
-		// count number of relationships between all nodes and the average
-		// weight between them
-		srcDestToNumRels = new int[entitiesToLayout.length][entitiesToLayout.length];
-		srcDestToRelsAvgWeight = new double[entitiesToLayout.length][entitiesToLayout.length];
-
-		for (int i = 0; i < entitiesToLayout.length - 1; i++) {
-			InternalNode layoutEntity1 = entitiesToLayout[i];
-			for (int j = i + 1; j < entitiesToLayout.length; j++) {
-				InternalNode layoutEntity2 = entitiesToLayout[j];
-				srcDestToNumRels[i][j] = numRelations(layoutEntity1, layoutEntity2);
-				srcDestToNumRels[i][j] += numRelations(layoutEntity2, layoutEntity1);
-				srcDestToRelsAvgWeight[i][j] = avgWeight(layoutEntity1, layoutEntity2);
+	private void preCompute(InternalNode[] entitiesToLayout, RelationTable relations) {
+		// store the related nodes of each node, the strength of a pair is the number
+		// of relationships in both directions times their average weight
+		relations.buildAdjacency(entitiesToLayout.length);
+		relOffsets = relations.getOffsets();
+		relNeighbors = relations.getNeighbors();
+		relStrengths = relations.getWeights();
+		for (int k = 0; k < relStrengths.length; k++) {
+			relStrengths[k] *= 2;
+		}
+		if (barnesHut) {
+			tree = new BarnesHutTree();
+			// transpose the rows, so that each node can sum its own forces
+			relInOffsets = new int[entitiesToLayout.length + 1];
+			relInSources = new int[relNeighbors.length];
+			relInPairs = new int[relNeighbors.length];
+			for (int j : relNeighbors) {
+				relInOffsets[j + 1]++;
+			}
+			for (int j = 0; j < entitiesToLayout.length; j++) {
+				relInOffsets[j + 1] += relInOffsets[j];
+			}
+			int[] next = relInOffsets.clone();
+			for (int i = 0; i < entitiesToLayout.length; i++) {
+				for (int k = relOffsets[i]; k < relOffsets[i + 1]; k++) {
+					int position = next[relNeighbors[k]]++;
+					relInSources[position] = i;
+					relInPairs[position] = k;
+				}
 			}
 		}
 
@@ -625,6 +756,11 @@ public class SpringLayoutAlgorithm extends ContinuousLayoutAlgorithm {
 			forcesY[i] = 0.0;
 		}
 
+		if (barnesHut) {
+			computeApproximateForces(entitiesToLayout);
+			return;
+		}
+
 		// TODO: Again really really slow!
 
 		for (int i = 0; i < entitiesToLayout.length - 1; i++) {
@@ -634,6 +770,8 @@ public class SpringLayoutAlgorithm extends ContinuousLayoutAlgorithm {
 			double srcLocationY = tempLocationsY[i];
 			double fx = forcesX[i]; // force in x direction
 			double fy = forcesY[i]; // force in y direction
+			// the next related node, the neighbors are sorted by their index
+			int rel = relOffsets[i];
 
 			for (int j = i + 1; j < entitiesToLayout.length; j++) {
 				InternalNode destinationEntity = entitiesToLayout[j];
@@ -652,11 +790,9 @@ public class SpringLayoutAlgorithm extends ContinuousLayoutAlgorithm {
 					// then decrease force on srcObj (a pull) in direction of destObj
 					// If no relation between srcObj and destObj then increase
 					// force on srcObj (a push) from direction of destObj.
-					int numRels = srcDestToNumRels[i][j];
-					double avgWeight = srcDestToRelsAvgWeight[i][j];
-					if (numRels > 0) {
+					if (rel < relOffsets[i + 1] && relNeighbors[rel] == j) {
 						// nodes are pulled towards each other
-						double f = sprStrain * Math.log(distance / sprLength) * numRels * avgWeight;
+						double f = sprStrain * Math.log(distance / sprLength) * relStrengths[rel++];
 
 						fx = fx - (f * dx / distance);
 						fy = fy - (f * dy / distance);
@@ -692,6 +828,70 @@ public class SpringLayoutAlgorithm extends ContinuousLayoutAlgorithm {
 		}
 	}
 
+	/**
+	 * Computes the forces using a {@link BarnesHutTree} for the repulsion between
+	 * all nodes and the related pairs for the attraction. As in
+	 * {@link #computeForces(InternalNode[])}, related nodes only attract each
+	 * other, so their repulsion is removed again.
+	 */
+	private void computeApproximateForces(InternalNode[] entitiesToLayout) {
+		int length = entitiesToLayout.length;
+		tree.build(tempLocationsX, tempLocationsY, length);
+		if (pool == null || length < 2 * MIN_NODES_PER_TASK) {
+			computeApproximateForces(0, length);
+			return;
+		}
+		int taskSize = Math.max(MIN_NODES_PER_TASK, length / (4 * pool.getParallelism()));
+		List<ForkJoinTask<?>> tasks = new ArrayList<>();
+		for (int from = 0; from < length; from += taskSize) {
+			int start = from;
+			int end = Math.min(length, from + taskSize);
+			tasks.add(ForkJoinTask.adapt(() -> computeApproximateForces(start, end)));
+		}
+		pool.invoke(ForkJoinTask.adapt(() -> ForkJoinTask.invokeAll(tasks)));
+	}
+
+	/**
+	 * Computes the forces on the given range of nodes. Each node first sums its
+	 * repulsion, then its pairs with smaller and then with larger indices.
+	 */
+	private void computeApproximateForces(int from, int to) {
+		tree.addRepulsion(from, to, theta, sprGravitation, MIN_DISTANCE, forcesX, forcesY);
+		for (int node = from; node < to; node++) {
+			double fx = forcesX[node];
+			double fy = forcesY[node];
+			for (int l = relInOffsets[node]; l < relInOffsets[node + 1]; l++) {
+				int i = relInSources[l];
+				double dx = tempLocationsX[i] - tempLocationsX[node];
+				double dy = tempLocationsY[i] - tempLocationsY[node];
+				double f = getPairForce(dx, dy, relStrengths[relInPairs[l]]);
+				fx += f * dx;
+				fy += f * dy;
+			}
+			for (int k = relOffsets[node]; k < relOffsets[node + 1]; k++) {
+				int j = relNeighbors[k];
+				double dx = tempLocationsX[node] - tempLocationsX[j];
+				double dy = tempLocationsY[node] - tempLocationsY[j];
+				double f = getPairForce(dx, dy, relStrengths[k]);
+				fx -= f * dx;
+				fy -= f * dy;
+			}
+			forcesX[node] = fx;
+			forcesY[node] = fy;
+		}
+	}
+
+	/**
+	 * Returns the attraction between two related nodes at the given offset, minus
+	 * their repulsion, divided by their distance.
+	 */
+	private double getPairForce(double dx, double dy, double strength) {
+		double distance = Math.max(MIN_DISTANCE, Math.sqrt(dx * dx + dy * dy));
+		double attraction = sprStrain * Math.log(distance / sprLength) * strength;
+		double repulsion = sprGravitation / (distance * distance);
+		return (attraction + repulsion) / distance;
+	}
+
 	/**
 	 * Computes the position for each node in this SpringLayoutAlgorithm. The
 	 * computed position will be stored in the data repository. position = position
@@ -765,34 +965,6 @@ public class SpringLayoutAlgorithm extends ContinuousLayoutAlgorithm {
 		}
 	}
 
-	/**
-	 * Examines the number of specified relation between the <code>src</code> and
-	 * the <code>dest</code> that exist in this SpringLayoutAlgorithm's relation
-	 * repository.
-	 *
-	 * @param src  The source part of the relaton to be examined.
-	 * @param dest The destination part of the relation to be examined.
-	 * @return The number of relations between src and dest.
-	 */
-	private int numRelations(Object src, Object dest) {
-		String key = src.toString() + dest.toString();
-		Integer count = srcDestToNumRelsMap.get(key);
-		return (count == null) ? 0 : count.intValue();
-	}
-
-	/**
-	 * Returns the average weight between a src and dest object.
-	 *
-	 * @param src
-	 * @param dest
-	 * @return The average weight between the given src and dest nodes
-	 */
-	private double avgWeight(Object src, Object dest) {
-		String key = src.toString() + dest.toString();
-		Double avgWeight = srcDestToRelsAvgWeightMap.get(key);
-		return (avgWeight == null) ? 1 : avgWeight.doubleValue();
-	}
-
 	@Override
 	protected boolean isValidConfiguration(boolean asynchronous, boolean continueous) {
 		return asynchronous || !continueous;
@@ -0,0 +1,267 @@
+/*******************************************************************************
+ * Copyright (c) 2026 agent and others.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0.
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     agent - initial API and implementation
+ *******************************************************************************/
+
+package org.eclipse.zest.layouts.algorithms.internal;
+
+import java.util.Arrays;
+
+/**
+ * A quadtree over the positions of the nodes of a force directed layout, which
+ * approximates the repulsion of all nodes on a node in O(log n) as described by
+ * Barnes and Hut. Each cell stores the number of nodes it contains and their
+ * center of mass. A cell whose width is less than theta times its distance to
+ * the node is treated as a single node at its center of mass. A theta of 0
+ * computes the exact repulsion.
+ * <p>
+ * The tree is kept in arrays, which are reused when it is built again for the
+ * next iteration. Once built, the repulsion on disjoint ranges of nodes may be
+ * computed concurrently.
+ */
+public class BarnesHutTree {
+
+	/**
+	 * Nodes at the same location are not separated beyond this depth and are kept
+	 * in a list of their leaf instead.
+	 */
+	private static final int MAX_DEPTH = 40;
+
+	private static final int NONE = -1;
+
+	private final int exponent;
+
+	private double[] x;
+	private double[] y;
+	private int[] nextNode = new int[0];
+
+	/**
+	 * Creates a tree for a repulsion that decreases with the square of the
+	 * distance.
+	 */
+	public BarnesHutTree() {
+		this(2);
+	}
+
+	/**
+	 * Creates a tree for a repulsion that decreases with the given power of the
+	 * distance. A smaller exponent gives the global structure more weight.
+	 *
+	 * @param exponent 1 or 2
+	 */
+	public BarnesHutTree(int exponent) {
+		if (exponent != 1 && exponent != 2) {
+			throw new IllegalArgumentException("The exponent must be 1 or 2"); //$NON-NLS-1$
+		}
+		this.exponent = exponent;
+	}
+
+	private int cellCount;
+	private int[] children = new int[0];
+	private int[] firstNode = new int[0];
+	private int[] mass = new int[0];
+	private double[] centerX = new double[0];
+	private double[] centerY = new double[0];
+	private double[] cellX = new double[0];
+	private double[] cellY = new double[0];
+	private double[] cellWidth = new double[0];
+
+	/**
+	 * Builds the tree for the given node locations. The arrays are not copied and
+	 * must not be changed while the tree is in use.
+	 *
+	 * @param x     the x coordinates of the nodes
+	 * @param y     the y coordinates of the nodes
+	 * @param count the number of nodes
+	 */
+	public void build(double[] x, double[] y, int count) {
+		this.x = x;
+		this.y = y;
+		if (nextNode.length < count) {
+			nextNode = new int[count];
+		}
+		double minX = Double.MAX_VALUE;
+		double minY = Double.MAX_VALUE;
+		double maxX = -Double.MAX_VALUE;
+		double maxY = -Double.MAX_VALUE;
+		for (int i = 0; i < count; i++) {
+			minX = Math.min(minX, x[i]);
+			minY = Math.min(minY, y[i]);
+			maxX = Math.max(maxX, x[i]);
+			maxY = Math.max(maxY, y[i]);
+		}
+		cellCount = 0;
+		if (count == 0) {
+			return;
+		}
+		// the root is a square, so that all cells are squares
+		newCell(minX, minY, Math.max(Math.max(maxX - minX, maxY - minY), Double.MIN_NORMAL));
+		for (int i = 0; i < count; i++) {
+			insert(i);
+		}
+		// children are always created after their parent
+		for (int c = cellCount - 1; c >= 0; c--) {
+			int m = 0;
+			double sumX = 0;
+			double sumY = 0;
+			if (children[4 * c] == NONE) {
+				for (int i = firstNode[c]; i != NONE; i = nextNode[i]) {
+					m++;
+					sumX += x[i];
+					sumY += y[i];
+				}
+			} else {
+				for (int k = 4 * c; k < 4 * c + 4; k++) {
+					int child = children[k];
+					m += mass[child];
+					sumX += centerX[child] * mass[child];
+					sumY += centerY[child] * mass[child];
+				}
+			}
+			mass[c] = m;
+			if (m > 0) {
+				centerX[c] = sumX / m;
+				centerY[c] = sumY / m;
+			}
+		}
+	}
+
+	private void insert(int node) {
+		int cell = 0;
+		int depth = 0;
+		while (children[4 * cell] != NONE) {
+			cell = children[4 * cell + quadrant(cell, node)];
+			depth++;
+		}
+		while (firstNode[cell] != NONE && depth < MAX_DEPTH) {
+			// split the leaf and move its node into the matching child
+			int other = firstNode[cell];
+			firstNode[cell] = NONE;
+			double half = cellWidth[cell] / 2;
+			for (int k = 0; k < 4; k++) {
+				int child = newCell(cellX[cell] + (k & 1) * half, cellY[cell] + (k >> 1) * half, half);
+				children[4 * cell + k] = child;
+			}
+			firstNode[children[4 * cell + quadrant(cell, other)]] = other;
+			cell = children[4 * cell + quadrant(cell, node)];
+			depth++;
+		}
+		nextNode[node] = firstNode[cell];
+		firstNode[cell] = node;
+	}
+
+	private int quadrant(int cell, int node) {
+		double half = cellWidth[cell] / 2;
+		int k = 0;
+		if (x[node] >= cellX[cell] + half) {
+			k |= 1;
+		}
+		if (y[node] >= cellY[cell] + half) {
+			k |= 2;
+		}
+		return k;
+	}
+
+	private int newCell(double left, double top, double width) {
+		if (cellCount == mass.length) {
+			int capacity = Math.max(16, 2 * cellCount);
+			children = Arrays.copyOf(children, 4 * capacity);
+			firstNode = Arrays.copyOf(firstNode, capacity);
+			mass = Arrays.copyOf(mass, capacity);
+			centerX = Arrays.copyOf(centerX, capacity);
+			centerY = Arrays.copyOf(centerY, capacity);
+			cellX = Arrays.copyOf(cellX, capacity);
+			cellY = Arrays.copyOf(cellY, capacity);
+			cellWidth = Arrays.copyOf(cellWidth, capacity);
+		}
+		int cell = cellCount++;
+		Arrays.fill(children, 4 * cell, 4 * cell + 4, NONE);
+		firstNode[cell] = NONE;
+		cellX[cell] = left;
+		cellY[cell] = top;
+		cellWidth[cell] = width;
+		return cell;
+	}
+
+	/**
+	 * Adds the repulsion of all other nodes on each of the given nodes to the given
+	 * force arrays. Two nodes at distance d repel each other by
+	 * <code>strength / d<sup>exponent</sup></code>, where d is at least
+	 * <code>minDistance</code>.
+	 *
+	 * @param from        the index of the first node
+	 * @param to          the index after the last node
+	 * @param theta       the ratio of cell width and distance below which a cell
+	 *                    is approximated by its center of mass
+	 * @param strength    the strength of the repulsion
+	 * @param minDistance the minimum distance between two nodes
+	 * @param forcesX     the forces in x direction
+	 * @param forcesY     the forces in y direction
+	 */
+	public void addRepulsion(int from, int to, double theta, double strength, double minDistance,
+			double[] forcesX, double[] forcesY) {
+		if (cellCount == 0) {
+			return;
+		}
+		int[] stack = new int[3 * MAX_DEPTH + 4];
+		for (int node = from; node < to; node++) {
+			double nodeX = x[node];
+			double nodeY = y[node];
+			double fx = 0;
+			double fy = 0;
+			int size = 0;
+			stack[size++] = 0;
+			while (size > 0) {
+				int cell = stack[--size];
+				if (mass[cell] == 0) {
+					continue;
+				}
+				if (children[4 * cell] == NONE) {
+					for (int i = firstNode[cell]; i != NONE; i = nextNode[i]) {
+						if (i != node) {
+							double dx = nodeX - x[i];
+							double dy = nodeY - y[i];
+							double distance = Math.max(minDistance, Math.sqrt(dx * dx + dy * dy));
+							double f = strength / power(distance);
+							fx += f * dx;
+							fy += f * dy;
+						}
+					}
+					continue;
+				}
+				double dx = nodeX - centerX[cell];
+				double dy = nodeY - centerY[cell];
+				double distance = Math.sqrt(dx * dx + dy * dy);
+				if (cellWidth[cell] < theta * distance) {
+					distance = Math.max(minDistance, distance);
+					double f = strength * mass[cell] / power(distance);
+					fx += f * dx;
+					fy += f * dy;
+				} else {
+					for (int k = 4 * cell; k < 4 * cell + 4; k++) {
+						stack[size++] = children[k];
+					}
+				}
+			}
+			forcesX[node] += fx;
+			forcesY[node] += fy;
+		}
+	}
+
+	/**
+	 * Returns the distance to the power of the exponent plus one, which divides the
+	 * offset of two nodes.
+	 */
+	private double power(double distance) {
+		return exponent == 1 ? distance * distance : distance * distance * distance;
+	}
+
+}
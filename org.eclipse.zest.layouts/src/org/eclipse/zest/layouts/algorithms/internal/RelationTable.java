@@ -0,0 +1,175 @@
+/*******************************************************************************
+ * Copyright (c) 2026 agent and others.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0.
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     agent - initial API and implementation
+ *******************************************************************************/
+
+package org.eclipse.zest.layouts.algorithms.internal;
+
+import java.util.Arrays;
+
+/**
+ * Accumulates the weights of the relationships between pairs of nodes, which
+ * are identified by their indices. The direction of a relationship is ignored
+ * and relationships of a node to itself are skipped. The pairs are kept in an
+ * open addressing hash table over primitive long keys.
+ * <p>
+ * Once all relationships have been added, {@link #buildAdjacency(int)} stores
+ * the pairs in compressed sparse rows: the neighbors of node <code>i</code>
+ * with a larger index are <code>getNeighbors()[k]</code> for
+ * <code>getOffsets()[i] &lt;= k &lt; getOffsets()[i + 1]</code> in ascending
+ * order, and <code>getWeights()[k]</code> is the sum of the weights of the
+ * relationships between them.
+ */
+public class RelationTable {
+
+	private static final long EMPTY = -1;
+
+	private long[] keys;
+	private double[] sums;
+	private int size;
+
+	private int[] offsets;
+	private int[] neighbors;
+	private double[] weights;
+
+	/**
+	 * Creates a table for the given number of pairs, which grows as required.
+	 *
+	 * @param expectedSize the expected number of pairs
+	 */
+	public RelationTable(int expectedSize) {
+		int capacity = Integer.highestOneBit(Math.max(8, 2 * expectedSize) - 1) << 1;
+		keys = new long[capacity];
+		sums = new double[capacity];
+		Arrays.fill(keys, EMPTY);
+	}
+
+	/**
+	 * Adds a relationship between the given nodes.
+	 *
+	 * @param source the index of one end of the relationship
+	 * @param target the index of the other end of the relationship
+	 * @param weight the weight of the relationship
+	 */
+	public void add(int source, int target, double weight) {
+		if (source == target) {
+			return;
+		}
+		long key = ((long) Math.min(source, target) << 32) | Math.max(source, target);
+		int mask = keys.length - 1;
+		int slot = hash(key) & mask;
+		while (keys[slot] != EMPTY && keys[slot] != key) {
+			slot = (slot + 1) & mask;
+		}
+		boolean added = keys[slot] == EMPTY;
+		keys[slot] = key;
+		sums[slot] += weight;
+		if (added && ++size > keys.length / 2) {
+			grow();
+		}
+	}
+
+	private static int hash(long key) {
+		long h = key * 0x9E3779B97F4A7C15L;
+		return (int) (h ^ (h >>> 32));
+	}
+
+	private void grow() {
+		long[] oldKeys = keys;
+		double[] oldSums = sums;
+		keys = new long[2 * oldKeys.length];
+		sums = new double[2 * oldKeys.length];
+		Arrays.fill(keys, EMPTY);
+		int mask = keys.length - 1;
+		for (int i = 0; i < oldKeys.length; i++) {
+			if (oldKeys[i] != EMPTY) {
+				int slot = hash(oldKeys[i]) & mask;
+				while (keys[slot] != EMPTY) {
+					slot = (slot + 1) & mask;
+				}
+				keys[slot] = oldKeys[i];
+				sums[slot] = oldSums[i];
+			}
+		}
+	}
+
+	/**
+	 * Returns the number of related pairs of nodes.
+	 *
+	 * @return the number of pairs
+	 */
+	public int size() {
+		return size;
+	}
+
+	/**
+	 * Stores the pairs in compressed sparse rows, see {@link RelationTable}.
+	 *
+	 * @param nodeCount the number of nodes, which must be larger than all indices
+	 */
+	public void buildAdjacency(int nodeCount) {
+		long[] pairs = new long[size];
+		int count = 0;
+		for (long key : keys) {
+			if (key != EMPTY) {
+				pairs[count++] = key;
+			}
+		}
+		// sorts by the first and then the second node
+		Arrays.sort(pairs);
+		offsets = new int[nodeCount + 1];
+		neighbors = new int[size];
+		weights = new double[size];
+		int mask = keys.length - 1;
+		for (int k = 0; k < size; k++) {
+			long key = pairs[k];
+			offsets[(int) (key >>> 32) + 1]++;
+			neighbors[k] = (int) key;
+			int slot = hash(key) & mask;
+			while (keys[slot] != key) {
+				slot = (slot + 1) & mask;
+			}
+			weights[k] = sums[slot];
+		}
+		for (int i = 0; i < nodeCount; i++) {
+			offsets[i + 1] += offsets[i];
+		}
+	}
+
+	/**
+	 * Returns the start of the neighbors of each node, followed by the number of
+	 * pairs.
+	 *
+	 * @return the offsets of the rows
+	 */
+	public int[] getOffsets() {
+		return offsets;
+	}
+
+	/**
+	 * Returns the neighbors of all nodes.
+	 *
+	 * @return the neighbors in the order of the rows
+	 */
+	public int[] getNeighbors() {
+		return neighbors;
+	}
+
+	/**
+	 * Returns the sum of the weights of the relationships between each pair.
+	 *
+	 * @return the weights in the order of the rows
+	 */
+	public double[] getWeights() {
+		return weights;
+	}
+
+}
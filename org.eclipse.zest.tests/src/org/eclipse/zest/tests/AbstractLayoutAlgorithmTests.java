@@ -0,0 +1,306 @@
+/*******************************************************************************
+ * Copyright (c) 2026 agent and others.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0.
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     agent - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.zest.tests;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+import org.eclipse.zest.layouts.LayoutEntity;
+import org.eclipse.zest.layouts.LayoutRelationship;
+import org.eclipse.zest.layouts.LayoutStyles;
+import org.eclipse.zest.layouts.algorithms.AbstractLayoutAlgorithm;
+import org.eclipse.zest.layouts.dataStructures.InternalNode;
+import org.eclipse.zest.layouts.dataStructures.InternalRelationship;
+import org.eclipse.zest.layouts.exampleStructures.SimpleNode;
+import org.eclipse.zest.layouts.progress.ProgressEvent;
+import org.eclipse.zest.layouts.progress.ProgressListener;
+
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Tests for the synchronous and asynchronous layouts of the
+ * {@link AbstractLayoutAlgorithm}.
+ */
+public class AbstractLayoutAlgorithmTests extends Assert {
+
+	private static final long TIMEOUT = 10;
+
+	/**
+	 * An algorithm which records its calls and keeps running until it is stopped
+	 * while blocking, or until it is released while held.
+	 */
+	private static final class TestLayoutAlgorithm extends AbstractLayoutAlgorithm {
+
+		final List<String> events = Collections.synchronizedList(new ArrayList<>());
+		final Semaphore started = new Semaphore(0);
+		volatile boolean blocking;
+		volatile boolean held;
+		volatile boolean continuousSupported;
+		volatile Throwable failure;
+
+		TestLayoutAlgorithm() {
+			super(LayoutStyles.NONE);
+		}
+
+		@Override
+		public void setLayoutArea(double x, double y, double width, double height) {
+			// nothing to do
+		}
+
+		@Override
+		protected boolean isValidConfiguration(boolean asynchronous, boolean continuous) {
+			return !continuous || continuousSupported;
+		}
+
+		@Override
+		protected void preLayoutAlgorithm(InternalNode[] entitiesToLayout,
+				InternalRelationship[] relationshipsToConsider, double x, double y, double width, double height) {
+			events.add("pre"); //$NON-NLS-1$
+		}
+
+		@Override
+		protected void applyLayoutInternal(InternalNode[] entitiesToLayout,
+				InternalRelationship[] relationshipsToConsider, double boundsX, double boundsY, double boundsWidth,
+				double boundsHeight) {
+			started.release();
+			if (failure instanceof RuntimeException e) {
+				throw e;
+			}
+			if (failure instanceof Error e) {
+				throw e;
+			}
+			while (held || (blocking && !layoutStopped)) {
+				Thread.onSpinWait();
+			}
+		}
+
+		@Override
+		protected void postLayoutAlgorithm(InternalNode[] entitiesToLayout,
+				InternalRelationship[] relationshipsToConsider) {
+			events.add("post"); //$NON-NLS-1$
+		}
+
+		@Override
+		protected int getTotalNumberOfLayoutSteps() {
+			return 1;
+		}
+
+		@Override
+		protected int getCurrentLayoutStep() {
+			return 0;
+		}
+
+	}
+
+	private TestLayoutAlgorithm algorithm;
+	private LayoutEntity[] entities;
+
+	@Before
+	public void setUp() {
+		algorithm = new TestLayoutAlgorithm();
+		algorithm.addProgressListener(new ProgressListener() {
+			@Override
+			public void progressStarted(ProgressEvent e) {
+				algorithm.events.add("started"); //$NON-NLS-1$
+			}
+
+			@Override
+			public void progressUpdated(ProgressEvent e) {
+				// nothing to do
+			}
+
+			@Override
+			public void progressEnded(ProgressEvent e) {
+				algorithm.events.add("ended"); //$NON-NLS-1$
+			}
+		});
+		entities = new LayoutEntity[] { new SimpleNode("node") }; //$NON-NLS-1$
+	}
+
+	private CompletableFuture<Void> applyLayoutAsynchronously() throws Exception {
+		return algorithm.applyLayoutAsynchronously(entities, new LayoutRelationship[0], 0, 0, 100, 100, false);
+	}
+
+	private void applyLayout() throws Exception {
+		algorithm.applyLayout(entities, new LayoutRelationship[0], 0, 0, 100, 100, false, false);
+	}
+
+	/**
+	 * Asserts that the given number of layouts has run, each of which has started
+	 * and ended once.
+	 */
+	private void assertLayouts(int count) {
+		List<String> expected = new ArrayList<>();
+		for (int i = 0; i < count; i++) {
+			expected.addAll(Arrays.asList("pre", "started", "post", "ended")); //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$ //$NON-NLS-4$
+		}
+		assertEquals(expected, algorithm.events);
+	}
+
+	@Test
+	public void testSynchronousLayoutSupersedesRunningLayout() throws Exception {
+		algorithm.blocking = true;
+		CompletableFuture<Void> running = applyLayoutAsynchronously();
+		assertTrue(algorithm.started.tryAcquire(TIMEOUT, TimeUnit.SECONDS));
+		algorithm.blocking = false;
+
+		applyLayout();
+
+		assertTrue(running.isDone());
+		assertFalse(running.isCompletedExceptionally());
+		assertFalse(algorithm.isRunning());
+		assertLayouts(2);
+	}
+
+	@Test
+	public void testNewLayoutSupersedesPendingLayout() throws Exception {
+		algorithm.held = true;
+		CompletableFuture<Void> running = applyLayoutAsynchronously();
+		assertTrue(algorithm.started.tryAcquire(TIMEOUT, TimeUnit.SECONDS));
+
+		// the running layout is held until both requests have been queued
+		CompletableFuture<Void> pending = applyLayoutAsynchronously();
+		CompletableFuture<Void> latest = applyLayoutAsynchronously();
+		algorithm.held = false;
+		latest.get(TIMEOUT, TimeUnit.SECONDS);
+
+		assertTrue(pending.isCancelled());
+		assertTrue(running.isDone());
+		assertFalse(running.isCompletedExceptionally());
+		assertLayouts(2);
+	}
+
+	@Test
+	public void testStopCancelsLayouts() throws Exception {
+		algorithm.blocking = true;
+		CompletableFuture<Void> running = applyLayoutAsynchronously();
+		assertTrue(algorithm.started.tryAcquire(TIMEOUT, TimeUnit.SECONDS));
+		CompletableFuture<Void> pending = applyLayoutAsynchronously();
+
+		algorithm.stop();
+		running.get(TIMEOUT, TimeUnit.SECONDS);
+
+		assertTrue(pending.isCancelled());
+		assertFalse(algorithm.isRunning());
+		assertLayouts(1);
+	}
+
+	@Test
+	public void testCancelStopsRunningLayout() throws Exception {
+		algorithm.blocking = true;
+		CompletableFuture<Void> running = applyLayoutAsynchronously();
+		assertTrue(algorithm.started.tryAcquire(TIMEOUT, TimeUnit.SECONDS));
+
+		running.cancel(false);
+		// the next layout only starts once the cancelled one has ended
+		algorithm.blocking = false;
+		applyLayoutAsynchronously().get(TIMEOUT, TimeUnit.SECONDS);
+
+		assertTrue(running.isCancelled());
+		assertLayouts(2);
+	}
+
+	@Test
+	public void testStopDuringSynchronousLayout() throws Exception {
+		algorithm.blocking = true;
+		algorithm.addProgressListener(new ProgressListener() {
+			@Override
+			public void progressStarted(ProgressEvent e) {
+				algorithm.stop();
+			}
+
+			@Override
+			public void progressUpdated(ProgressEvent e) {
+				// nothing to do
+			}
+
+			@Override
+			public void progressEnded(ProgressEvent e) {
+				// nothing to do
+			}
+		});
+
+		applyLayout();
+
+		assertFalse(algorithm.isRunning());
+		assertLayouts(1);
+	}
+
+	@Test
+	public void testFailedLayoutsEnd() throws Exception {
+		RuntimeException failure = new IllegalStateException();
+		algorithm.failure = failure;
+		try {
+			applyLayoutAsynchronously().get(TIMEOUT, TimeUnit.SECONDS);
+			fail();
+		} catch (ExecutionException e) {
+			assertSame(failure, e.getCause());
+		}
+		try {
+			applyLayout();
+			fail();
+		} catch (IllegalStateException e) {
+			assertSame(failure, e);
+		}
+
+		assertFalse(algorithm.isRunning());
+		assertLayouts(2);
+	}
+
+	@Test
+	public void testErrorCompletesLayout() throws Exception {
+		Error failure = new AssertionError();
+		algorithm.failure = failure;
+		try {
+			applyLayoutAsynchronously().get(TIMEOUT, TimeUnit.SECONDS);
+			fail();
+		} catch (ExecutionException e) {
+			assertSame(failure, e.getCause());
+		}
+
+		// the algorithm can still lay out afterwards
+		algorithm.failure = null;
+		applyLayoutAsynchronously().get(TIMEOUT, TimeUnit.SECONDS);
+		assertLayouts(2);
+	}
+
+	@Test
+	public void testContinuousLayoutsDoNotBlockOtherLayouts() throws Exception {
+		List<TestLayoutAlgorithm> continuous = new ArrayList<>();
+		try {
+			// more than the layouts running at the same time on the shared threads
+			for (int i = 0; i < Runtime.getRuntime().availableProcessors() + 4; i++) {
+				TestLayoutAlgorithm other = new TestLayoutAlgorithm();
+				other.continuousSupported = true;
+				other.blocking = true;
+				continuous.add(other);
+				other.applyLayoutAsynchronously(entities, new LayoutRelationship[0], 0, 0, 100, 100, true);
+				assertTrue(other.started.tryAcquire(TIMEOUT, TimeUnit.SECONDS));
+			}
+
+			applyLayoutAsynchronously().get(TIMEOUT, TimeUnit.SECONDS);
+			assertLayouts(1);
+		} finally {
+			continuous.forEach(TestLayoutAlgorithm::stop);
+		}
+	}
+
+}
@@ -0,0 +1,68 @@
+/*******************************************************************************
+ * Copyright (c) 2026 agent and others.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0.
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     agent - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.zest.tests;
+
+import java.util.Random;
+
+import org.eclipse.zest.layouts.algorithms.internal.BarnesHutTree;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * Tests for the {@link BarnesHutTree} used by the force directed layouts.
+ */
+public class BarnesHutTreeTests extends Assert {
+
+	private static final double MIN_DISTANCE = 0.001;
+
+	@Test
+	public void testExactRepulsion() {
+		Random random = new Random(7);
+		int count = 200;
+		double[] x = new double[count];
+		double[] y = new double[count];
+		for (int i = 0; i < count; i++) {
+			x[i] = random.nextDouble() * 100;
+			y[i] = random.nextDouble() * 100;
+		}
+		// nodes at the same location do not repel each other
+		x[1] = x[0];
+		y[1] = y[0];
+		x[2] = x[0];
+		y[2] = y[0];
+
+		BarnesHutTree tree = new BarnesHutTree();
+		tree.build(x, y, count);
+		double[] forcesX = new double[count];
+		double[] forcesY = new double[count];
+		tree.addRepulsion(0, count, 0, 2, MIN_DISTANCE, forcesX, forcesY);
+
+		for (int i = 0; i < count; i++) {
+			double fx = 0;
+			double fy = 0;
+			for (int j = 0; j < count; j++) {
+				if (j != i) {
+					double dx = x[i] - x[j];
+					double dy = y[i] - y[j];
+					double distance = Math.max(MIN_DISTANCE, Math.sqrt(dx * dx + dy * dy));
+					fx += 2 * dx / (distance * distance * distance);
+					fy += 2 * dy / (distance * distance * distance);
+				}
+			}
+			assertEquals(fx, forcesX[i], 1e-9 * Math.max(1, Math.abs(fx)));
+			assertEquals(fy, forcesY[i], 1e-9 * Math.max(1, Math.abs(fy)));
+		}
+	}
+
+}
@@ -0,0 +1,134 @@
+/*******************************************************************************
+ * Copyright (c) 2026 agent and others.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0.
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     agent - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.zest.tests;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.eclipse.zest.layouts.LayoutRelationship;
+import org.eclipse.zest.layouts.LayoutStyles;
+import org.eclipse.zest.layouts.algorithms.MultilevelLayoutAlgorithm;
+import org.eclipse.zest.layouts.exampleStructures.SimpleNode;
+import org.eclipse.zest.layouts.exampleStructures.SimpleRelationship;
+import org.eclipse.zest.layouts.progress.ProgressEvent;
+import org.eclipse.zest.layouts.progress.ProgressListener;
+
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Tests for the {@link MultilevelLayoutAlgorithm}.
+ */
+public class MultilevelLayoutAlgorithmTests extends Assert {
+
+	private static final int BOUNDS = 1000;
+
+	private final List<SimpleNode> nodes = new ArrayList<>();
+	private final List<LayoutRelationship> relationships = new ArrayList<>();
+	private SimpleNode[] firstGrid;
+	private SimpleNode[] secondGrid;
+	private MultilevelLayoutAlgorithm algorithm;
+
+	@Before
+	public void setUp() {
+		firstGrid = createGrid(15, 15);
+		secondGrid = createGrid(10, 10);
+		algorithm = new MultilevelLayoutAlgorithm(LayoutStyles.NO_LAYOUT_NODE_RESIZING);
+	}
+
+	/**
+	 * Creates a grid of nodes, each of which is related to its right and lower
+	 * neighbor.
+	 */
+	private SimpleNode[] createGrid(int columns, int rows) {
+		SimpleNode[] grid = new SimpleNode[columns * rows];
+		for (int i = 0; i < grid.length; i++) {
+			grid[i] = new SimpleNode(Integer.valueOf(nodes.size()), -1, -1, 4, 4);
+			nodes.add(grid[i]);
+			if (i % columns > 0) {
+				relationships.add(new SimpleRelationship(grid[i - 1], grid[i], false));
+			}
+			if (i >= columns) {
+				relationships.add(new SimpleRelationship(grid[i - columns], grid[i], false));
+			}
+		}
+		return grid;
+	}
+
+	@Test
+	public void testComponentsDoNotOverlap() throws Exception {
+		algorithm.applyLayout(nodes.toArray(new SimpleNode[0]), relationships.toArray(new LayoutRelationship[0]), 0,
+				0, BOUNDS, BOUNDS, false, false);
+
+		assertFalse(algorithm.isRunning());
+		assertInBounds();
+		double[] first = getBox(firstGrid);
+		double[] second = getBox(secondGrid);
+		assertTrue(first[2] < second[0] || second[2] < first[0] || first[3] < second[1] || second[3] < first[1]);
+	}
+
+	@Test
+	public void testStoppedLayoutPlacesEntities() throws Exception {
+		List<ProgressEvent> updates = new ArrayList<>();
+		algorithm.addProgressListener(new ProgressListener() {
+			@Override
+			public void progressStarted(ProgressEvent e) {
+				algorithm.stop();
+			}
+
+			@Override
+			public void progressUpdated(ProgressEvent e) {
+				updates.add(e);
+			}
+
+			@Override
+			public void progressEnded(ProgressEvent e) {
+				// nothing to do
+			}
+		});
+		algorithm.applyLayoutAsynchronously(nodes.toArray(new SimpleNode[0]),
+				relationships.toArray(new LayoutRelationship[0]), 0, 0, BOUNDS, BOUNDS, false)
+				.get(10, TimeUnit.SECONDS);
+
+		// only the coarsest level has been laid out
+		assertTrue(updates.size() <= 1);
+		assertInBounds();
+		double[] box = getBox(nodes.toArray(new SimpleNode[0]));
+		assertTrue(box[2] - box[0] > BOUNDS / 2);
+		assertTrue(box[3] - box[1] > BOUNDS / 2);
+	}
+
+	private void assertInBounds() {
+		for (SimpleNode node : nodes) {
+			assertTrue(node.getX() >= 0 && node.getX() + node.getWidth() <= BOUNDS);
+			assertTrue(node.getY() >= 0 && node.getY() + node.getHeight() <= BOUNDS);
+		}
+	}
+
+	/**
+	 * Returns the left, top, right and bottom side of the given nodes.
+	 */
+	private static double[] getBox(SimpleNode[] grid) {
+		double[] box = { Double.MAX_VALUE, Double.MAX_VALUE, -Double.MAX_VALUE, -Double.MAX_VALUE };
+		for (SimpleNode node : grid) {
+			box[0] = Math.min(box[0], node.getX());
+			box[1] = Math.min(box[1], node.getY());
+			box[2] = Math.max(box[2], node.getX() + node.getWidth());
+			box[3] = Math.max(box[3], node.getY() + node.getHeight());
+		}
+		return box;
+	}
+
+}
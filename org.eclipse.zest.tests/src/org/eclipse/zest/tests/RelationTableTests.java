@@ -0,0 +1,85 @@
+/*******************************************************************************
+ * Copyright (c) 2026 agent and others.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0.
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     agent - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.zest.tests;
+
+import org.eclipse.zest.layouts.algorithms.internal.RelationTable;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * Tests for the {@link RelationTable} which stores the relationships of the
+ * force directed layouts.
+ */
+public class RelationTableTests extends Assert {
+
+	@Test
+	public void testPairsAreMerged() {
+		RelationTable table = new RelationTable(4);
+		table.add(0, 1, 1);
+		table.add(1, 0, 2);
+		table.add(2, 1, 0.5);
+		table.add(0, 1, 3);
+		table.buildAdjacency(3);
+
+		assertEquals(2, table.size());
+		assertArrayEquals(new int[] { 0, 1, 2, 2 }, table.getOffsets());
+		assertArrayEquals(new int[] { 1, 2 }, table.getNeighbors());
+		assertArrayEquals(new double[] { 6, 0.5 }, table.getWeights(), 0);
+	}
+
+	@Test
+	public void testSelfLoopsAreSkipped() {
+		RelationTable table = new RelationTable(2);
+		table.add(1, 1, 1);
+		table.add(0, 1, 1);
+		table.add(0, 0, 1);
+		table.buildAdjacency(2);
+
+		assertEquals(1, table.size());
+		assertArrayEquals(new int[] { 0, 1, 1 }, table.getOffsets());
+		assertArrayEquals(new int[] { 1 }, table.getNeighbors());
+	}
+
+	@Test
+	public void testGrowth() {
+		int count = 1000;
+		// far more pairs than expected
+		RelationTable table = new RelationTable(1);
+		for (int i = count - 1; i > 0; i--) {
+			table.add(i, i - 1, i);
+			table.add(0, i, 1);
+		}
+		for (int i = 1; i < count; i++) {
+			table.add(i - 1, i, 1);
+		}
+		table.buildAdjacency(count);
+
+		assertEquals(2 * count - 3, table.size());
+		int[] offsets = table.getOffsets();
+		int[] neighbors = table.getNeighbors();
+		double[] weights = table.getWeights();
+		assertEquals(count - 1, offsets[1]);
+		for (int k = 0; k < offsets[1]; k++) {
+			assertEquals(k + 1, neighbors[k]);
+			assertEquals(k == 0 ? 3 : 1, weights[k], 0);
+		}
+		for (int i = 1; i < count - 1; i++) {
+			assertEquals(1, offsets[i + 1] - offsets[i]);
+			assertEquals(i + 1, neighbors[offsets[i]]);
+			assertEquals(i + 2, weights[offsets[i]], 0);
+		}
+		assertEquals(table.size(), offsets[count]);
+	}
+
+}
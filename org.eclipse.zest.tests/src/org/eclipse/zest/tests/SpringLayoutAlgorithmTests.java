@@ -0,0 +1,148 @@
+/*******************************************************************************
+ * Copyright (c) 2026 agent and others.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0.
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     agent - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.zest.tests;
+
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+
+import org.eclipse.zest.layouts.LayoutRelationship;
+import org.eclipse.zest.layouts.LayoutStyles;
+import org.eclipse.zest.layouts.algorithms.SpringLayoutAlgorithm;
+import org.eclipse.zest.layouts.exampleStructures.SimpleNode;
+import org.eclipse.zest.layouts.exampleStructures.SimpleRelationship;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * Tests for the {@link SpringLayoutAlgorithm}.
+ */
+public class SpringLayoutAlgorithmTests extends Assert {
+
+	private static final double[][] LOCATIONS = { { 10, 10 }, { 200, 40 }, { 60, 300 }, { 320, 250 },
+			{ 150, 150 }, { 400, 20 } };
+
+	/**
+	 * The source, target and weight of each relationship between the nodes at
+	 * {@link #LOCATIONS}. Includes a pair related in both directions, a repeated
+	 * pair and a self-loop.
+	 */
+	private static final double[][] RELATIONSHIPS = { { 0, 1, 1 }, { 1, 2, 2 }, { 2, 0, 0.5 }, { 2, 3, 1 },
+			{ 3, 4, 3 }, { 4, 3, 1 }, { 4, 5, 1 }, { 5, 5, 1 }, { 0, 1, 2 } };
+
+	/**
+	 * The locations computed by the layout which stored the relationships in dense
+	 * matrices.
+	 */
+	private static final double[][] DENSE_LOCATIONS = { { 25.0, 72.69267745663974 },
+			{ 85.51837373549603, 25.0 }, { 69.78244891216418, 200.59528502904558 },
+			{ 201.6012284666024, 344.60372761843433 }, { 297.0097738487054, 341.87935215943196 },
+			{ 426.5853010116031, 426.5853010116031 } };
+
+	@Test
+	public void testExactLayout() throws Exception {
+		double[][] locations = layout(createAlgorithm());
+
+		for (int i = 0; i < locations.length; i++) {
+			assertEquals(DENSE_LOCATIONS[i][0], locations[i][0], 1e-9);
+			assertEquals(DENSE_LOCATIONS[i][1], locations[i][1], 1e-9);
+		}
+	}
+
+	@Test
+	public void testBarnesHutWithoutApproximation() throws Exception {
+		double[][] exact = layout(createAlgorithm());
+		SpringLayoutAlgorithm algorithm = createAlgorithm();
+		algorithm.setBarnesHutEnabled(true);
+		algorithm.setSpringTheta(0);
+		double[][] approximated = layout(algorithm);
+
+		for (int i = 0; i < exact.length; i++) {
+			assertEquals(exact[i][0], approximated[i][0], 1e-6);
+			assertEquals(exact[i][1], approximated[i][1], 1e-6);
+		}
+	}
+
+	@Test
+	public void testParallelLayout() throws Exception {
+		double[][] sequential = layoutLargeGraph(null);
+		ForkJoinPool pool = new ForkJoinPool(4);
+		try {
+			double[][] parallel = layoutLargeGraph(pool);
+			for (int i = 0; i < sequential.length; i++) {
+				assertEquals(sequential[i][0], parallel[i][0], 0);
+				assertEquals(sequential[i][1], parallel[i][1], 0);
+			}
+		} finally {
+			pool.shutdown();
+		}
+	}
+
+	private static SpringLayoutAlgorithm createAlgorithm() {
+		SpringLayoutAlgorithm algorithm = new SpringLayoutAlgorithm(LayoutStyles.NO_LAYOUT_NODE_RESIZING);
+		algorithm.setRandom(false);
+		// do not skip iterations on slow machines
+		algorithm.setSpringTimeout(0);
+		return algorithm;
+	}
+
+	/**
+	 * Lays out the nodes at {@link #LOCATIONS} with the {@link #RELATIONSHIPS} and
+	 * returns their new locations.
+	 */
+	private static double[][] layout(SpringLayoutAlgorithm algorithm) throws Exception {
+		SimpleNode[] nodes = new SimpleNode[LOCATIONS.length];
+		for (int i = 0; i < nodes.length; i++) {
+			nodes[i] = new SimpleNode(Integer.valueOf(i), LOCATIONS[i][0], LOCATIONS[i][1], 20, 20);
+		}
+		LayoutRelationship[] relationships = new LayoutRelationship[RELATIONSHIPS.length];
+		for (int i = 0; i < relationships.length; i++) {
+			double[] relationship = RELATIONSHIPS[i];
+			relationships[i] = new SimpleRelationship(nodes[(int) relationship[0]], nodes[(int) relationship[1]],
+					false, relationship[2]);
+		}
+		algorithm.applyLayout(nodes, relationships, 0, 0, 500, 500, false, false);
+		return getLocations(nodes);
+	}
+
+	/**
+	 * Lays out a graph which is large enough to be split across the threads of the
+	 * given pool in Barnes-Hut mode and returns the new locations.
+	 */
+	private static double[][] layoutLargeGraph(ForkJoinPool pool) throws Exception {
+		Random random = new Random(3);
+		SimpleNode[] nodes = new SimpleNode[3000];
+		for (int i = 0; i < nodes.length; i++) {
+			nodes[i] = new SimpleNode(Integer.valueOf(i), random.nextDouble() * 1000, random.nextDouble() * 1000, 5, 5);
+		}
+		LayoutRelationship[] relationships = new LayoutRelationship[nodes.length];
+		for (int i = 0; i < relationships.length; i++) {
+			relationships[i] = new SimpleRelationship(nodes[i], nodes[random.nextInt(nodes.length)], false, 1);
+		}
+		SpringLayoutAlgorithm algorithm = createAlgorithm();
+		algorithm.setBarnesHutEnabled(true);
+		algorithm.setIterations(20);
+		algorithm.setForkJoinPool(pool);
+		algorithm.applyLayout(nodes, relationships, 0, 0, 1000, 1000, false, false);
+		return getLocations(nodes);
+	}
+
+	private static double[][] getLocations(SimpleNode[] nodes) {
+		double[][] locations = new double[nodes.length][];
+		for (int i = 0; i < nodes.length; i++) {
+			locations[i] = new double[] { nodes[i].getX(), nodes[i].getY() };
+		}
+		return locations;
+	}
+
+}
@@ -24,7 +24,12 @@ import org.junit.runners.Suite;
 @Suite.SuiteClasses({
 	GraphTests.class,
 	GraphSelectionTests.class,
-	GraphViewerTests.class
+	GraphViewerTests.class,
+	BarnesHutTreeTests.class,
+	SpringLayoutAlgorithmTests.class,
+	RelationTableTests.class,
+	MultilevelLayoutAlgorithmTests.class,
+	AbstractLayoutAlgorithmTests.class
 })
 public class ZestTestSuite {
 }